@@ -0,0 +1,136 @@
+package com.jlee.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 运行基准测试 (开启 GC profiler) 并与基线结果对比，吞吐量下降或每次操作分配的内存增加超过阈值时以状态码 1 退出
+ * <p>
+ * 运行: java -cp target/benchmarks.jar com.jlee.benchmark.BenchmarkRunner [include 正则] [-baseline baseline.json] [-threshold 0.10] [-output jmh-result.json]
+ * <p>
+ * 生成基线: 不带 -baseline 运行一次，将输出的 jmh-result.json 作为 baseline.json 保存
+ *
+ * @author jlee
+ */
+public final class BenchmarkRunner {
+
+    private static final String ALLOC_RATE_NORM = "·gc.alloc.rate.norm";
+
+    /**
+     * 每次操作分配的字节数比较时允许的误差 (字节)，避免极小的分配量因为噪声被判为退化
+     */
+    private static final double ALLOC_SLACK_BYTES = 16;
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        String include = "com\\.jlee\\.benchmark\\..*Benchmark.*";
+        String baseline = null;
+        String output = "jmh-result.json";
+        double threshold = 0.10;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-baseline":
+                    baseline = args[++i];
+                    break;
+                case "-threshold":
+                    threshold = Double.parseDouble(args[++i]);
+                    break;
+                case "-output":
+                    output = args[++i];
+                    break;
+                default:
+                    include = args[i];
+            }
+        }
+
+        final ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(output);
+        new Runner(options.build()).run();
+
+        if (baseline == null) {
+            return;
+        }
+        final List<String> regressions = compare(new File(baseline), new File(output), threshold);
+        if (regressions.isEmpty()) {
+            System.out.println("与基线 " + baseline + " 对比没有发现性能退化");
+            return;
+        }
+        System.err.println("与基线 " + baseline + " 对比发现性能退化 (阈值 " + threshold + "):");
+        regressions.forEach(regression -> System.err.println("  " + regression));
+        System.exit(1);
+    }
+
+    /**
+     * 对比两次 JMH JSON 结果
+     *
+     * @param baselineFile 基线结果
+     * @param currentFile  本次结果
+     * @param threshold    允许的变化比例
+     * @return 退化的基准测试描述，没有退化时为空列表
+     * @throws IOException 读取结果文件失败
+     */
+    static List<String> compare(File baselineFile, File currentFile, double threshold) throws IOException {
+        final ObjectMapper objectMapper = new ObjectMapper();
+        final Map<String, JsonNode> baseline = index(objectMapper.readTree(baselineFile));
+        final Map<String, JsonNode> current = index(objectMapper.readTree(currentFile));
+
+        final List<String> regressions = new ArrayList<>();
+        current.forEach((key, result) -> {
+            final JsonNode base = baseline.get(key);
+            if (base == null) {
+                return;
+            }
+            final double baseScore = base.path("primaryMetric").path("score").asDouble();
+            final double score = result.path("primaryMetric").path("score").asDouble();
+            if (score < baseScore * (1 - threshold)) {
+                regressions.add(String.format("%s 吞吐量 %.3f -> %.3f %s", key, baseScore, score,
+                        result.path("primaryMetric").path("scoreUnit").asText()));
+            }
+
+            final JsonNode baseAlloc = base.path("secondaryMetrics").path(ALLOC_RATE_NORM).path("score");
+            final JsonNode alloc = result.path("secondaryMetrics").path(ALLOC_RATE_NORM).path("score");
+            if (baseAlloc.isNumber() && alloc.isNumber()
+                    && alloc.asDouble() > baseAlloc.asDouble() * (1 + threshold) + ALLOC_SLACK_BYTES) {
+                regressions.add(String.format("%s 每次操作分配 %.1f -> %.1f B/op", key, baseAlloc.asDouble(), alloc.asDouble()));
+            }
+        });
+        return regressions;
+    }
+
+    /**
+     * 以 “基准测试方法名 + 参数” 为键索引结果
+     */
+    private static Map<String, JsonNode> index(JsonNode results) {
+        final Map<String, JsonNode> indexed = new LinkedHashMap<>();
+        for (JsonNode result : results) {
+            final StringBuilder key = new StringBuilder(result.path("benchmark").asText());
+            final JsonNode params = result.path("params");
+            final Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+            while (fields.hasNext()) {
+                final Map.Entry<String, JsonNode> param = fields.next();
+                key.append(key.indexOf(":") < 0 ? ":" : ",").append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+            indexed.put(key.toString(), result);
+        }
+        return indexed;
+    }
+}
@@ -0,0 +1,83 @@
+package com.jlee.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.jlee.config.JavaUtilDateCodecs;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * yyyy-MM-dd HH:mm:ss 格式的 Date 序列化和反序列化：SimpleDateFormat 与 {@link JavaUtilDateCodecs}
+ * <p>
+ * 每次只读写一个 Date，SimpleDateFormat 每次调用都要 clone 一份
+ *
+ * @author jlee
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DateCodecBenchmark {
+
+    private static final String PATTERN = "yyyy-MM-dd HH:mm:ss";
+
+    private ObjectWriter simpleDateFormatWriter;
+    private ObjectWriter formatterWriter;
+    private ObjectReader simpleDateFormatReader;
+    private ObjectReader formatterReader;
+    private Date value;
+    private String json;
+
+    @Setup
+    public void setup() throws IOException {
+        final TimeZone timeZone = TimeZone.getTimeZone("Asia/Shanghai");
+        final ObjectMapper simpleDateFormatMapper = new ObjectMapper().setDateFormat(simpleDateFormat(timeZone));
+        final ObjectMapper formatterMapper = new ObjectMapper().setDateFormat(simpleDateFormat(timeZone))
+                .registerModule(JavaUtilDateCodecs.module(PATTERN, timeZone));
+        this.simpleDateFormatWriter = simpleDateFormatMapper.writerFor(Date.class);
+        this.formatterWriter = formatterMapper.writerFor(Date.class);
+        this.simpleDateFormatReader = simpleDateFormatMapper.readerFor(Date.class);
+        this.formatterReader = formatterMapper.readerFor(Date.class);
+
+        this.value = new Date(1627481585000L);
+        this.json = this.simpleDateFormatWriter.writeValueAsString(this.value);
+    }
+
+    private static SimpleDateFormat simpleDateFormat(TimeZone timeZone) {
+        final SimpleDateFormat simpleDateFormat = new SimpleDateFormat(PATTERN);
+        simpleDateFormat.setTimeZone(timeZone);
+        return simpleDateFormat;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String serializeSimpleDateFormat() throws IOException {
+        return this.simpleDateFormatWriter.writeValueAsString(this.value);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String serializeFormatter() throws IOException {
+        return this.formatterWriter.writeValueAsString(this.value);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Date deserializeSimpleDateFormat() throws IOException {
+        return this.simpleDateFormatReader.readValue(this.json);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Date deserializeFormatter() throws IOException {
+        return this.formatterReader.readValue(this.json);
+    }
+}
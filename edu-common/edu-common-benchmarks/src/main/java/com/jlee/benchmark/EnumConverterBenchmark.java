@@ -0,0 +1,158 @@
+package com.jlee.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.jlee.annotation.EnumCode;
+import com.jlee.converter.MyIntegerToEnumConverterFactory;
+import com.jlee.converter.MyStringToEnumConverterFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.convert.converter.Converter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link MyStringToEnumConverterFactory} 和 {@link MyIntegerToEnumConverterFactory} 转换枚举
+ *
+ * @author jlee
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class EnumConverterBenchmark {
+
+    private Converter<String, Weekday> stringToPlain;
+    private Converter<String, Gender> stringToCreator;
+    private Converter<String, Gender> stringToPrecomputedCreator;
+    private Converter<Integer, Weekday> integerToPlain;
+    private Converter<Integer, Gender> integerToCreator;
+    private Converter<Integer, Level> integerToCode;
+
+    private final Integer ordinal = 5;
+    private final Integer code = 20;
+
+    @Setup
+    public void setup() {
+        final MyStringToEnumConverterFactory stringFactory = new MyStringToEnumConverterFactory();
+        final MyIntegerToEnumConverterFactory integerFactory = new MyIntegerToEnumConverterFactory();
+        this.stringToPlain = stringFactory.getConverter(Weekday.class);
+        this.stringToCreator = stringFactory.getConverter(Gender.class);
+        this.stringToPrecomputedCreator = new MyStringToEnumConverterFactory(true).getConverter(Gender.class);
+        this.integerToPlain = integerFactory.getConverter(Weekday.class);
+        this.integerToCreator = integerFactory.getConverter(Gender.class);
+        this.integerToCode = integerFactory.getConverter(Level.class);
+    }
+
+    @Benchmark
+    public Weekday stringByName() {
+        return this.stringToPlain.convert("SATURDAY");
+    }
+
+    @Benchmark
+    public Weekday stringByOrdinal() {
+        return this.stringToPlain.convert("5");
+    }
+
+    @Benchmark
+    public Gender stringWithCreator() {
+        return this.stringToCreator.convert("FEMALE");
+    }
+
+    @Benchmark
+    public Gender stringWithPrecomputedCreator() {
+        return this.stringToPrecomputedCreator.convert("FEMALE");
+    }
+
+    @Benchmark
+    public Weekday integerByOrdinal() {
+        return this.integerToPlain.convert(this.ordinal);
+    }
+
+    @Benchmark
+    public Gender integerWithCreator() {
+        return this.integerToCreator.convert(this.code);
+    }
+
+    @Benchmark
+    public Level integerByCode() {
+        return this.integerToCode.convert(this.code);
+    }
+
+    /**
+     * 用 EnumCode 声明状态码的枚举
+     */
+    public enum Level {
+        /**
+         * 级别
+         */
+        LOW(10), MIDDLE(20), HIGH(30);
+
+        @EnumCode
+        private final int code;
+
+        Level(int code) {
+            this.code = code;
+        }
+    }
+
+    /**
+     * 没有 JsonCreator 的枚举
+     */
+    public enum Weekday {
+        /**
+         * 星期
+         */
+        MONDAY, TUESDAY, WEDNESDAY, THURSDAY, FRIDAY, SATURDAY, SUNDAY
+    }
+
+    /**
+     * 有 JsonCreator 的枚举，与 demo 中的 Gender 相同
+     */
+    public enum Gender {
+        /**
+         * 性别男
+         */
+        MALE(10, "男"),
+        /**
+         * 性别女
+         */
+        FEMALE(20, "女");
+
+        private final Integer code;
+        private final String description;
+
+        Gender(Integer code, String description) {
+            this.code = code;
+            this.description = description;
+        }
+
+        @JsonCreator
+        public static Gender create(String value) {
+            try {
+                return Gender.valueOf(value);
+            } catch (IllegalArgumentException e) {
+                for (Gender gender : Gender.values()) {
+                    try {
+                        if (gender.code.equals(Integer.parseInt(value))) {
+                            return gender;
+                        }
+                    } catch (NumberFormatException n) {
+                        if (gender.description.equals(value)) {
+                            return gender;
+                        }
+                    }
+                }
+                throw new IllegalArgumentException("没有元素匹配 " + value);
+            }
+        }
+
+        public Integer getCode() {
+            return code;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.jlee.benchmark;
+
+import com.jlee.config.ResponseResultProperties;
+import com.jlee.configurer.GlobalExceptionHandler;
+import com.jlee.exception.ApiException;
+import com.jlee.exception.ErrorViewModel;
+import com.jlee.result.ResultStatus;
+import com.jlee.utils.ResponseResultPropertiesUtils;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindException;
+import org.springframework.validation.FieldError;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link GlobalExceptionHandler} 创建错误信息 (日志在 logback.xml 中关闭，只测量创建和判断日志级别的开销)
+ *
+ * @author jlee
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class GlobalExceptionHandlerBenchmark {
+
+    /**
+     * 校验失败的字段数量
+     */
+    @Param({"1", "20"})
+    private int fieldErrors;
+
+    private GlobalExceptionHandler globalExceptionHandler;
+    private MockHttpServletRequest request;
+    private BindException bindException;
+
+    @Setup
+    public void setup() {
+        ResponseResultPropertiesUtils.setResponseResultProperties(new ResponseResultProperties());
+        this.globalExceptionHandler = new GlobalExceptionHandler();
+        this.request = new MockHttpServletRequest("POST", "/courses");
+
+        final BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(new Object(), "course");
+        for (int i = 0; i < this.fieldErrors; i++) {
+            bindingResult.addError(new FieldError("course", "field" + i, "不能为空"));
+        }
+        this.bindException = new BindException(bindingResult);
+    }
+
+    @Benchmark
+    public ErrorViewModel apiException() {
+        return this.globalExceptionHandler.handleApiException(new ApiException(BenchmarkResultStatus.COURSE_NOT_FOUND), this.request);
+    }
+
+    @Benchmark
+    public ErrorViewModel lightweightApiException() {
+        return this.globalExceptionHandler.handleApiException(new ApiException(BenchmarkResultStatus.COURSE_FULL), this.request);
+    }
+
+    @Benchmark
+    public ErrorViewModel bindException() {
+        return this.globalExceptionHandler.handleBindException(this.bindException, this.request);
+    }
+
+    public enum BenchmarkResultStatus implements ResultStatus {
+        /**
+         * 课程不存在
+         */
+        COURSE_NOT_FOUND(1001, "课程不存在", HttpStatus.NOT_FOUND),
+        /**
+         * 课程已满 (轻量模式)
+         */
+        COURSE_FULL(1002, "课程已满", HttpStatus.CONFLICT) {
+            @Override
+            public boolean isLightweight() {
+                return true;
+            }
+        };
+
+        private final int code;
+        private final String message;
+        private final HttpStatus httpStatus;
+
+        BenchmarkResultStatus(int code, String message, HttpStatus httpStatus) {
+            this.code = code;
+            this.message = message;
+            this.httpStatus = httpStatus;
+        }
+
+        @Override
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public HttpStatus getHttpStatus() {
+            return httpStatus;
+        }
+
+        @Override
+        public int getCode() {
+            return code;
+        }
+    }
+}
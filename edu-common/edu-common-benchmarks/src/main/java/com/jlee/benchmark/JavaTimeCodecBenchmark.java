@@ -0,0 +1,90 @@
+package com.jlee.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+import com.jlee.config.FixedWidthJavaTimeCodecs;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * yyyy-MM-dd HH:mm:ss 格式的 LocalDateTime 序列化和反序列化：DateTimeFormatter 与 {@link FixedWidthJavaTimeCodecs}
+ *
+ * @author jlee
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class JavaTimeCodecBenchmark {
+
+    private static final String PATTERN = "yyyy-MM-dd HH:mm:ss";
+
+    /**
+     * 每次序列化的时间数量
+     */
+    @Param({"100"})
+    private int size;
+
+    private ObjectWriter formatterWriter;
+    private ObjectWriter fixedWidthWriter;
+    private ObjectReader formatterReader;
+    private ObjectReader fixedWidthReader;
+    private LocalDateTime[] values;
+    private String json;
+
+    @Setup
+    public void setup() throws IOException {
+        final DateTimeFormatter formatter = DateTimeFormatter.ofPattern(PATTERN);
+        final ObjectMapper formatterMapper = new ObjectMapper().registerModule(new SimpleModule()
+                .addSerializer(LocalDateTime.class, new LocalDateTimeSerializer(formatter))
+                .addDeserializer(LocalDateTime.class, new LocalDateTimeDeserializer(formatter)));
+        final ObjectMapper fixedWidthMapper = new ObjectMapper().registerModule(new SimpleModule()
+                .addSerializer(LocalDateTime.class, FixedWidthJavaTimeCodecs.localDateTimeSerializer(PATTERN))
+                .addDeserializer(LocalDateTime.class, FixedWidthJavaTimeCodecs.localDateTimeDeserializer(PATTERN)));
+        this.formatterWriter = formatterMapper.writerFor(LocalDateTime[].class);
+        this.fixedWidthWriter = fixedWidthMapper.writerFor(LocalDateTime[].class);
+        this.formatterReader = formatterMapper.readerFor(LocalDateTime[].class);
+        this.fixedWidthReader = fixedWidthMapper.readerFor(LocalDateTime[].class);
+
+        final List<LocalDateTime> list = new ArrayList<>(this.size);
+        LocalDateTime time = LocalDateTime.of(2021, 7, 28, 22, 13, 5);
+        for (int i = 0; i < this.size; i++) {
+            list.add(time);
+            time = time.plusSeconds(3_601L);
+        }
+        this.values = list.toArray(new LocalDateTime[0]);
+        this.json = this.formatterWriter.writeValueAsString(this.values);
+    }
+
+    @Benchmark
+    public String serializeFormatter() throws IOException {
+        return this.formatterWriter.writeValueAsString(this.values);
+    }
+
+    @Benchmark
+    public String serializeFixedWidth() throws IOException {
+        return this.fixedWidthWriter.writeValueAsString(this.values);
+    }
+
+    @Benchmark
+    public LocalDateTime[] deserializeFormatter() throws IOException {
+        return this.formatterReader.readValue(this.json);
+    }
+
+    @Benchmark
+    public LocalDateTime[] deserializeFixedWidth() throws IOException {
+        return this.fixedWidthReader.readValue(this.json);
+    }
+}
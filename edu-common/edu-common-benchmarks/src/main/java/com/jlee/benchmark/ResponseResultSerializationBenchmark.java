@@ -0,0 +1,93 @@
+package com.jlee.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jlee.config.ResponseResultProperties;
+import com.jlee.result.ResponseResult;
+import com.jlee.result.ResponseResultSerializer;
+import com.jlee.utils.ResponseResultPropertiesUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ResponseResult 序列化：{@link ResponseResultSerializer} 直接写出 与 先转换为 Map 再写出 的对比
+ * <p>
+ * 运行: java -jar target/benchmarks.jar ResponseResultSerializationBenchmark -prof gc
+ *
+ * @author jlee
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseResultSerializationBenchmark {
+
+    /**
+     * result 中列表的长度
+     */
+    @Param({"1", "1000"})
+    private int size;
+
+    private ResponseResultProperties properties;
+
+    private ObjectMapper objectMapper;
+
+    private ResponseResult<List<Row>> responseResult;
+
+    @Setup
+    public void setup() {
+        this.properties = new ResponseResultProperties();
+        ResponseResultPropertiesUtils.setResponseResultProperties(this.properties);
+        this.objectMapper = new ObjectMapper();
+        final List<Row> rows = new ArrayList<>(this.size);
+        for (int i = 0; i < this.size; i++) {
+            rows.add(new Row(i, "课程-" + i, i % 2 == 0));
+        }
+        this.responseResult = ResponseResult.ok(rows);
+    }
+
+    @Benchmark
+    public byte[] streamingSerializer() throws JsonProcessingException {
+        return this.objectMapper.writeValueAsBytes(this.responseResult);
+    }
+
+    @Benchmark
+    public byte[] jsonValueMap() throws JsonProcessingException {
+        final Map<String, Object> map = new HashMap<>(3);
+        map.put(this.properties.getCodeFieldName(), this.responseResult.getCode());
+        map.put(this.properties.getMessageFieldName(), this.responseResult.getMessage());
+        map.put(this.properties.getResultFieldName(), this.responseResult.getResult());
+        return this.objectMapper.writeValueAsBytes(map);
+    }
+
+    public static class Row {
+        private final long id;
+        private final String name;
+        private final boolean enabled;
+
+        public Row(long id, String name, boolean enabled) {
+            this.id = id;
+            this.name = name;
+            this.enabled = enabled;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+    }
+}
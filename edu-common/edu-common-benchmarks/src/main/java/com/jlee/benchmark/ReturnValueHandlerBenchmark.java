@@ -0,0 +1,126 @@
+package com.jlee.benchmark;
+
+import com.jlee.config.ResponseResultProperties;
+import com.jlee.configurer.ReturnValueHandler;
+import com.jlee.result.ResponseResult;
+import com.jlee.utils.ResponseResultPropertiesUtils;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ReturnValueHandler#handleReturnValue} 包装并写出返回值
+ * <p>
+ * mode: BODY 未启用 Http 状态；STATUS_BODY 启用 Http 状态；HEADER 启用 Http 状态并将状态和提示信息写入响应头
+ *
+ * @author jlee
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ReturnValueHandlerBenchmark {
+
+    @Param({"BODY", "STATUS_BODY", "HEADER"})
+    private String mode;
+
+    private ReturnValueHandler returnValueHandler;
+    private MethodParameter responseResultReturnType;
+    private MethodParameter plainReturnType;
+
+    private MockHttpServletResponse response;
+    private ServletWebRequest webRequest;
+    private ModelAndViewContainer mavContainer;
+
+    private ResponseResult<Course> responseResult;
+    private Course course;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        final ResponseResultProperties properties = new ResponseResultProperties();
+        properties.setEnabledHttpStatus(!"BODY".equals(this.mode));
+        if ("HEADER".equals(this.mode)) {
+            properties.setCodeHeadTitle("xx-code");
+        }
+        ResponseResultPropertiesUtils.setResponseResultProperties(properties);
+
+        final List<HttpMessageConverter<?>> converters = new ArrayList<>();
+        converters.add(new ByteArrayHttpMessageConverter());
+        converters.add(new StringHttpMessageConverter());
+        converters.add(new MappingJackson2HttpMessageConverter());
+        this.returnValueHandler = new ReturnValueHandler(properties, converters);
+
+        this.responseResultReturnType = new MethodParameter(CourseController.class.getMethod("detail"), -1);
+        this.plainReturnType = new MethodParameter(CourseController.class.getMethod("plain"), -1);
+
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/courses/1");
+        request.addHeader("Accept", "application/json, text/plain, */*");
+        this.response = new MockHttpServletResponse();
+        this.webRequest = new ServletWebRequest(request, this.response);
+        this.mavContainer = new ModelAndViewContainer();
+
+        this.course = new Course(1L, "高等数学", "第一章 函数与极限");
+        this.responseResult = ResponseResult.ok(this.course);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse responseResult() throws Exception {
+        this.response.reset();
+        this.returnValueHandler.handleReturnValue(this.responseResult, this.responseResultReturnType, this.mavContainer, this.webRequest);
+        return this.response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse plainValue() throws Exception {
+        this.response.reset();
+        this.returnValueHandler.handleReturnValue(this.course, this.plainReturnType, this.mavContainer, this.webRequest);
+        return this.response;
+    }
+
+    public static class CourseController {
+        public ResponseResult<Course> detail() {
+            return null;
+        }
+
+        public Course plain() {
+            return null;
+        }
+    }
+
+    public static class Course {
+        private final long id;
+        private final String name;
+        private final String chapter;
+
+        public Course(long id, String name, String chapter) {
+            this.id = id;
+            this.name = name;
+            this.chapter = chapter;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getChapter() {
+            return chapter;
+        }
+    }
+}
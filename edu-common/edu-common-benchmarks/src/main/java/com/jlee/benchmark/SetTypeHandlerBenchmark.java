@@ -0,0 +1,106 @@
+package com.jlee.benchmark;
+
+import com.jlee.data.configurer.type.AbstractSetTypeHandler;
+import com.jlee.data.configurer.type.IntArraySet;
+import com.jlee.data.configurer.type.IntSetTypeHandler;
+import com.jlee.data.configurer.type.StringSetTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link AbstractSetTypeHandler} 解析和格式化 “,xxx,xxx,xxx,” 格式的字段，包括字符串元素和 int 元素 ({@link IntSetTypeHandler})
+ * <p>
+ * ResultSet 和 PreparedStatement 使用动态代理，只返回或记录字段值
+ *
+ * @author jlee
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SetTypeHandlerBenchmark {
+
+    /**
+     * 集合中的元素数量
+     */
+    @Param({"4", "64"})
+    private int size;
+
+    private StringSetTypeHandler typeHandler;
+    private IntSetTypeHandler intTypeHandler;
+    private ResultSet resultSet;
+    private ResultSet intResultSet;
+    private PreparedStatement preparedStatement;
+    private Set<String> values;
+    private Set<Integer> intValues;
+
+    /**
+     * PreparedStatement 最后一次设置的值
+     */
+    private Object parameter;
+
+    @Setup
+    public void setup() {
+        this.typeHandler = new StringSetTypeHandler();
+        this.intTypeHandler = new IntSetTypeHandler();
+        this.values = new LinkedHashSet<>();
+        final IntArraySet ints = new IntArraySet(this.size);
+        final StringBuilder column = new StringBuilder(",");
+        final StringBuilder intColumn = new StringBuilder(",");
+        for (int i = 0; i < this.size; i++) {
+            final String tag = "tag" + i;
+            this.values.add(tag);
+            column.append(tag).append(',');
+            ints.add(10_000 + i);
+            intColumn.append(10_000 + i).append(',');
+        }
+        this.intValues = ints;
+        final String columnValue = column.toString();
+        final String intColumnValue = intColumn.toString();
+
+        final ClassLoader classLoader = getClass().getClassLoader();
+        this.resultSet = (ResultSet) Proxy.newProxyInstance(classLoader, new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> "getString".equals(method.getName()) ? columnValue : null);
+        this.intResultSet = (ResultSet) Proxy.newProxyInstance(classLoader, new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> "getString".equals(method.getName()) ? intColumnValue : null);
+        this.preparedStatement = (PreparedStatement) Proxy.newProxyInstance(classLoader, new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> {
+                    if ("setString".equals(method.getName())) {
+                        this.parameter = args[1];
+                    }
+                    return null;
+                });
+    }
+
+    @Benchmark
+    public Set<String> parse() throws SQLException {
+        return this.typeHandler.getNullableResult(this.resultSet, 1);
+    }
+
+    @Benchmark
+    public Object format() throws SQLException {
+        this.typeHandler.setNonNullParameter(this.preparedStatement, 1, this.values, JdbcType.VARCHAR);
+        return this.parameter;
+    }
+
+    @Benchmark
+    public Set<Integer> parseInt() throws SQLException {
+        return this.intTypeHandler.getNullableResult(this.intResultSet, 1);
+    }
+
+    @Benchmark
+    public Object formatInt() throws SQLException {
+        this.intTypeHandler.setNonNullParameter(this.preparedStatement, 1, this.intValues, JdbcType.VARCHAR);
+        return this.parameter;
+    }
+}
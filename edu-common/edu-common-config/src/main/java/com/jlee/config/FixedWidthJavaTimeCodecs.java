@@ -0,0 +1,396 @@
+package com.jlee.config;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateDeserializer;
+import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
+import com.fasterxml.jackson.datatype.jsr310.deser.LocalTimeDeserializer;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateSerializer;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalTimeSerializer;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 定长日期格式 (如 yyyy-MM-dd HH:mm:ss、yyyy-MM-dd、HH:mm:ss) 的 LocalDateTime、LocalDate、LocalTime 序列化器和反序列化器
+ * <p>
+ * 格式是 "年月日、时分秒各占固定位数，之间是单个分隔符" 时，序列化直接把数字写入字符数组后交给 JsonGenerator，
+ * 反序列化按固定位置读取 JsonParser 中的字符，都不再经过 DateTimeFormatter (不创建 DateTimePrintContext、Parsed 等中间对象)；
+ * 其他格式、值超出范围 (如年份不是 4 位)、字符串不是定长格式时，仍由 DateTimeFormatter 处理，结果相同
+ * <p>
+ * jsr310 的 createContextual 在没有任何格式覆盖时也会调用 withFormat 创建新的 (非 Fast) 实例，所以 Fast* 重写了 createContextual：
+ * 字段上的 JsonFormat、类型的 configOverride 或全局默认格式没有指定形状、格式、时区、leniency 等时保留自身，
+ * 有覆盖时才交给 jsr310 原来的处理方式
+ *
+ * @author jlee
+ */
+public final class FixedWidthJavaTimeCodecs {
+
+    /**
+     * 分隔符：单个非字母字符 (DateTimeFormatter 的保留字符除外)，或者用单引号括起来的单个字母 (如 'T')
+     */
+    private static final String SEPARATOR = "([^A-Za-z'\\[\\]#{}]|'[A-Za-z]')";
+    private static final Pattern DATE_TIME_PATTERN = Pattern.compile("yyyy" + SEPARATOR + "MM" + SEPARATOR + "dd" + SEPARATOR + "HH" + SEPARATOR + "mm" + SEPARATOR + "ss");
+    private static final Pattern DATE_PATTERN = Pattern.compile("yyyy" + SEPARATOR + "MM" + SEPARATOR + "dd");
+    private static final Pattern TIME_PATTERN = Pattern.compile("HH" + SEPARATOR + "mm" + SEPARATOR + "ss");
+
+    /**
+     * 日期部分的长度 yyyy-MM-dd
+     */
+    private static final int DATE_LENGTH = 10;
+    /**
+     * 时间部分的长度 HH:mm:ss
+     */
+    private static final int TIME_LENGTH = 8;
+
+    private FixedWidthJavaTimeCodecs() {
+    }
+
+    public static JsonSerializer<LocalDateTime> localDateTimeSerializer(String pattern) {
+        final DateTimeFormatter formatter = DateTimeFormatter.ofPattern(pattern);
+        final char[] template = template(DATE_TIME_PATTERN, pattern);
+        return template == null ? new LocalDateTimeSerializer(formatter) : new FastLocalDateTimeSerializer(formatter, template);
+    }
+
+    public static JsonDeserializer<LocalDateTime> localDateTimeDeserializer(String pattern) {
+        final DateTimeFormatter formatter = DateTimeFormatter.ofPattern(pattern);
+        final char[] template = template(DATE_TIME_PATTERN, pattern);
+        return template == null ? new LocalDateTimeDeserializer(formatter) : new FastLocalDateTimeDeserializer(formatter, template);
+    }
+
+    public static JsonSerializer<LocalDate> localDateSerializer(String pattern) {
+        final DateTimeFormatter formatter = DateTimeFormatter.ofPattern(pattern);
+        final char[] template = template(DATE_PATTERN, pattern);
+        return template == null ? new LocalDateSerializer(formatter) : new FastLocalDateSerializer(formatter, template);
+    }
+
+    public static JsonDeserializer<LocalDate> localDateDeserializer(String pattern) {
+        final DateTimeFormatter formatter = DateTimeFormatter.ofPattern(pattern);
+        final char[] template = template(DATE_PATTERN, pattern);
+        return template == null ? new LocalDateDeserializer(formatter) : new FastLocalDateDeserializer(formatter, template);
+    }
+
+    public static JsonSerializer<LocalTime> localTimeSerializer(String pattern) {
+        final DateTimeFormatter formatter = DateTimeFormatter.ofPattern(pattern);
+        final char[] template = template(TIME_PATTERN, pattern);
+        return template == null ? new LocalTimeSerializer(formatter) : new FastLocalTimeSerializer(formatter, template);
+    }
+
+    public static JsonDeserializer<LocalTime> localTimeDeserializer(String pattern) {
+        final DateTimeFormatter formatter = DateTimeFormatter.ofPattern(pattern);
+        final char[] template = template(TIME_PATTERN, pattern);
+        return template == null ? new LocalTimeDeserializer(formatter) : new FastLocalTimeDeserializer(formatter, template);
+    }
+
+    /**
+     * 把格式转换为输出模板，数字的位置为 '0'，分隔符的位置为分隔符
+     *
+     * @return 输出模板，不是定长格式时返回 null
+     */
+    @Nullable
+    static char[] template(Pattern fixedPattern, String pattern) {
+        final Matcher matcher = fixedPattern.matcher(pattern);
+        if (!matcher.matches()) {
+            return null;
+        }
+        final int groups = matcher.groupCount();
+        final char[] template = new char[groups == 5 ? DATE_LENGTH + 1 + TIME_LENGTH : fixedPattern == DATE_PATTERN ? DATE_LENGTH : TIME_LENGTH];
+        // 数字部分的长度：日期 yyyy MM dd，时间 HH mm ss
+        final int[] widths = fixedPattern == TIME_PATTERN ? new int[]{2, 2, 2} : new int[]{4, 2, 2, 2, 2, 2};
+        int position = 0;
+        for (int i = 0; i <= groups; i++) {
+            for (int j = 0; j < widths[i]; j++) {
+                template[position++] = '0';
+            }
+            if (i < groups) {
+                final String separator = matcher.group(i + 1);
+                template[position++] = separator.length() == 1 ? separator.charAt(0) : separator.charAt(1);
+            }
+        }
+        return template;
+    }
+
+    /**
+     * 写出日期部分，年份不是 1 ~ 9999 时返回 false
+     */
+    static boolean writeDate(char[] buffer, int offset, LocalDate date) {
+        final int year = date.getYear();
+        if (year < 1 || year > 9999) {
+            return false;
+        }
+        writeDigits(buffer, offset, year / 100);
+        writeDigits(buffer, offset + 2, year % 100);
+        writeDigits(buffer, offset + 5, date.getMonthValue());
+        writeDigits(buffer, offset + 8, date.getDayOfMonth());
+        return true;
+    }
+
+    static void writeTime(char[] buffer, int offset, LocalTime time) {
+        writeDigits(buffer, offset, time.getHour());
+        writeDigits(buffer, offset + 3, time.getMinute());
+        writeDigits(buffer, offset + 6, time.getSecond());
+    }
+
+    private static void writeDigits(char[] buffer, int offset, int value) {
+        buffer[offset] = (char) ('0' + value / 10);
+        buffer[offset + 1] = (char) ('0' + value % 10);
+    }
+
+    /**
+     * 按模板读取日期部分
+     *
+     * @return 日期，格式不符时返回 null
+     */
+    @Nullable
+    static LocalDate readDate(char[] text, int offset, char[] template, int templateOffset) {
+        if (text[offset + 4] != template[templateOffset + 4] || text[offset + 7] != template[templateOffset + 7]) {
+            return null;
+        }
+        final int high = readDigits(text, offset);
+        final int low = readDigits(text, offset + 2);
+        final int month = readDigits(text, offset + 5);
+        final int day = readDigits(text, offset + 8);
+        if ((high | low | month | day) < 0 || (high == 0 && low == 0)) {
+            return null;
+        }
+        try {
+            return LocalDate.of(high * 100 + low, month, day);
+        } catch (DateTimeException e) {
+            // 无效的日期交给 DateTimeFormatter，保持原来的解析规则
+            return null;
+        }
+    }
+
+    /**
+     * 按模板读取时间部分
+     *
+     * @return 时间，格式不符时返回 null
+     */
+    @Nullable
+    static LocalTime readTime(char[] text, int offset, char[] template, int templateOffset) {
+        if (text[offset + 2] != template[templateOffset + 2] || text[offset + 5] != template[templateOffset + 5]) {
+            return null;
+        }
+        final int hour = readDigits(text, offset);
+        final int minute = readDigits(text, offset + 3);
+        final int second = readDigits(text, offset + 6);
+        if ((hour | minute | second) < 0 || hour > 23 || minute > 59 || second > 59) {
+            return null;
+        }
+        return LocalTime.of(hour, minute, second);
+    }
+
+    /**
+     * 读取两位数字
+     *
+     * @return 数值，不是数字时返回 -1
+     */
+    private static int readDigits(char[] text, int offset) {
+        final int high = text[offset] - '0';
+        final int low = text[offset + 1] - '0';
+        if (high < 0 || high > 9 || low < 0 || low > 9) {
+            return -1;
+        }
+        return high * 10 + low;
+    }
+
+    /**
+     * 格式覆盖为空 (没有 JsonFormat、configOverride、全局默认格式) 时返回 true，此时 createContextual 保留 Fast* 实例
+     */
+    private static boolean isDefaultFormat(@Nullable JsonFormat.Value format) {
+        return format == null || JsonFormat.Value.empty().equals(format);
+    }
+
+    /**
+     * JsonParser 当前是字符串、并且长度与模板相同时返回 true
+     */
+    private static boolean isFixedWidthString(JsonParser p, char[] template) throws IOException {
+        return p.hasToken(JsonToken.VALUE_STRING) && p.getTextLength() == template.length;
+    }
+
+    static final class FastLocalDateTimeSerializer extends LocalDateTimeSerializer {
+        private static final long serialVersionUID = 1L;
+
+        private final char[] template;
+
+        FastLocalDateTimeSerializer(DateTimeFormatter formatter, char[] template) {
+            super(formatter);
+            this.template = template;
+        }
+
+        @Override
+        public JsonSerializer<?> createContextual(SerializerProvider prov, BeanProperty property) throws JsonMappingException {
+            return isDefaultFormat(findFormatOverrides(prov, property, handledType())) ? this : super.createContextual(prov, property);
+        }
+
+        @Override
+        public void serialize(LocalDateTime value, JsonGenerator g, SerializerProvider provider) throws IOException {
+            if (!useTimestamp(provider)) {
+                final char[] buffer = this.template.clone();
+                if (writeDate(buffer, 0, value.toLocalDate())) {
+                    writeTime(buffer, DATE_LENGTH + 1, value.toLocalTime());
+                    g.writeString(buffer, 0, buffer.length);
+                    return;
+                }
+            }
+            super.serialize(value, g, provider);
+        }
+    }
+
+    static final class FastLocalDateTimeDeserializer extends LocalDateTimeDeserializer {
+        private static final long serialVersionUID = 1L;
+
+        private final char[] template;
+
+        FastLocalDateTimeDeserializer(DateTimeFormatter formatter, char[] template) {
+            super(formatter);
+            this.template = template;
+        }
+
+        @Override
+        public JsonDeserializer<?> createContextual(DeserializationContext ctxt, BeanProperty property) throws JsonMappingException {
+            return isDefaultFormat(findFormatOverrides(ctxt, property, handledType())) ? this : super.createContextual(ctxt, property);
+        }
+
+        @Override
+        public LocalDateTime deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (isFixedWidthString(p, this.template)) {
+                final char[] text = p.getTextCharacters();
+                final int offset = p.getTextOffset();
+                if (text[offset + DATE_LENGTH] == this.template[DATE_LENGTH]) {
+                    final LocalDate date = readDate(text, offset, this.template, 0);
+                    final LocalTime time = date == null ? null : readTime(text, offset + DATE_LENGTH + 1, this.template, DATE_LENGTH + 1);
+                    if (time != null) {
+                        return LocalDateTime.of(date, time);
+                    }
+                }
+            }
+            return super.deserialize(p, ctxt);
+        }
+    }
+
+    static final class FastLocalDateSerializer extends LocalDateSerializer {
+        private static final long serialVersionUID = 1L;
+
+        private final char[] template;
+
+        FastLocalDateSerializer(DateTimeFormatter formatter, char[] template) {
+            super(formatter);
+            this.template = template;
+        }
+
+        @Override
+        public JsonSerializer<?> createContextual(SerializerProvider prov, BeanProperty property) throws JsonMappingException {
+            return isDefaultFormat(findFormatOverrides(prov, property, handledType())) ? this : super.createContextual(prov, property);
+        }
+
+        @Override
+        public void serialize(LocalDate value, JsonGenerator g, SerializerProvider provider) throws IOException {
+            if (!useTimestamp(provider)) {
+                final char[] buffer = this.template.clone();
+                if (writeDate(buffer, 0, value)) {
+                    g.writeString(buffer, 0, buffer.length);
+                    return;
+                }
+            }
+            super.serialize(value, g, provider);
+        }
+    }
+
+    static final class FastLocalDateDeserializer extends LocalDateDeserializer {
+        private static final long serialVersionUID = 1L;
+
+        private final char[] template;
+
+        FastLocalDateDeserializer(DateTimeFormatter formatter, char[] template) {
+            super(formatter);
+            this.template = template;
+        }
+
+        @Override
+        public JsonDeserializer<?> createContextual(DeserializationContext ctxt, BeanProperty property) throws JsonMappingException {
+            return isDefaultFormat(findFormatOverrides(ctxt, property, handledType())) ? this : super.createContextual(ctxt, property);
+        }
+
+        @Override
+        public LocalDate deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (isFixedWidthString(p, this.template)) {
+                final LocalDate date = readDate(p.getTextCharacters(), p.getTextOffset(), this.template, 0);
+                if (date != null) {
+                    return date;
+                }
+            }
+            return super.deserialize(p, ctxt);
+        }
+    }
+
+    static final class FastLocalTimeSerializer extends LocalTimeSerializer {
+        private static final long serialVersionUID = 1L;
+
+        private final char[] template;
+
+        FastLocalTimeSerializer(DateTimeFormatter formatter, char[] template) {
+            super(formatter);
+            this.template = template;
+        }
+
+        @Override
+        public JsonSerializer<?> createContextual(SerializerProvider prov, BeanProperty property) throws JsonMappingException {
+            return isDefaultFormat(findFormatOverrides(prov, property, handledType())) ? this : super.createContextual(prov, property);
+        }
+
+        @Override
+        public void serialize(LocalTime value, JsonGenerator g, SerializerProvider provider) throws IOException {
+            if (!useTimestamp(provider)) {
+                final char[] buffer = this.template.clone();
+                writeTime(buffer, 0, value);
+                g.writeString(buffer, 0, buffer.length);
+                return;
+            }
+            super.serialize(value, g, provider);
+        }
+    }
+
+    static final class FastLocalTimeDeserializer extends LocalTimeDeserializer {
+        private static final long serialVersionUID = 1L;
+
+        private final char[] template;
+
+        FastLocalTimeDeserializer(DateTimeFormatter formatter, char[] template) {
+            super(formatter);
+            this.template = template;
+        }
+
+        @Override
+        public JsonDeserializer<?> createContextual(DeserializationContext ctxt, BeanProperty property) throws JsonMappingException {
+            return isDefaultFormat(findFormatOverrides(ctxt, property, handledType())) ? this : super.createContextual(ctxt, property);
+        }
+
+        @Override
+        public LocalTime deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (isFixedWidthString(p, this.template)) {
+                final LocalTime time = readTime(p.getTextCharacters(), p.getTextOffset(), this.template, 0);
+                if (time != null) {
+                    return time;
+                }
+            }
+            return super.deserialize(p, ctxt);
+        }
+    }
+}
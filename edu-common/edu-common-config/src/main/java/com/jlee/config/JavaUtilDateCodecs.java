@@ -0,0 +1,280 @@
+package com.jlee.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.DateDeserializers;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.module.SimpleSerializers;
+import com.fasterxml.jackson.databind.ser.std.DateSerializer;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.text.DateFormat;
+import java.text.DecimalFormat;
+import java.text.NumberFormat;
+import java.text.SimpleDateFormat;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.ResolverStyle;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+/**
+ * java.util.Date 按 spring.jackson.date-format 序列化和反序列化时，用不可变的 DateTimeFormatter 代替 SimpleDateFormat
+ * <p>
+ * ObjectMapper 中配置的 SimpleDateFormat 不是线程安全的，jackson 每次读写都会 clone 一份 (连同其中的 Calendar、NumberFormat)；
+ * 这里的序列化器和反序列化器使用创建时按相同格式、时区生成的 DateTimeFormatter 和 ZoneId，不再复制 SimpleDateFormat。
+ * 为了保证结果与 SimpleDateFormat 完全相同，只在以下情况使用 DateTimeFormatter，其余情况仍交给 ObjectMapper 中的 SimpleDateFormat：
+ * <ul>
+ *     <li>格式只包含 yyyy、MM、dd、HH、mm、ss、SSS 和分隔符</li>
+ *     <li>ObjectMapper 当前的 DateFormat 与创建时的格式、时区相同，使用公历和阿拉伯数字 (如没有被 setTimeZone 修改)</li>
+ *     <li>日期在 1901 ~ 9999 年之间 (1900 年之前 TimeZone 不使用地方平时，1582 年之前 SimpleDateFormat 使用儒略历)</li>
+ *     <li>反序列化时字符串严格符合格式、并且在时区中没有夏令时切换造成的歧义</li>
+ * </ul>
+ * 字段上用 JsonFormat 指定了格式或时区时，使用 jackson 原来的处理方式
+ *
+ * @author jlee
+ */
+public final class JavaUtilDateCodecs {
+
+    private static final long MIN_FAST_MILLIS = LocalDate.of(1901, 1, 2).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+    private static final long MAX_FAST_MILLIS = LocalDate.of(9999, 12, 30).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+
+    private JavaUtilDateCodecs() {
+    }
+
+    /**
+     * 创建 Date 序列化、反序列化模块
+     *
+     * @param pattern  SimpleDateFormat 格式
+     * @param timeZone 时区
+     * @return jackson 模块，格式不能由 DateTimeFormatter 得到相同结果时返回 null
+     */
+    @Nullable
+    public static Module module(String pattern, TimeZone timeZone) {
+        final String dateTimePattern = toDateTimePattern(pattern);
+        if (dateTimePattern == null) {
+            return null;
+        }
+        final Codec codec = new Codec(pattern, timeZone, DateTimeFormatter.ofPattern(dateTimePattern).withResolverStyle(ResolverStyle.STRICT));
+        final FastDateSerializer serializer = new FastDateSerializer(codec);
+        final SimpleModule module = new SimpleModule("JavaUtilDateCodecs");
+        // 只处理 Date 和 Timestamp，java.sql.Date、java.sql.Time 仍使用 jackson 原来的序列化器
+        module.setSerializers(new SimpleSerializers() {
+            @Override
+            public JsonSerializer<?> findSerializer(SerializationConfig config, JavaType type, BeanDescription beanDesc) {
+                final Class<?> raw = type.getRawClass();
+                return raw == Date.class || raw == Timestamp.class ? serializer : null;
+            }
+        });
+        module.addDeserializer(Date.class, new FastDateDeserializer(codec));
+        return module;
+    }
+
+    /**
+     * 把 SimpleDateFormat 格式转换为 DateTimeFormatter 格式
+     *
+     * @return DateTimeFormatter 格式，包含结果可能不同的字段时返回 null
+     */
+    @Nullable
+    static String toDateTimePattern(String pattern) {
+        final StringBuilder builder = new StringBuilder(pattern.length());
+        final int length = pattern.length();
+        int i = 0;
+        while (i < length) {
+            final char c = pattern.charAt(i);
+            if (c == '\'') {
+                // 引号中的文本原样保留，'' 表示单引号
+                final int end = pattern.indexOf('\'', i + 1);
+                if (end < 0) {
+                    return null;
+                }
+                builder.append(pattern, i, end + 1);
+                i = end + 1;
+            } else if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
+                int end = i + 1;
+                while (end < length && pattern.charAt(end) == c) {
+                    end++;
+                }
+                final int count = end - i;
+                if (!isSupportedField(c, count)) {
+                    return null;
+                }
+                // STRICT 模式下 yyyy (year-of-era) 需要纪元才能解析，公元后两者相同
+                for (int j = 0; j < count; j++) {
+                    builder.append(c == 'y' ? 'u' : c);
+                }
+                i = end;
+            } else if (c == '[' || c == ']' || c == '{' || c == '}' || c == '#') {
+                // DateTimeFormatter 的保留字符
+                return null;
+            } else {
+                builder.append(c);
+                i++;
+            }
+        }
+        return builder.toString();
+    }
+
+    private static boolean isSupportedField(char c, int count) {
+        switch (c) {
+            case 'y':
+                return count == 4;
+            case 'M':
+            case 'd':
+            case 'H':
+            case 'm':
+            case 's':
+                return count == 2;
+            case 'S':
+                return count == 3;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * 格式、时区和校验过的 DateFormat
+     */
+    static final class Codec {
+        private final String pattern;
+        private final TimeZone timeZone;
+        private final ZoneId zoneId;
+        private final DateTimeFormatter formatter;
+        /**
+         * 最近一次校验通过、不通过的 DateFormat，ObjectMapper 的 DateFormat 通常不会变化
+         */
+        private volatile DateFormat accepted;
+        private volatile DateFormat rejected;
+
+        Codec(String pattern, TimeZone timeZone, DateTimeFormatter formatter) {
+            this.pattern = pattern;
+            this.timeZone = timeZone;
+            this.zoneId = timeZone.toZoneId();
+            this.formatter = formatter.withZone(this.zoneId);
+        }
+
+        /**
+         * ObjectMapper 当前的 DateFormat 是否与创建时的格式、时区相同
+         */
+        boolean accepts(DateFormat dateFormat) {
+            if (dateFormat == this.accepted) {
+                return true;
+            }
+            if (dateFormat == null || dateFormat == this.rejected) {
+                return false;
+            }
+            final boolean accepted = isEquivalent(dateFormat);
+            if (accepted) {
+                this.accepted = dateFormat;
+            } else {
+                this.rejected = dateFormat;
+            }
+            return accepted;
+        }
+
+        private boolean isEquivalent(DateFormat dateFormat) {
+            if (!(dateFormat instanceof SimpleDateFormat)) {
+                return false;
+            }
+            final SimpleDateFormat simpleDateFormat = (SimpleDateFormat) dateFormat;
+            if (!this.pattern.equals(simpleDateFormat.toPattern()) || !this.timeZone.equals(simpleDateFormat.getTimeZone())
+                    || !(simpleDateFormat.getCalendar() instanceof GregorianCalendar)) {
+                return false;
+            }
+            final NumberFormat numberFormat = simpleDateFormat.getNumberFormat();
+            return numberFormat instanceof DecimalFormat && ((DecimalFormat) numberFormat).getDecimalFormatSymbols().getZeroDigit() == '0';
+        }
+
+        @Nullable
+        String format(Date value) {
+            final long millis = value.getTime();
+            if (millis < MIN_FAST_MILLIS || millis > MAX_FAST_MILLIS) {
+                return null;
+            }
+            return this.formatter.format(Instant.ofEpochMilli(millis));
+        }
+
+        @Nullable
+        Date parse(String text) {
+            final TemporalAccessor parsed;
+            final LocalDateTime dateTime;
+            try {
+                parsed = this.formatter.parse(text);
+                final LocalDate date = LocalDate.from(parsed);
+                final LocalTime time = parsed.isSupported(ChronoField.HOUR_OF_DAY) ? LocalTime.from(parsed) : LocalTime.MIDNIGHT;
+                dateTime = LocalDateTime.of(date, time);
+            } catch (DateTimeException e) {
+                return null;
+            }
+            final int year = dateTime.getYear();
+            // 夏令时切换时不存在或者有两个的时间，交给 SimpleDateFormat 按原来的规则处理
+            if (year < 1901 || this.zoneId.getRules().getValidOffsets(dateTime).size() != 1) {
+                return null;
+            }
+            return new Date(dateTime.atZone(this.zoneId).toInstant().toEpochMilli());
+        }
+    }
+
+    static final class FastDateSerializer extends DateSerializer {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Codec codec;
+
+        FastDateSerializer(Codec codec) {
+            super(null, null);
+            this.codec = codec;
+        }
+
+        @Override
+        public void serialize(Date value, JsonGenerator g, SerializerProvider provider) throws IOException {
+            if (!_asTimestamp(provider) && this.codec.accepts(provider.getConfig().getDateFormat())) {
+                final String text = this.codec.format(value);
+                if (text != null) {
+                    g.writeString(text);
+                    return;
+                }
+            }
+            super.serialize(value, g, provider);
+        }
+    }
+
+    static final class FastDateDeserializer extends DateDeserializers.DateDeserializer {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Codec codec;
+
+        FastDateDeserializer(Codec codec) {
+            this.codec = codec;
+        }
+
+        @Override
+        public Date deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (p.hasToken(JsonToken.VALUE_STRING) && this.codec.accepts(ctxt.getConfig().getDateFormat())) {
+                final Date date = this.codec.parse(p.getText());
+                if (date != null) {
+                    return date;
+                }
+            }
+            return super.deserialize(p, ctxt);
+        }
+    }
+}
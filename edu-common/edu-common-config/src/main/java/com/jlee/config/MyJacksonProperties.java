@@ -26,6 +26,17 @@ public class MyJacksonProperties {
     private String dateFormat;
     private TimeZone timeZone;
 
+    /**
+     * JSON 字段 (MybatisPlus JacksonTypeHandler) 是否和 Http 消息转换共用同一个 ObjectMapper，
+     * 共用时 JSON 字段也使用 spring.jackson 的全部配置 (如 default-property-inclusion)，默认各自使用一个
+     */
+    private boolean sharedObjectMapper;
+
+    /**
+     * 用字节码生成属性访问器的 jackson 模块，需要自行引入对应的依赖，默认不使用
+     */
+    private AccessorModule accessorModule;
+
 
     public String getLocalDateTimeFormat() {
         if (!StringUtils.hasText(localDateTimeFormat)) {
@@ -68,6 +79,13 @@ public class MyJacksonProperties {
         return dateFormat;
     }
 
+    /**
+     * 是否配置了 spring.jackson.date-format，没有配置时 spring 默认的 ObjectMapper 将 Date 序列化为时间戳
+     */
+    public boolean hasDateFormat() {
+        return StringUtils.hasText(dateFormat);
+    }
+
     public void setDateFormat(String dateFormat) {
         this.dateFormat = dateFormat;
     }
@@ -79,4 +97,41 @@ public class MyJacksonProperties {
     public void setTimeZone(TimeZone timeZone) {
         this.timeZone = timeZone;
     }
+
+    public boolean isSharedObjectMapper() {
+        return sharedObjectMapper;
+    }
+
+    public void setSharedObjectMapper(boolean sharedObjectMapper) {
+        this.sharedObjectMapper = sharedObjectMapper;
+    }
+
+    public AccessorModule getAccessorModule() {
+        if (accessorModule == null) {
+            return AccessorModule.NONE;
+        }
+        return accessorModule;
+    }
+
+    public void setAccessorModule(AccessorModule accessorModule) {
+        this.accessorModule = accessorModule;
+    }
+
+    /**
+     * 用字节码生成属性访问器的 jackson 模块
+     */
+    public enum AccessorModule {
+        /**
+         * 不使用，通过反射访问属性
+         */
+        NONE,
+        /**
+         * jackson-module-afterburner
+         */
+        AFTERBURNER,
+        /**
+         * jackson-module-blackbird，基于 LambdaMetafactory，需要 Java 9 以上
+         */
+        BLACKBIRD
+    }
 }
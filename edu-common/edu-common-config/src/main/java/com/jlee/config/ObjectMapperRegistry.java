@@ -0,0 +1,312 @@
+package com.jlee.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.DefaultSerializerProvider;
+import org.springframework.beans.BeanUtils;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 按用途提供 ObjectMapper 和按类型缓存的 ObjectReader、ObjectWriter
+ * <p>
+ * ObjectReader、ObjectWriter 是不可变的，按类型创建后会保留已经找到的根序列化器，重复使用时不再查找；
+ * 同一个 ObjectMapper 的序列化器缓存由所有用途共享，配置了 spring.jackson.shared-object-mapper=true 时
+ * Http 消息转换和 JSON 字段共用一个 ObjectMapper，两边只需要预热一次
+ *
+ * @author jlee
+ */
+public class ObjectMapperRegistry {
+
+    private static final String AFTERBURNER_MODULE = "com.fasterxml.jackson.module.afterburner.AfterburnerModule";
+    private static final String BLACKBIRD_MODULE = "com.fasterxml.jackson.module.blackbird.BlackbirdModule";
+
+    /**
+     * 每个用途缓存的类型数量上限，超过后不再缓存新的类型
+     */
+    private static final int MAX_CACHED_TYPES = 1024;
+
+    private final Map<Purpose, Codecs> codecs = new EnumMap<>(Purpose.class);
+
+    /**
+     * @param httpObjectMapper       Http 消息转换使用的 ObjectMapper
+     * @param jsonColumnObjectMapper JSON 字段使用的 ObjectMapper，可以与 httpObjectMapper 是同一个
+     */
+    public ObjectMapperRegistry(ObjectMapper httpObjectMapper, ObjectMapper jsonColumnObjectMapper) {
+        Assert.notNull(httpObjectMapper, "httpObjectMapper must not be null");
+        Assert.notNull(jsonColumnObjectMapper, "jsonColumnObjectMapper must not be null");
+        final Codecs http = new Codecs(httpObjectMapper);
+        this.codecs.put(Purpose.HTTP, http);
+        this.codecs.put(Purpose.JSON_COLUMN, jsonColumnObjectMapper == httpObjectMapper ? http : new Codecs(jsonColumnObjectMapper));
+    }
+
+    /**
+     * 按配置创建 ObjectMapper：jdk8 日期、Date 的格式，以及 accessorModule
+     *
+     * @param jacksonProperties 配置
+     * @return ObjectMapper
+     */
+    public static ObjectMapper createObjectMapper(MyJacksonProperties jacksonProperties) {
+        final Jackson2ObjectMapperBuilder builder = new Jackson2ObjectMapperBuilder();
+        configureDateFormat(builder, jacksonProperties);
+        configureJavaTimeFormats(builder, jacksonProperties);
+        configureAccessorModule(builder, jacksonProperties);
+        return builder.createXmlMapper(false).build();
+    }
+
+    /**
+     * 配置 LocalDateTime、LocalDate、LocalTime 序列化和反序列化的格式
+     *
+     * @param builder           Jackson2ObjectMapperBuilder
+     * @param jacksonProperties 配置
+     */
+    public static void configureJavaTimeFormats(Jackson2ObjectMapperBuilder builder, MyJacksonProperties jacksonProperties) {
+        // 定长格式 (如 yyyy-MM-dd HH:mm:ss) 直接读写字符，其他格式使用 DateTimeFormatter；都是线程安全的，可以共用
+        final String dateTimeFormat = jacksonProperties.getLocalDateTimeFormat();
+        final String dateFormat = jacksonProperties.getLocalDateFormat();
+        final String timeFormat = jacksonProperties.getLocalTimeFormat();
+
+        // 序列化
+        builder.serializerByType(LocalDateTime.class,
+                FixedWidthJavaTimeCodecs.localDateTimeSerializer(dateTimeFormat));
+        builder.serializerByType(LocalDate.class,
+                FixedWidthJavaTimeCodecs.localDateSerializer(dateFormat));
+        builder.serializerByType(LocalTime.class,
+                FixedWidthJavaTimeCodecs.localTimeSerializer(timeFormat));
+
+        // 反序列化
+        builder.deserializerByType(LocalDateTime.class,
+                FixedWidthJavaTimeCodecs.localDateTimeDeserializer(dateTimeFormat));
+        builder.deserializerByType(LocalDate.class,
+                FixedWidthJavaTimeCodecs.localDateDeserializer(dateFormat));
+        builder.deserializerByType(LocalTime.class,
+                FixedWidthJavaTimeCodecs.localTimeDeserializer(timeFormat));
+    }
+
+    /**
+     * 配置 Date 序列化和反序列化的格式
+     *
+     * @param builder           Jackson2ObjectMapperBuilder
+     * @param jacksonProperties 配置
+     */
+    public static void configureDateFormat(Jackson2ObjectMapperBuilder builder, MyJacksonProperties jacksonProperties) {
+        String dateFormat = jacksonProperties.getDateFormat();
+        if (dateFormat != null) {
+            try {
+                Class<?> dateFormatClass = ClassUtils.forName(dateFormat, null);
+                builder.dateFormat((DateFormat) BeanUtils.instantiateClass(dateFormatClass));
+            } catch (ClassNotFoundException ex) {
+                SimpleDateFormat simpleDateFormat = new SimpleDateFormat(dateFormat);
+                // 设置时区
+                TimeZone timeZone = jacksonProperties.getTimeZone();
+                if (timeZone == null) {
+                    timeZone = new ObjectMapper().getSerializationConfig().getTimeZone();
+                }
+                simpleDateFormat.setTimeZone(timeZone);
+                builder.dateFormat(simpleDateFormat);
+                // SimpleDateFormat 每次读写都要 clone，能得到相同结果的格式改用 DateTimeFormatter 读写 Date
+                final Module dateCodecs = JavaUtilDateCodecs.module(dateFormat, timeZone);
+                if (dateCodecs != null) {
+                    builder.postConfigurer(objectMapper -> objectMapper.registerModule(dateCodecs));
+                }
+            }
+        }
+    }
+
+    /**
+     * 按配置注册 Afterburner 或 Blackbird 模块，模块不在类路径上时抛出异常
+     *
+     * @param builder           Jackson2ObjectMapperBuilder
+     * @param jacksonProperties 配置
+     */
+    public static void configureAccessorModule(Jackson2ObjectMapperBuilder builder, MyJacksonProperties jacksonProperties) {
+        final String moduleClassName;
+        switch (jacksonProperties.getAccessorModule()) {
+            case AFTERBURNER:
+                moduleClassName = AFTERBURNER_MODULE;
+                break;
+            case BLACKBIRD:
+                moduleClassName = BLACKBIRD_MODULE;
+                break;
+            default:
+                return;
+        }
+        final Class<?> moduleClass;
+        try {
+            moduleClass = ClassUtils.forName(moduleClassName, ObjectMapperRegistry.class.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("spring.jackson.accessor-module=" + jacksonProperties.getAccessorModule()
+                    + " 需要引入 " + moduleClassName + " 所在的依赖", e);
+        }
+        final Module module = (Module) BeanUtils.instantiateClass(moduleClass);
+        // modulesToInstall 会覆盖之前设置的模块，所以在创建后注册
+        builder.postConfigurer(objectMapper -> objectMapper.registerModule(module));
+    }
+
+    /**
+     * 获取 ObjectMapper
+     *
+     * @param purpose 用途
+     * @return ObjectMapper
+     */
+    public ObjectMapper getObjectMapper(Purpose purpose) {
+        return this.codecs.get(purpose).objectMapper;
+    }
+
+    /**
+     * 获取读取指定类型的 ObjectReader
+     *
+     * @param purpose 用途
+     * @param type    类型
+     * @return ObjectReader
+     */
+    public ObjectReader readerFor(Purpose purpose, Class<?> type) {
+        return this.codecs.get(purpose).readerFor(type);
+    }
+
+    /**
+     * 获取写出指定类型的 ObjectWriter
+     *
+     * @param purpose 用途
+     * @param type    类型
+     * @return ObjectWriter
+     */
+    public ObjectWriter writerFor(Purpose purpose, Class<?> type) {
+        return this.codecs.get(purpose).writerFor(type);
+    }
+
+    /**
+     * 获取缓存统计
+     *
+     * @param purpose 用途
+     * @return 缓存统计
+     */
+    public Statistics getStatistics(Purpose purpose) {
+        final Codecs codecs = this.codecs.get(purpose);
+        final SerializerProvider provider = codecs.objectMapper.getSerializerProviderInstance();
+        final int cachedSerializers = provider instanceof DefaultSerializerProvider
+                ? ((DefaultSerializerProvider) provider).cachedSerializersCount() : -1;
+        return new Statistics(cachedSerializers, codecs.readers.size(), codecs.writers.size(), this.isShared());
+    }
+
+    /**
+     * Http 消息转换和 JSON 字段是否共用同一个 ObjectMapper
+     *
+     * @return 是否共用
+     */
+    public boolean isShared() {
+        return this.codecs.get(Purpose.HTTP) == this.codecs.get(Purpose.JSON_COLUMN);
+    }
+
+    /**
+     * ObjectMapper 的用途
+     */
+    public enum Purpose {
+        /**
+         * Http 消息转换，即 Spring MVC、Feign 使用的 ObjectMapper
+         */
+        HTTP,
+        /**
+         * 数据库的 JSON 字段
+         */
+        JSON_COLUMN
+    }
+
+    /**
+     * 缓存统计
+     */
+    public static final class Statistics {
+        private final int cachedSerializers;
+        private final int cachedReaders;
+        private final int cachedWriters;
+        private final boolean shared;
+
+        private Statistics(int cachedSerializers, int cachedReaders, int cachedWriters, boolean shared) {
+            this.cachedSerializers = cachedSerializers;
+            this.cachedReaders = cachedReaders;
+            this.cachedWriters = cachedWriters;
+            this.shared = shared;
+        }
+
+        /**
+         * @return ObjectMapper 中缓存的序列化器数量，无法获取时为 -1
+         */
+        public int getCachedSerializers() {
+            return cachedSerializers;
+        }
+
+        public int getCachedReaders() {
+            return cachedReaders;
+        }
+
+        public int getCachedWriters() {
+            return cachedWriters;
+        }
+
+        /**
+         * @return Http 消息转换和 JSON 字段是否共用同一个 ObjectMapper
+         */
+        public boolean isShared() {
+            return shared;
+        }
+
+        @Override
+        public String toString() {
+            return "Statistics(cachedSerializers=" + cachedSerializers + ", cachedReaders=" + cachedReaders
+                    + ", cachedWriters=" + cachedWriters + ", shared=" + shared + ")";
+        }
+    }
+
+    private static final class Codecs {
+        private final ObjectMapper objectMapper;
+        private final ConcurrentMap<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+        private final ConcurrentMap<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+        private Codecs(ObjectMapper objectMapper) {
+            this.objectMapper = objectMapper;
+        }
+
+        ObjectReader readerFor(Class<?> type) {
+            ObjectReader reader = this.readers.get(type);
+            if (reader == null) {
+                reader = this.objectMapper.readerFor(type);
+                if (this.readers.size() < MAX_CACHED_TYPES) {
+                    final ObjectReader previous = this.readers.putIfAbsent(type, reader);
+                    if (previous != null) {
+                        reader = previous;
+                    }
+                }
+            }
+            return reader;
+        }
+
+        ObjectWriter writerFor(Class<?> type) {
+            ObjectWriter writer = this.writers.get(type);
+            if (writer == null) {
+                writer = this.objectMapper.writerFor(type);
+                if (this.writers.size() < MAX_CACHED_TYPES) {
+                    final ObjectWriter previous = this.writers.putIfAbsent(type, writer);
+                    if (previous != null) {
+                        writer = previous;
+                    }
+                }
+            }
+            return writer;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.jlee.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * ObjectMapperRegistry 配置
+ * <p>
+ * Http 消息转换使用 Spring 容器中的 ObjectMapper (没有时按 MyJacksonProperties 创建一个)；
+ * JSON 字段默认单独按 MyJacksonProperties 创建，配置 spring.jackson.shared-object-mapper=true 时与 Http 消息转换共用
+ *
+ * @author jlee
+ */
+@Configuration
+@ConditionalOnClass(ObjectMapper.class)
+@AutoConfigureAfter(JacksonAutoConfiguration.class)
+public class ObjectMapperRegistryConfigurer {
+
+    /**
+     * 为 Spring 容器中的 ObjectMapper 注册 spring.jackson.accessor-module 配置的模块
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer accessorModuleCustomizer(MyJacksonProperties jacksonProperties) {
+        return builder -> ObjectMapperRegistry.configureAccessorModule(builder, jacksonProperties);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ObjectMapperRegistry objectMapperRegistry(ObjectProvider<ObjectMapper> objectMapper, MyJacksonProperties jacksonProperties) {
+        final ObjectMapper httpObjectMapper = objectMapper.getIfAvailable(() -> ObjectMapperRegistry.createObjectMapper(jacksonProperties));
+        final ObjectMapper jsonColumnObjectMapper = jacksonProperties.isSharedObjectMapper()
+                ? httpObjectMapper : ObjectMapperRegistry.createObjectMapper(jacksonProperties);
+        return new ObjectMapperRegistry(httpObjectMapper, jsonColumnObjectMapper);
+    }
+
+    /**
+     * 序列化器、ObjectReader、ObjectWriter 缓存统计导出到 Micrometer，由 actuator 绑定到 MeterRegistry
+     */
+    @Configuration
+    @ConditionalOnClass(MeterRegistry.class)
+    static class ObjectMapperRegistryMeterConfiguration {
+
+        @Bean
+        public ObjectMapperRegistryMeterBinder objectMapperRegistryMeterBinder(ObjectMapperRegistry objectMapperRegistry) {
+            return new ObjectMapperRegistryMeterBinder(objectMapperRegistry);
+        }
+    }
+}
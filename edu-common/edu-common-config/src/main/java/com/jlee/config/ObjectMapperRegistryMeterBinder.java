@@ -0,0 +1,46 @@
+package com.jlee.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.Locale;
+
+/**
+ * 将 {@link ObjectMapperRegistry#getStatistics} 注册为 Micrometer 指标，标签 purpose 为用途 (http、json_column)：
+ * <ul>
+ *     <li>jackson.serializers.cached：ObjectMapper 中缓存的序列化器数量</li>
+ *     <li>jackson.readers.cached / jackson.writers.cached：按类型缓存的 ObjectReader / ObjectWriter 数量</li>
+ * </ul>
+ * 两个用途共用同一个 ObjectMapper 时数值相同
+ *
+ * @author jlee
+ */
+public class ObjectMapperRegistryMeterBinder implements MeterBinder {
+
+    private final ObjectMapperRegistry objectMapperRegistry;
+
+    public ObjectMapperRegistryMeterBinder(ObjectMapperRegistry objectMapperRegistry) {
+        this.objectMapperRegistry = objectMapperRegistry;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (ObjectMapperRegistry.Purpose purpose : ObjectMapperRegistry.Purpose.values()) {
+            final Tags tags = Tags.of("purpose", purpose.name().toLowerCase(Locale.ROOT));
+            Gauge.builder("jackson.serializers.cached", this.objectMapperRegistry, r -> r.getStatistics(purpose).getCachedSerializers())
+                    .tags(tags)
+                    .description("ObjectMapper 中缓存的序列化器数量")
+                    .register(registry);
+            Gauge.builder("jackson.readers.cached", this.objectMapperRegistry, r -> r.getStatistics(purpose).getCachedReaders())
+                    .tags(tags)
+                    .description("按类型缓存的 ObjectReader 数量")
+                    .register(registry);
+            Gauge.builder("jackson.writers.cached", this.objectMapperRegistry, r -> r.getStatistics(purpose).getCachedWriters())
+                    .tags(tags)
+                    .description("按类型缓存的 ObjectWriter 数量")
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.jlee.config;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerBase;
+import com.fasterxml.jackson.databind.deser.DefaultDeserializationContext;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.std.BeanSerializerBase;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 确认 createContextual 之后实际使用的仍是 Fast* 序列化器、反序列化器，JsonFormat 覆盖时使用 jsr310 原来的实现
+ *
+ * @author jlee
+ */
+class FixedWidthJavaTimeCodecsTests {
+
+    private static final LocalDateTime TIME = LocalDateTime.of(2021, 7, 28, 22, 13, 5);
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new SimpleModule()
+            .addSerializer(LocalDateTime.class, FixedWidthJavaTimeCodecs.localDateTimeSerializer("yyyy-MM-dd HH:mm:ss"))
+            .addDeserializer(LocalDateTime.class, FixedWidthJavaTimeCodecs.localDateTimeDeserializer("yyyy-MM-dd HH:mm:ss"))
+            .addSerializer(LocalDate.class, FixedWidthJavaTimeCodecs.localDateSerializer("yyyy-MM-dd"))
+            .addDeserializer(LocalDate.class, FixedWidthJavaTimeCodecs.localDateDeserializer("yyyy-MM-dd"))
+            .addSerializer(LocalTime.class, FixedWidthJavaTimeCodecs.localTimeSerializer("HH:mm:ss"))
+            .addDeserializer(LocalTime.class, FixedWidthJavaTimeCodecs.localTimeDeserializer("HH:mm:ss")));
+
+    @Test
+    void beanPropertiesUseFastSerializers() throws Exception {
+        final BeanSerializerBase serializer = (BeanSerializerBase) this.objectMapper.getSerializerProviderInstance()
+                .findValueSerializer(Course.class);
+        assertTrue(propertySerializer(serializer, "createTime") instanceof FixedWidthJavaTimeCodecs.FastLocalDateTimeSerializer);
+        assertTrue(propertySerializer(serializer, "startDate") instanceof FixedWidthJavaTimeCodecs.FastLocalDateSerializer);
+        assertTrue(propertySerializer(serializer, "startTime") instanceof FixedWidthJavaTimeCodecs.FastLocalTimeSerializer);
+        assertFalse(propertySerializer(serializer, "updateTime") instanceof FixedWidthJavaTimeCodecs.FastLocalDateTimeSerializer);
+
+        assertEquals("{\"createTime\":\"2021-07-28 22:13:05\",\"updateTime\":\"2021/07/28 22:13\","
+                        + "\"startDate\":\"2021-07-28\",\"startTime\":\"22:13:05\",\"times\":[\"2021-07-28 22:13:05\"]}",
+                this.objectMapper.writeValueAsString(new Course()));
+    }
+
+    @Test
+    void rootValuesUseFastSerializers() throws Exception {
+        final JsonSerializer<?> serializer = this.objectMapper.getSerializerProviderInstance()
+                .findTypedValueSerializer(LocalDateTime.class, true, null);
+        assertTrue(serializer instanceof FixedWidthJavaTimeCodecs.FastLocalDateTimeSerializer);
+        assertEquals("[\"2021-07-28 22:13:05\"]", this.objectMapper.writerFor(LocalDateTime[].class)
+                .writeValueAsString(new LocalDateTime[]{TIME}));
+    }
+
+    @Test
+    void beanPropertiesUseFastDeserializers() throws Exception {
+        final String json = this.objectMapper.writeValueAsString(new Course());
+        try (JsonParser parser = this.objectMapper.createParser(json)) {
+            final DefaultDeserializationContext context = ((DefaultDeserializationContext) this.objectMapper.getDeserializationContext())
+                    .createInstance(this.objectMapper.getDeserializationConfig(), parser, null);
+            final JavaType type = this.objectMapper.constructType(Course.class);
+            final BeanDeserializerBase deserializer = (BeanDeserializerBase) context.findRootValueDeserializer(type);
+            assertTrue(propertyDeserializer(deserializer, "createTime") instanceof FixedWidthJavaTimeCodecs.FastLocalDateTimeDeserializer);
+            assertTrue(propertyDeserializer(deserializer, "startDate") instanceof FixedWidthJavaTimeCodecs.FastLocalDateDeserializer);
+            assertTrue(propertyDeserializer(deserializer, "startTime") instanceof FixedWidthJavaTimeCodecs.FastLocalTimeDeserializer);
+            assertFalse(propertyDeserializer(deserializer, "updateTime") instanceof FixedWidthJavaTimeCodecs.FastLocalDateTimeDeserializer);
+        }
+
+        final Course course = this.objectMapper.readValue(json, Course.class);
+        assertEquals(TIME, course.createTime);
+        assertEquals(TIME.withSecond(0), course.updateTime);
+        assertEquals(TIME.toLocalDate(), course.startDate);
+        assertEquals(TIME.toLocalTime(), course.startTime);
+        assertEquals(Collections.singletonList(TIME), course.times);
+    }
+
+    private static JsonSerializer<?> propertySerializer(BeanSerializerBase serializer, String name) {
+        final Iterator<PropertyWriter> properties = serializer.properties();
+        while (properties.hasNext()) {
+            final PropertyWriter property = properties.next();
+            if (property.getName().equals(name)) {
+                return ((BeanPropertyWriter) property).getSerializer();
+            }
+        }
+        throw new IllegalArgumentException(name);
+    }
+
+    private static JsonDeserializer<?> propertyDeserializer(BeanDeserializerBase deserializer, String name) {
+        return deserializer.findProperty(name).getValueDeserializer();
+    }
+
+    static class Course {
+        public LocalDateTime createTime = TIME;
+        @JsonFormat(pattern = "yyyy/MM/dd HH:mm")
+        public LocalDateTime updateTime = TIME;
+        public LocalDate startDate = TIME.toLocalDate();
+        public LocalTime startTime = TIME.toLocalTime();
+        public List<LocalDateTime> times = Collections.singletonList(TIME);
+    }
+}
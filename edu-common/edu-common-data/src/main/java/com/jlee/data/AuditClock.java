@@ -0,0 +1,45 @@
+package com.jlee.data;
+
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * 填充 createTime、updateTime 使用的时钟
+ * <p>
+ * 默认为 {@link #system()}，每次都调用 LocalDateTime.now()；写入频繁、不需要精确到毫秒以下的服务可以定义一个
+ * {@link #coarse(Duration)} 的 Bean 替换，在精度范围内复用同一个 LocalDateTime 对象
+ *
+ * @author jlee
+ */
+@FunctionalInterface
+public interface AuditClock {
+
+    /**
+     * 当前时间
+     *
+     * @return 当前时间
+     */
+    LocalDateTime now();
+
+    /**
+     * 每次调用 LocalDateTime.now() 的时钟
+     *
+     * @return AuditClock
+     */
+    static AuditClock system() {
+        return LocalDateTime::now;
+    }
+
+    /**
+     * 粗粒度的时钟，距离上一次读取系统时间不超过 resolution 时返回缓存的 LocalDateTime
+     *
+     * @param resolution 精度，至少 1 毫秒
+     * @return AuditClock
+     */
+    static AuditClock coarse(Duration resolution) {
+        Assert.isTrue(resolution.toMillis() >= 1, "resolution 至少为 1 毫秒");
+        return new CoarseAuditClock(resolution.toMillis());
+    }
+}
@@ -0,0 +1,50 @@
+package com.jlee.data;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * 按毫秒精度缓存 LocalDateTime 的时钟，由 {@link AuditClock#coarse} 创建
+ * <p>
+ * System.currentTimeMillis() 没有时区换算，比 LocalDateTime.now() 便宜得多；缓存过期时才换算一次。
+ * 缓存的时间和 LocalDateTime 放在同一个不可变对象中，通过 volatile 字段整体替换，读取不需要加锁
+ *
+ * @author jlee
+ */
+final class CoarseAuditClock implements AuditClock {
+
+    private final long resolutionMillis;
+    /**
+     * 创建时的系统默认时区，之后修改默认时区不会影响该时钟
+     */
+    private final ZoneId zone;
+    private volatile Tick tick = new Tick(Long.MIN_VALUE, null);
+
+    CoarseAuditClock(long resolutionMillis) {
+        this.resolutionMillis = resolutionMillis;
+        this.zone = ZoneId.systemDefault();
+    }
+
+    @Override
+    public LocalDateTime now() {
+        final long millis = System.currentTimeMillis();
+        final Tick current = this.tick;
+        if (current.value != null && millis - current.millis < this.resolutionMillis && millis >= current.millis) {
+            return current.value;
+        }
+        final LocalDateTime value = Instant.ofEpochMilli(millis).atZone(this.zone).toLocalDateTime();
+        this.tick = new Tick(millis, value);
+        return value;
+    }
+
+    private static final class Tick {
+        private final long millis;
+        private final LocalDateTime value;
+
+        private Tick(long millis, LocalDateTime value) {
+            this.millis = millis;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.jlee.data.batch;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.jlee.data.configurer.BatchSqlInjector;
+
+import java.util.List;
+
+/**
+ * 支持多行 INSERT ... VALUES 的 Mapper，方法由 {@link BatchSqlInjector} 注入
+ *
+ * @param <T> 实体类型
+ * @author jlee
+ */
+public interface BatchBaseMapper<T> extends BaseMapper<T> {
+
+    /**
+     * 一条 INSERT ... VALUES (...), (...) 语句插入多行，插入除了更新时填充 (FieldFill.UPDATE) 之外的所有字段，
+     * 值为 null 的字段也会插入 null，不会使用数据库的默认值
+     *
+     * @param entityList 实体列表，不能为空
+     * @return 插入的行数
+     */
+    int insertBatchSomeColumn(List<T> entityList);
+}
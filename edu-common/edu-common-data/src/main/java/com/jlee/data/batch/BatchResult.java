@@ -0,0 +1,114 @@
+package com.jlee.data.batch;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 批量写入的结果，包含每一批的行数和耗时
+ *
+ * @author jlee
+ */
+public final class BatchResult {
+
+    private final int rows;
+    private final long elapsedNanos;
+    private final List<Batch> batches;
+
+    BatchResult(int rows, long elapsedNanos, List<Batch> batches) {
+        this.rows = rows;
+        this.elapsedNanos = elapsedNanos;
+        this.batches = Collections.unmodifiableList(batches);
+    }
+
+    /**
+     * 写入的总行数
+     *
+     * @return 行数
+     */
+    public int getRows() {
+        return this.rows;
+    }
+
+    /**
+     * 总耗时
+     *
+     * @return 纳秒
+     */
+    public long getElapsedNanos() {
+        return this.elapsedNanos;
+    }
+
+    /**
+     * 每一批的结果，按执行顺序
+     *
+     * @return 每一批的结果
+     */
+    public List<Batch> getBatches() {
+        return this.batches;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchResult(rows=" + this.rows + ", batches=" + this.batches.size()
+                + ", elapsedMillis=" + this.elapsedNanos / 1_000_000 + ")";
+    }
+
+    /**
+     * 一批的结果
+     */
+    public static final class Batch {
+        private final int index;
+        private final int rows;
+        private final int affectedRows;
+        private final long elapsedNanos;
+
+        Batch(int index, int rows, int affectedRows, long elapsedNanos) {
+            this.index = index;
+            this.rows = rows;
+            this.affectedRows = affectedRows;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * 第几批，从 0 开始
+         *
+         * @return 序号
+         */
+        public int getIndex() {
+            return this.index;
+        }
+
+        /**
+         * 这一批提交的行数
+         *
+         * @return 行数
+         */
+        public int getRows() {
+            return this.rows;
+        }
+
+        /**
+         * 数据库返回的影响行数，驱动不返回时 (如 Statement.SUCCESS_NO_INFO) 为 -1
+         *
+         * @return 影响行数
+         */
+        public int getAffectedRows() {
+            return this.affectedRows;
+        }
+
+        /**
+         * 这一批的耗时，包括填充字段和执行语句
+         *
+         * @return 纳秒
+         */
+        public long getElapsedNanos() {
+            return this.elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "Batch(index=" + this.index + ", rows=" + this.rows + ", affectedRows=" + this.affectedRows
+                    + ", elapsedMicros=" + this.elapsedNanos / 1_000 + ")";
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.jlee.data.batch;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
+import com.jlee.data.AbstractDataEntity;
+import com.jlee.data.AuditClock;
+import org.apache.ibatis.binding.MapperMethod;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.mybatis.spring.SqlSessionHolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 批量写入继承 {@link AbstractDataEntity} 的实体
+ * <p>
+ * 按每批的大小分组，每批只读取一次时钟，用同一个时间填充 createTime / updateTime (已经有值的不覆盖)，
+ * AuditMetaObjectHandler 看到字段有值就不再填充。支持两种方式：
+ * <ul>
+ *     <li>JDBC 批处理 ({@link #insertBatch}、{@link #updateBatchById})：使用 BATCH 执行器，每批一次 executeBatch，
+ *     MySQL 需要在连接参数中加 rewriteBatchedStatements=true 才会真正合并成一次网络往返</li>
+ *     <li>多行 INSERT ... VALUES ({@link #insertValues})：每批一条语句，需要 Mapper 继承 {@link BatchBaseMapper}</li>
+ * </ul>
+ * 在 Spring 事务中执行时使用事务的连接，由事务提交；不在事务中时每次调用结束提交一次，失败时回滚
+ *
+ * @author jlee
+ */
+public class BatchWriter {
+
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    private static final Logger log = LoggerFactory.getLogger(BatchWriter.class);
+
+    private final SqlSessionFactory sqlSessionFactory;
+    private final AuditClock clock;
+
+    public BatchWriter(SqlSessionFactory sqlSessionFactory) {
+        this(sqlSessionFactory, AuditClock.system());
+    }
+
+    /**
+     * @param sqlSessionFactory SqlSessionFactory
+     * @param clock             填充 createTime / updateTime 的时钟，每批调用一次
+     */
+    public BatchWriter(SqlSessionFactory sqlSessionFactory, AuditClock clock) {
+        this.sqlSessionFactory = sqlSessionFactory;
+        this.clock = clock;
+    }
+
+    /**
+     * 使用 JDBC 批处理插入，每行执行 Mapper 的 insert 语句 (主键生成规则与 insert 相同)
+     *
+     * @param mapperClass 实体的 Mapper
+     * @param entities    实体
+     * @param batchSize   每批的行数
+     * @param <T>         实体类型
+     * @return 每批的行数和耗时
+     */
+    public <T extends AbstractDataEntity> BatchResult insertBatch(Class<? extends BaseMapper<T>> mapperClass,
+                                                                  Collection<T> entities, int batchSize) {
+        final String statement = mapperClass.getName() + ".insert";
+        return execute(ExecutorType.BATCH, entities, batchSize, (session, batch) -> {
+            final LocalDateTime now = this.clock.now();
+            for (T entity : batch) {
+                fillInsert(entity, now);
+                session.insert(statement, entity);
+            }
+            return affectedRows(session.flushStatements());
+        });
+    }
+
+    /**
+     * 使用多行 INSERT ... VALUES 插入，每批一条语句
+     *
+     * @param mapperClass 实体的 Mapper
+     * @param entities    实体
+     * @param batchSize   每条语句的行数，注意不要超过 MySQL 的 max_allowed_packet
+     * @param <T>         实体类型
+     * @return 每批的行数和耗时
+     */
+    public <T extends AbstractDataEntity> BatchResult insertValues(Class<? extends BatchBaseMapper<T>> mapperClass,
+                                                                   Collection<T> entities, int batchSize) {
+        return execute(ExecutorType.SIMPLE, entities, batchSize, (session, batch) -> {
+            final LocalDateTime now = this.clock.now();
+            for (T entity : batch) {
+                fillInsert(entity, now);
+            }
+            return session.getMapper(mapperClass).insertBatchSomeColumn(batch);
+        });
+    }
+
+    /**
+     * 使用 JDBC 批处理按主键更新，每行执行 Mapper 的 updateById 语句
+     *
+     * @param mapperClass 实体的 Mapper
+     * @param entities    实体
+     * @param batchSize   每批的行数
+     * @param <T>         实体类型
+     * @return 每批的行数和耗时
+     */
+    public <T extends AbstractDataEntity> BatchResult updateBatchById(Class<? extends BaseMapper<T>> mapperClass,
+                                                                      Collection<T> entities, int batchSize) {
+        final String statement = mapperClass.getName() + ".updateById";
+        return execute(ExecutorType.BATCH, entities, batchSize, (session, batch) -> {
+            final LocalDateTime now = this.clock.now();
+            for (T entity : batch) {
+                if (entity.getUpdateTime() == null) {
+                    entity.setUpdateTime(now);
+                }
+                final MapperMethod.ParamMap<T> param = new MapperMethod.ParamMap<>();
+                param.put(Constants.ENTITY, entity);
+                session.update(statement, param);
+            }
+            return affectedRows(session.flushStatements());
+        });
+    }
+
+    private <T> BatchResult execute(ExecutorType executorType, Collection<T> entities, int batchSize, BatchAction<T> action) {
+        Assert.isTrue(batchSize > 0, "batchSize 必须大于 0");
+        final List<BatchResult.Batch> batches = new ArrayList<>((entities.size() + batchSize - 1) / batchSize);
+        if (entities.isEmpty()) {
+            return new BatchResult(0, 0L, batches);
+        }
+        final long start = System.nanoTime();
+        // 与 mybatis-plus 的 SqlHelper.executeBatch 相同：已有的 SqlSession 不能切换执行器，先提交其中缓存的语句，再打开新的 SqlSession
+        final SqlSessionHolder holder = (SqlSessionHolder) TransactionSynchronizationManager.getResource(this.sqlSessionFactory);
+        final boolean transactional = TransactionSynchronizationManager.isSynchronizationActive();
+        if (holder != null) {
+            holder.getSqlSession().commit(!transactional);
+        }
+        try (SqlSession session = this.sqlSessionFactory.openSession(executorType)) {
+            try {
+                final List<T> batch = new ArrayList<>(Math.min(batchSize, entities.size()));
+                for (T entity : entities) {
+                    batch.add(entity);
+                    if (batch.size() == batchSize) {
+                        batches.add(executeBatch(session, batches.size(), batch, action));
+                        batch.clear();
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    batches.add(executeBatch(session, batches.size(), batch, action));
+                }
+                session.commit(!transactional);
+            } catch (RuntimeException e) {
+                session.rollback();
+                throw e;
+            }
+        }
+        return new BatchResult(entities.size(), System.nanoTime() - start, batches);
+    }
+
+    private <T> BatchResult.Batch executeBatch(SqlSession session, int index, List<T> batch, BatchAction<T> action) {
+        final long start = System.nanoTime();
+        final int affectedRows = action.execute(session, batch);
+        final BatchResult.Batch result = new BatchResult.Batch(index, batch.size(), affectedRows, System.nanoTime() - start);
+        if (log.isDebugEnabled()) {
+            log.debug("批量写入 {}", result);
+        }
+        return result;
+    }
+
+    private static void fillInsert(AbstractDataEntity entity, LocalDateTime now) {
+        if (entity.getIsDeleted() == null) {
+            entity.setIsDeleted(false);
+        }
+        if (entity.getCreateTime() == null) {
+            entity.setCreateTime(now);
+        }
+    }
+
+    private static int affectedRows(List<org.apache.ibatis.executor.BatchResult> results) {
+        int total = 0;
+        for (org.apache.ibatis.executor.BatchResult result : results) {
+            for (int count : result.getUpdateCounts()) {
+                if (count < 0) {
+                    // Statement.SUCCESS_NO_INFO，rewriteBatchedStatements 时 MySQL 驱动会返回
+                    return -1;
+                }
+                total += count;
+            }
+        }
+        return total;
+    }
+
+    @FunctionalInterface
+    private interface BatchAction<T> {
+        int execute(SqlSession session, List<T> batch);
+    }
+}
@@ -0,0 +1,43 @@
+package com.jlee.data.cache;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 开启实体的二级缓存：BaseMapper.selectById 的结果按主键缓存，通过 BaseMapper 新增、修改、(逻辑) 删除该实体时清除对应的缓存
+ * <p>
+ * 适合用户、课程、字典这类读多写少的数据。不经过 BaseMapper 的写操作 (如 XML 中的 update 语句、其他服务直接修改数据库)
+ * 只能等待缓存过期
+ *
+ * @author jlee
+ * @see EntityCacheManager
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CachedEntity {
+
+    /**
+     * 最多缓存的实体数量，超过时按 W-TinyLFU 淘汰
+     *
+     * @return 数量
+     */
+    long maximumSize() default 10_000;
+
+    /**
+     * 写入缓存后的有效期
+     *
+     * @return 秒
+     */
+    long ttlSeconds() default 300;
+
+    /**
+     * 放入和取出缓存时是否复制实体 (浅复制，集合等字段仍然是同一个对象)，为 false 时所有调用方共享同一个对象，必须当作只读对象使用
+     *
+     * @return 是否复制
+     */
+    boolean copyOnRead() default true;
+}
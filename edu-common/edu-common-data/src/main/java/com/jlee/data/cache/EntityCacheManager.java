@@ -0,0 +1,189 @@
+package com.jlee.data.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.BeanUtils;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 实体二级缓存的管理，每个标注了 {@link CachedEntity} 的实体类一个 Caffeine 缓存
+ * <p>
+ * 缓存的键为主键的字符串形式，所以 selectById(1L) 和 selectById("1") 命中同一个缓存项，按任意类型的主键清除缓存都不会遗漏
+ *
+ * @author jlee
+ */
+public class EntityCacheManager {
+
+    private final ConcurrentMap<Class<?>, Optional<EntityCache>> caches = new ConcurrentHashMap<>();
+    private final List<Consumer<EntityCache>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * 获取实体类的缓存
+     *
+     * @param entityClass 实体类
+     * @return 缓存，实体类没有标注 {@link CachedEntity} 时返回 null
+     */
+    @Nullable
+    public EntityCache getCache(Class<?> entityClass) {
+        Optional<EntityCache> cache = this.caches.get(entityClass);
+        if (cache == null) {
+            cache = this.create(entityClass);
+        }
+        return cache.orElse(null);
+    }
+
+    /**
+     * 添加缓存创建时的监听，已经创建的缓存也会通知一次
+     *
+     * @param listener 监听
+     */
+    public synchronized void addListener(Consumer<EntityCache> listener) {
+        this.listeners.add(listener);
+        this.caches.values().forEach(cache -> cache.ifPresent(listener));
+    }
+
+    /**
+     * 所有已经创建的缓存的命中、未命中、淘汰次数等统计
+     *
+     * @return 实体类 → 统计
+     */
+    public Map<Class<?>, CacheStats> stats() {
+        final Map<Class<?>, CacheStats> stats = new LinkedHashMap<>();
+        this.caches.forEach((type, cache) -> cache.ifPresent(c -> stats.put(type, c.stats())));
+        return Collections.unmodifiableMap(stats);
+    }
+
+    /**
+     * 清空所有缓存
+     */
+    public void clear() {
+        this.caches.values().forEach(cache -> cache.ifPresent(EntityCache::clear));
+    }
+
+    private synchronized Optional<EntityCache> create(Class<?> entityClass) {
+        Optional<EntityCache> cache = this.caches.get(entityClass);
+        if (cache == null) {
+            cache = createCache(entityClass);
+            this.caches.put(entityClass, cache);
+            cache.ifPresent(c -> this.listeners.forEach(listener -> listener.accept(c)));
+        }
+        return cache;
+    }
+
+    private static Optional<EntityCache> createCache(Class<?> entityClass) {
+        final CachedEntity cachedEntity = AnnotatedElementUtils.findMergedAnnotation(entityClass, CachedEntity.class);
+        return cachedEntity == null ? Optional.empty() : Optional.of(new EntityCache(entityClass, cachedEntity));
+    }
+
+    /**
+     * 一个实体类的缓存
+     */
+    public static final class EntityCache {
+        private final Class<?> entityClass;
+        private final boolean copyOnRead;
+        private final Cache<String, Object> cache;
+
+        private EntityCache(Class<?> entityClass, CachedEntity cachedEntity) {
+            this.entityClass = entityClass;
+            this.copyOnRead = cachedEntity.copyOnRead();
+            this.cache = Caffeine.newBuilder()
+                    .maximumSize(cachedEntity.maximumSize())
+                    .expireAfterWrite(Duration.ofSeconds(cachedEntity.ttlSeconds()))
+                    .recordStats()
+                    .build();
+        }
+
+        /**
+         * 按主键获取实体
+         *
+         * @param id 主键
+         * @return 实体，没有缓存时返回 null
+         */
+        @Nullable
+        public Object get(Object id) {
+            final Object entity = this.cache.getIfPresent(key(id));
+            return entity == null ? null : copy(entity);
+        }
+
+        /**
+         * 缓存实体
+         *
+         * @param id     主键
+         * @param entity 实体
+         */
+        public void put(Object id, Object entity) {
+            this.cache.put(key(id), copy(entity));
+        }
+
+        /**
+         * 清除主键对应的缓存
+         *
+         * @param id 主键
+         */
+        public void evict(Object id) {
+            this.cache.invalidate(key(id));
+        }
+
+        /**
+         * 清空该实体类的缓存
+         */
+        public void clear() {
+            this.cache.invalidateAll();
+        }
+
+        public Class<?> getEntityClass() {
+            return this.entityClass;
+        }
+
+        /**
+         * 命中、未命中、淘汰次数等统计
+         *
+         * @return 统计
+         */
+        public CacheStats stats() {
+            return this.cache.stats();
+        }
+
+        /**
+         * Caffeine 缓存，用于导出指标
+         */
+        Cache<String, Object> nativeCache() {
+            return this.cache;
+        }
+
+        /**
+         * 缓存项数量 (近似值)
+         *
+         * @return 数量
+         */
+        public long estimatedSize() {
+            return this.cache.estimatedSize();
+        }
+
+        private Object copy(Object entity) {
+            if (!this.copyOnRead) {
+                return entity;
+            }
+            final Object copy = BeanUtils.instantiateClass(entity.getClass());
+            BeanUtils.copyProperties(entity, copy);
+            return copy;
+        }
+
+        private static String key(Object id) {
+            return id.toString();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.jlee.data.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * 将每个实体缓存的命中、未命中、淘汰次数和缓存项数量注册为 Micrometer 指标 (cache.gets、cache.evictions、cache.size 等)，
+ * 标签 cache 为 entity，标签 entity 为实体类名；实体缓存在第一次使用时创建，创建时再注册
+ *
+ * @author jlee
+ */
+public class EntityCacheMeterBinder implements MeterBinder {
+
+    private static final String CACHE_NAME = "entity";
+
+    private final EntityCacheManager cacheManager;
+
+    public EntityCacheMeterBinder(EntityCacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.cacheManager.addListener(cache -> new CaffeineCacheMetrics(cache.nativeCache(), CACHE_NAME,
+                Tags.of("entity", cache.getEntityClass().getSimpleName())).bindTo(registry));
+    }
+}
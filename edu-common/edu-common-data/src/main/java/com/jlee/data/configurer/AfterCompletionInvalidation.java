@@ -0,0 +1,71 @@
+package com.jlee.data.configurer;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * 事务结束后再执行一次的缓存失效
+ * <p>
+ * 每个事务只注册一个 TransactionSynchronization (以该对象为键绑定到事务资源中)，收集事务中所有需要失效的键，
+ * 批量写入时不会为每条语句注册一个；事务挂起 (如 REQUIRES_NEW) 时同时解绑，内层事务使用自己的 TransactionSynchronization
+ *
+ * @param <K> 失效的键
+ * @author jlee
+ */
+final class AfterCompletionInvalidation<K> {
+
+    private final Consumer<K> invalidator;
+
+    /**
+     * @param invalidator 事务结束后对每个键执行的失效操作
+     */
+    AfterCompletionInvalidation(Consumer<K> invalidator) {
+        this.invalidator = invalidator;
+    }
+
+    /**
+     * 在事务结束后使该键失效，不在事务中时不做处理
+     *
+     * @param key 键
+     */
+    void add(K key) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new Pending();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.keys.add(key);
+    }
+
+    /**
+     * 一个事务中收集的键
+     */
+    private final class Pending implements TransactionSynchronization {
+        private final Set<K> keys = new LinkedHashSet<>();
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(AfterCompletionInvalidation.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(AfterCompletionInvalidation.this, this);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(AfterCompletionInvalidation.this);
+            this.keys.forEach(AfterCompletionInvalidation.this.invalidator);
+        }
+    }
+}
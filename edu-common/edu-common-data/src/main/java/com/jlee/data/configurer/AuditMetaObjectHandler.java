@@ -1,28 +1,34 @@
 package com.jlee.data.configurer;
 
 import com.baomidou.mybatisplus.core.handlers.MetaObjectHandler;
+import com.jlee.data.AuditClock;
 import org.apache.ibatis.reflection.MetaObject;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Component;
 
-import java.time.LocalDateTime;
-
 /**
  * 添加和更新时自动填充的字段
  * <p>字段上加注解是为了在适当时候（插入或者更新）预留sql字段，因为mybatis-plus 默认 当字段为 null 时不进行更新，真正的填充还需要 MetaObjectHandler 的配合</p>
+ * <p>填充由按实体类缓存的 {@link AuditFieldFiller} 完成，不经过 MetaObject 反射；时间来自 {@link AuditClock}，可以定义 AuditClock 的 Bean 替换</p>
  */
 @Component
 public class AuditMetaObjectHandler implements MetaObjectHandler {
-    public AuditMetaObjectHandler() {
+
+    private final AuditClock clock;
+
+    public AuditMetaObjectHandler(ObjectProvider<AuditClock> clock) {
+        this.clock = clock.getIfAvailable(AuditClock::system);
     }
 
     @Override
     public void insertFill(MetaObject metaObject) {
-        this.strictInsertFill(metaObject, "isDeleted", () -> false, Boolean.class);
-        this.strictInsertFill(metaObject, "createTime", LocalDateTime::now, LocalDateTime.class);
+        final Object entity = metaObject.getOriginalObject();
+        AuditFieldFiller.of(entity.getClass()).insertFill(entity, this.clock);
     }
 
     @Override
     public void updateFill(MetaObject metaObject) {
-        this.strictUpdateFill(metaObject, "updateTime", LocalDateTime::now, LocalDateTime.class);
+        final Object entity = metaObject.getOriginalObject();
+        AuditFieldFiller.of(entity.getClass()).updateFill(entity, this.clock);
     }
-}
\ No newline at end of file
+}
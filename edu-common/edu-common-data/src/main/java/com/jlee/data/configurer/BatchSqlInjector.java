@@ -0,0 +1,26 @@
+package com.jlee.data.configurer;
+
+import com.baomidou.mybatisplus.annotation.FieldFill;
+import com.baomidou.mybatisplus.core.injector.AbstractMethod;
+import com.baomidou.mybatisplus.core.injector.DefaultSqlInjector;
+import com.baomidou.mybatisplus.extension.injector.methods.InsertBatchSomeColumn;
+import com.jlee.data.batch.BatchBaseMapper;
+
+import java.util.List;
+
+/**
+ * 在默认方法之外，为继承 {@link BatchBaseMapper} 的 Mapper 注入多行插入方法 insertBatchSomeColumn
+ *
+ * @author jlee
+ */
+public class BatchSqlInjector extends DefaultSqlInjector {
+
+    @Override
+    public List<AbstractMethod> getMethodList(Class<?> mapperClass) {
+        final List<AbstractMethod> methods = super.getMethodList(mapperClass);
+        if (BatchBaseMapper.class.isAssignableFrom(mapperClass)) {
+            methods.add(new InsertBatchSomeColumn(field -> field.getFieldFill() != FieldFill.UPDATE));
+        }
+        return methods;
+    }
+}
@@ -0,0 +1,60 @@
+package com.jlee.data.configurer;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.type.TypeHandlerRegistry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 按 MyBatis 绑定参数的方式 (与 DefaultParameterHandler 相同) 取出 SQL 中每个 ? 对应的参数值
+ *
+ * @author jlee
+ */
+final class BoundParameters {
+
+    private BoundParameters() {
+    }
+
+    /**
+     * 取出参数值
+     *
+     * @param ms        MappedStatement
+     * @param parameter 查询参数
+     * @param boundSql  BoundSql
+     * @return 参数值，按 ? 的顺序
+     */
+    static List<Object> values(MappedStatement ms, Object parameter, BoundSql boundSql) {
+        final List<ParameterMapping> mappings = boundSql.getParameterMappings();
+        if (mappings == null || mappings.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final TypeHandlerRegistry typeHandlerRegistry = ms.getConfiguration().getTypeHandlerRegistry();
+        final List<Object> values = new ArrayList<>(mappings.size());
+        MetaObject metaObject = null;
+        for (ParameterMapping mapping : mappings) {
+            if (mapping.getMode() == ParameterMode.OUT) {
+                continue;
+            }
+            final String property = mapping.getProperty();
+            if (boundSql.hasAdditionalParameter(property)) {
+                values.add(boundSql.getAdditionalParameter(property));
+            } else if (parameter == null) {
+                values.add(null);
+            } else if (typeHandlerRegistry.hasTypeHandler(parameter.getClass())) {
+                values.add(parameter);
+            } else {
+                if (metaObject == null) {
+                    metaObject = ms.getConfiguration().newMetaObject(parameter);
+                }
+                values.add(metaObject.getValue(property));
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,87 @@
+package com.jlee.data.configurer;
+
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.baomidou.mybatisplus.extension.plugins.inner.InnerInterceptor;
+import com.jlee.data.page.CountCache;
+import com.jlee.data.page.CountMode;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 经过 MyBatis 执行的 INSERT、UPDATE、DELETE (包括逻辑删除、按条件修改和删除、没有自动填充字段的实体) 使涉及的表的分页总数缓存失效
+ * ({@link CountMode#CACHED})
+ * <p>
+ * 表名在语句第一次执行时从 SQL 中解析，无法解析时使用 Mapper 对应实体的 TableInfo 中的表名，之后按 MappedStatement id 缓存，
+ * 批量写入时同一语句不会重复生成和解析 SQL；
+ * 在事务中的写操作在事务结束后再失效一次，避免事务提交前其他线程查询到旧的总数并放入缓存
+ *
+ * @author jlee
+ */
+public class CountCacheInvalidationInnerInterceptor implements InnerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(CountCacheInvalidationInnerInterceptor.class);
+
+    private static final String[] NO_TABLES = new String[0];
+
+    private final CountCache countCache;
+    private final SqlTables sqlTables = new SqlTables();
+    /**
+     * MappedStatement id → 涉及的表名，无法确定时为空数组
+     */
+    private final ConcurrentMap<String, String[]> statementTables = new ConcurrentHashMap<>();
+    private final AfterCompletionInvalidation<String> afterCompletion;
+
+    public CountCacheInvalidationInnerInterceptor(CountCache countCache) {
+        this.countCache = countCache;
+        this.afterCompletion = new AfterCompletionInvalidation<>(countCache::invalidate);
+    }
+
+    @Override
+    public void beforeUpdate(Executor executor, MappedStatement ms, Object parameter) {
+        final SqlCommandType commandType = ms.getSqlCommandType();
+        if (commandType != SqlCommandType.INSERT && commandType != SqlCommandType.UPDATE && commandType != SqlCommandType.DELETE) {
+            return;
+        }
+        String[] tables = this.statementTables.get(ms.getId());
+        if (tables == null) {
+            tables = this.statementTables.computeIfAbsent(ms.getId(), id -> this.findTables(ms, parameter));
+        }
+        for (String table : tables) {
+            this.countCache.invalidate(table);
+            this.afterCompletion.add(table);
+        }
+    }
+
+    private String[] findTables(MappedStatement ms, Object parameter) {
+        final String[] tables = this.sqlTables.get(CountCache.normalize(ms.getBoundSql(parameter).getSql()));
+        if (tables.length > 0) {
+            return tables;
+        }
+        final String[] entityTables = this.namespaceTables(ms.getId());
+        if (entityTables.length == 0) {
+            log.debug("无法确定写操作涉及的表，分页总数缓存不会失效: {}", ms.getId());
+        }
+        return entityTables;
+    }
+
+    private String[] namespaceTables(String id) {
+        final int dot = id.lastIndexOf('.');
+        if (dot <= 0) {
+            return NO_TABLES;
+        }
+        final String namespace = id.substring(0, dot);
+        return TableInfoHelper.getTableInfos().stream()
+                .filter(tableInfo -> namespace.equals(tableInfo.getCurrentNamespace()))
+                .map(TableInfo::getTableName)
+                .map(CountCache::normalizeTable)
+                .distinct()
+                .toArray(String[]::new);
+    }
+}
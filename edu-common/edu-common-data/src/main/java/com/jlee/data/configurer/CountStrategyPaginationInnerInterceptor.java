@@ -0,0 +1,146 @@
+package com.jlee.data.configurer;
+
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.core.toolkit.ParameterUtils;
+import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
+import com.jlee.data.page.CountCache;
+import com.jlee.data.page.CountMode;
+import com.jlee.data.page.CountPage;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.Nullable;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * 可以选择总数查询方式 ({@link CountMode}) 的分页插件
+ * <p>
+ * 分页参数是 {@link CountPage} 时使用其指定的方式，否则使用插件的默认方式 (默认为 {@link CountMode#EXACT}，与 PaginationInnerInterceptor 相同)。
+ * 近似值和缓存中的总数可能小于实际的行数，所以使用它们时即使总数为 0 也会执行数据查询
+ *
+ * @author jlee
+ */
+public class CountStrategyPaginationInnerInterceptor extends PaginationInnerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(CountStrategyPaginationInnerInterceptor.class);
+
+    private final CountMode defaultMode;
+    private final CountCache countCache;
+    /**
+     * 规范化的 SQL 涉及的表名
+     */
+    private final SqlTables sqlTables = new SqlTables();
+
+    public CountStrategyPaginationInnerInterceptor(CountCache countCache) {
+        this(CountMode.EXACT, countCache);
+    }
+
+    public CountStrategyPaginationInnerInterceptor(CountMode defaultMode, CountCache countCache) {
+        this.defaultMode = defaultMode;
+        this.countCache = countCache;
+    }
+
+    @Override
+    public boolean willDoQuery(Executor executor, MappedStatement ms, Object parameter, RowBounds rowBounds,
+                               ResultHandler resultHandler, BoundSql boundSql) throws SQLException {
+        final IPage<?> page = ParameterUtils.findPage(parameter).orElse(null);
+        if (page == null || page.getSize() < 0 || !page.searchCount()) {
+            return super.willDoQuery(executor, ms, parameter, rowBounds, resultHandler, boundSql);
+        }
+        final CountPage<?> countPage = page instanceof CountPage ? (CountPage<?>) page : null;
+        final CountMode mode = countPage != null && countPage.getCountMode() != null ? countPage.getCountMode() : this.defaultMode;
+        switch (mode) {
+            case SKIP:
+                mark(countPage, false, false, true);
+                return true;
+            case APPROXIMATE:
+                final long estimate = estimateCount(executor, ms, parameter, boundSql);
+                if (estimate >= 0) {
+                    page.setTotal(estimate);
+                    mark(countPage, true, false, false);
+                    return true;
+                }
+                break;
+            case CACHED:
+                return cachedCount(executor, ms, parameter, rowBounds, resultHandler, boundSql, page, countPage);
+            default:
+                break;
+        }
+        mark(countPage, false, false, false);
+        return super.willDoQuery(executor, ms, parameter, rowBounds, resultHandler, boundSql);
+    }
+
+    private boolean cachedCount(Executor executor, MappedStatement ms, Object parameter, RowBounds rowBounds,
+                                ResultHandler resultHandler, BoundSql boundSql, IPage<?> page,
+                                @Nullable CountPage<?> countPage) throws SQLException {
+        final String sql = CountCache.normalize(boundSql.getSql());
+        final String[] tables = this.sqlTables.get(sql);
+        if (tables.length == 0) {
+            // 不知道涉及哪些表就无法及时失效，不缓存
+            mark(countPage, false, false, false);
+            return super.willDoQuery(executor, ms, parameter, rowBounds, resultHandler, boundSql);
+        }
+        final List<Object> params = BoundParameters.values(ms, parameter, boundSql);
+        final Long cached = this.countCache.get(sql, params);
+        if (cached != null) {
+            page.setTotal(cached);
+            mark(countPage, false, true, false);
+            return true;
+        }
+        final long[] versions = this.countCache.versions(tables);
+        mark(countPage, false, false, false);
+        final boolean result = super.willDoQuery(executor, ms, parameter, rowBounds, resultHandler, boundSql);
+        this.countCache.put(sql, params, tables, versions, page.getTotal());
+        return result;
+    }
+
+    /**
+     * 使用 EXPLAIN 估算行数：执行计划第一行 (驱动表) 的 rows * filtered%
+     *
+     * @return 估算的行数，数据库不支持时返回 -1
+     */
+    private long estimateCount(Executor executor, MappedStatement ms, Object parameter, BoundSql boundSql) {
+        final Connection connection;
+        try {
+            connection = executor.getTransaction().getConnection();
+        } catch (SQLException e) {
+            log.debug("分页估算总数获取连接失败，改为执行 COUNT 查询", e);
+            return -1;
+        }
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + boundSql.getSql())) {
+            ms.getConfiguration().newParameterHandler(ms, parameter, boundSql).setParameters(statement);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    return -1;
+                }
+                final long rows = resultSet.getLong("rows");
+                double filtered;
+                try {
+                    filtered = resultSet.getDouble("filtered");
+                } catch (SQLException e) {
+                    // MySQL 5.7 之前的执行计划没有 filtered
+                    filtered = 100D;
+                }
+                return Math.round(rows * filtered / 100D);
+            }
+        } catch (SQLException e) {
+            log.debug("分页估算总数失败，改为执行 COUNT 查询: {}", boundSql.getSql(), e);
+            return -1;
+        }
+    }
+
+    private static void mark(@Nullable CountPage<?> countPage, boolean approximate, boolean stale, boolean skipped) {
+        if (countPage != null) {
+            countPage.markTotal(approximate, stale, skipped);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.jlee.data.configurer;
+
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
+import com.baomidou.mybatisplus.core.toolkit.ReflectionKit;
+import com.jlee.data.cache.CachedEntity;
+import com.jlee.data.cache.EntityCacheManager;
+import com.jlee.data.routing.RoutingContext;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 实体二级缓存插件，处理标注了 {@link CachedEntity} 的实体的 BaseMapper 方法：
+ * <ul>
+ *     <li>selectById：不在事务中或者在只读事务中时先查缓存；未命中时，不在事务中才查询主库并放入缓存
+ *     (读写事务中不使用缓存，避免读到其他线程放入的、早于本事务写入的数据；只读事务和只读库的数据可能有主从延迟，不放入缓存)</li>
+ *     <li>updateById、deleteById (包括逻辑删除)：清除该主键的缓存</li>
+ *     <li>insert 不影响已有的缓存；其他写操作 (按条件修改、删除，批量删除等) 不知道影响了哪些行，清空该实体的缓存</li>
+ * </ul>
+ * 在事务中的写操作在事务结束后再清除一次，避免事务提交前其他线程读到旧数据并放入缓存，每个事务只注册一个 TransactionSynchronization
+ *
+ * @author jlee
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "query", args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query", args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class})
+})
+public class EntityCacheInterceptor implements Interceptor {
+
+    private static final String SELECT_BY_ID = "selectById";
+    private static final String UPDATE_BY_ID = "updateById";
+    private static final String DELETE_BY_ID = "deleteById";
+    private static final String INSERT = "insert";
+
+    private final EntityCacheManager cacheManager;
+    /**
+     * Mapper 的 namespace → 实体的 TableInfo，实体没有开启缓存时为空
+     */
+    private final ConcurrentMap<String, Optional<TableInfo>> namespaces = new ConcurrentHashMap<>();
+    private final AfterCompletionInvalidation<Eviction> afterCompletion = new AfterCompletionInvalidation<>(Eviction::run);
+
+    public EntityCacheInterceptor(EntityCacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        final Object[] args = invocation.getArgs();
+        final MappedStatement ms = (MappedStatement) args[0];
+        final Object parameter = args[1];
+        final String id = ms.getId();
+        final int dot = id.lastIndexOf('.');
+        final TableInfo tableInfo = dot > 0 ? this.tableInfo(id.substring(0, dot)) : null;
+        if (tableInfo == null) {
+            return invocation.proceed();
+        }
+        final EntityCacheManager.EntityCache cache = this.cacheManager.getCache(tableInfo.getEntityType());
+        final String method = id.substring(dot + 1);
+        if (args.length == 2) {
+            final Object result = invocation.proceed();
+            this.evict(cache, tableInfo, method, parameter);
+            return result;
+        }
+        if (!SELECT_BY_ID.equals(method) || parameter == null || args[3] != Executor.NO_RESULT_HANDLER || !this.canRead()) {
+            return invocation.proceed();
+        }
+
+        final Object cached = cache.get(parameter);
+        if (cached != null) {
+            final List<Object> list = new ArrayList<>(1);
+            list.add(cached);
+            return list;
+        }
+        if (!this.canPopulate()) {
+            return invocation.proceed();
+        }
+        // 放入缓存的数据从主库查询，只读库的主从延迟会使旧数据在缓存中保留整个有效期
+        final boolean routed = RoutingContext.set(RoutingContext.Route.PRIMARY);
+        final Object result;
+        try {
+            result = invocation.proceed();
+        } finally {
+            if (routed) {
+                RoutingContext.clear();
+            }
+        }
+        if (result instanceof List && ((List<?>) result).size() == 1) {
+            cache.put(parameter, ((List<?>) result).get(0));
+        }
+        return result;
+    }
+
+    private void evict(EntityCacheManager.EntityCache cache, TableInfo tableInfo, String method, @Nullable Object parameter) {
+        if (INSERT.equals(method)) {
+            return;
+        }
+        final Object key = UPDATE_BY_ID.equals(method) || DELETE_BY_ID.equals(method) ? this.keyOf(tableInfo, method, parameter) : null;
+        final Eviction eviction = new Eviction(cache, key);
+        eviction.run();
+        this.afterCompletion.add(eviction);
+    }
+
+    /**
+     * 取出写操作的主键：参数是实体 (或 @Param("et") 的实体) 时取实体的主键，deleteById 的参数是主键本身
+     */
+    @Nullable
+    private Object keyOf(TableInfo tableInfo, String method, @Nullable Object parameter) {
+        Object entity = parameter;
+        if (parameter instanceof Map && ((Map<?, ?>) parameter).containsKey(Constants.ENTITY)) {
+            entity = ((Map<?, ?>) parameter).get(Constants.ENTITY);
+        }
+        if (tableInfo.getEntityType().isInstance(entity)) {
+            return tableInfo.getKeyProperty() == null ? null : ReflectionKit.getFieldValue(entity, tableInfo.getKeyProperty());
+        }
+        return DELETE_BY_ID.equals(method) && !(parameter instanceof Map) ? parameter : null;
+    }
+
+    /**
+     * 不在事务中，或者在只读事务中时才读取缓存
+     */
+    private boolean canRead() {
+        return !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    /**
+     * 不在事务中，并且没有通过 RoutingContext 指定使用只读库时才放入缓存
+     */
+    private boolean canPopulate() {
+        return !TransactionSynchronizationManager.isSynchronizationActive()
+                && RoutingContext.current() != RoutingContext.Route.REPLICA;
+    }
+
+    @Nullable
+    private TableInfo tableInfo(String namespace) {
+        Optional<TableInfo> tableInfo = this.namespaces.get(namespace);
+        if (tableInfo == null) {
+            tableInfo = this.namespaces.computeIfAbsent(namespace, this::findTableInfo);
+        }
+        return tableInfo.orElse(null);
+    }
+
+    private Optional<TableInfo> findTableInfo(String namespace) {
+        return TableInfoHelper.getTableInfos().stream()
+                .filter(tableInfo -> namespace.equals(tableInfo.getCurrentNamespace()))
+                .filter(tableInfo -> this.cacheManager.getCache(tableInfo.getEntityType()) != null)
+                .findFirst();
+    }
+
+    /**
+     * 清除一个主键的缓存，主键为 null 时清空该实体的缓存
+     */
+    private static final class Eviction {
+        private final EntityCacheManager.EntityCache cache;
+        @Nullable
+        private final Object key;
+
+        private Eviction(EntityCacheManager.EntityCache cache, @Nullable Object key) {
+            this.cache = cache;
+            this.key = key;
+        }
+
+        private void run() {
+            if (this.key != null) {
+                this.cache.evict(this.key);
+            } else {
+                this.cache.clear();
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Eviction)) return false;
+            Eviction that = (Eviction) o;
+            return this.cache == that.cache && Objects.equals(this.key, that.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(this.cache) + Objects.hashCode(this.key);
+        }
+    }
+}
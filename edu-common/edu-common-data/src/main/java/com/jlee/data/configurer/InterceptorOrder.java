@@ -0,0 +1,27 @@
+package com.jlee.data.configurer;
+
+/**
+ * 本模块 Executor 插件 Bean 的 @Order
+ * <p>
+ * mybatis-plus 按 @Order 从小到大添加插件，后添加的插件包在外层，所以 order 越小越靠近真正的执行：
+ * <ol>
+ *     <li>{@link SqlMetricsInterceptor}：最内层，只统计真正执行的语句，分页插件生成的 COUNT 按自己的 id (_mpCount) 统计，
+ *     命中实体缓存的 selectById 不计入</li>
+ *     <li>{@link ReadWriteRoutingInterceptor}：设置语句的路由</li>
+ *     <li>MybatisPlusInterceptor：分页、总数缓存失效等，生成的 COUNT 语句经过内层的插件</li>
+ *     <li>{@link EntityCacheInterceptor}：最外层，命中缓存时不经过其他插件；未命中时指定的主库路由不会被内层改为只读库</li>
+ * </ol>
+ * 没有 @Order 的插件在最外层
+ *
+ * @author jlee
+ */
+public final class InterceptorOrder {
+
+    public static final int SQL_METRICS = 100;
+    public static final int READ_WRITE_ROUTING = 200;
+    public static final int MYBATIS_PLUS = 300;
+    public static final int ENTITY_CACHE = 400;
+
+    private InterceptorOrder() {
+    }
+}
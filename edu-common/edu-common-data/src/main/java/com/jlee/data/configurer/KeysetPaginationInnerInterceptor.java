@@ -0,0 +1,188 @@
+package com.jlee.data.configurer;
+
+import com.baomidou.mybatisplus.core.toolkit.PluginUtils;
+import com.baomidou.mybatisplus.extension.plugins.inner.InnerInterceptor;
+import com.jlee.data.page.KeysetCursor;
+import com.jlee.data.page.KeysetPage;
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.LongValue;
+import net.sf.jsqlparser.expression.Parenthesis;
+import net.sf.jsqlparser.expression.operators.conditional.AndExpression;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import net.sf.jsqlparser.schema.Column;
+import net.sf.jsqlparser.statement.Statement;
+import net.sf.jsqlparser.statement.select.Limit;
+import net.sf.jsqlparser.statement.select.OrderByElement;
+import net.sf.jsqlparser.statement.select.PlainSelect;
+import net.sf.jsqlparser.statement.select.Select;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 游标 (keyset) 分页插件
+ * <p>
+ * 查询参数中有 {@link KeysetPage} (或者在 {@link KeysetPage#execute} 中执行) 时，将查询改写为：
+ * <pre>
+ * WHERE 原条件 AND sort &gt;= ? AND (sort &gt; ? OR id &gt; ?) ORDER BY sort, id LIMIT pageSize + 1
+ * </pre>
+ * 与 (sort, id) &gt; (?, ?) 等价，MySQL 不会对行构造器的大于、小于比较使用范围扫描，所以默认展开写；
+ * 数据库能够优化行构造器比较时 (如 PostgreSQL) 可以开启 rowConstructor。原查询中的 ORDER BY 和 LIMIT 会被替换
+ * <p>
+ * 追加的参数放在所有参数之后，所以原查询的 GROUP BY、HAVING、ORDER BY、LIMIT 中不能有参数
+ *
+ * @author jlee
+ */
+public class KeysetPaginationInnerInterceptor implements InnerInterceptor {
+
+    private static final String PARAMETER_PREFIX = "_keyset_param_";
+
+    /**
+     * 是否使用行构造器 (sort, id) &gt; (?, ?) 的写法
+     */
+    private final boolean rowConstructor;
+
+    public KeysetPaginationInnerInterceptor() {
+        this(false);
+    }
+
+    public KeysetPaginationInnerInterceptor(boolean rowConstructor) {
+        this.rowConstructor = rowConstructor;
+    }
+
+    @Override
+    public void beforeQuery(Executor executor, MappedStatement ms, Object parameter, RowBounds rowBounds,
+                            ResultHandler resultHandler, BoundSql boundSql) {
+        if (ms.getSqlCommandType() != SqlCommandType.SELECT) {
+            return;
+        }
+        KeysetPage page = findPage(parameter);
+        if (page == null) {
+            page = KeysetPage.consumeCurrent();
+            if (page == null) {
+                return;
+            }
+        }
+
+        final PluginUtils.MPBoundSql mpBoundSql = PluginUtils.mpBoundSql(boundSql);
+        final List<Object> values = new ArrayList<>(3);
+        mpBoundSql.sql(rewrite(mpBoundSql.sql(), page, values));
+        if (values.isEmpty()) {
+            return;
+        }
+
+        final Configuration configuration = ms.getConfiguration();
+        final List<ParameterMapping> mappings = new ArrayList<>(mpBoundSql.parameterMappings());
+        for (int i = 0; i < values.size(); i++) {
+            final String property = PARAMETER_PREFIX + i;
+            final Object value = values.get(i);
+            mappings.add(new ParameterMapping.Builder(configuration, property, value.getClass()).build());
+            boundSql.setAdditionalParameter(property, value);
+        }
+        mpBoundSql.parameterMappings(mappings);
+    }
+
+    /**
+     * 改写查询语句
+     *
+     * @param sql    原查询语句
+     * @param page   分页参数
+     * @param values 追加的参数值
+     * @return 改写后的查询语句
+     */
+    private String rewrite(String sql, KeysetPage page, List<Object> values) {
+        final Statement statement;
+        try {
+            statement = CCJSqlParserUtil.parse(sql);
+        } catch (JSQLParserException e) {
+            throw new IllegalStateException("游标分页无法解析查询语句: " + sql, e);
+        }
+        if (!(statement instanceof Select) || !(((Select) statement).getSelectBody() instanceof PlainSelect)) {
+            throw new IllegalStateException("游标分页只支持简单的 SELECT 语句: " + sql);
+        }
+        final PlainSelect plainSelect = (PlainSelect) ((Select) statement).getSelectBody();
+        checkNoParameters(sql, plainSelect.getGroupBy(), plainSelect.getHaving(), plainSelect.getOrderByElements(),
+                plainSelect.getLimit(), plainSelect.getOffset(), plainSelect.getFetch());
+
+        final KeysetCursor cursor = page.getCursor();
+        if (cursor != null) {
+            final Expression keysetCondition = parseCondition(page, cursor, values);
+            final Expression where = plainSelect.getWhere();
+            plainSelect.setWhere(where == null ? keysetCondition : new AndExpression(new Parenthesis(where), keysetCondition));
+        }
+
+        plainSelect.setOrderByElements(Arrays.asList(
+                orderBy(page.getSortColumn(), page.isAscending()),
+                orderBy(page.getIdColumn(), page.isAscending())));
+        // 多查一行，用来判断是否还有下一页
+        final Limit limit = new Limit();
+        limit.setRowCount(new LongValue(page.getPageSize() + 1L));
+        plainSelect.setLimit(limit);
+        plainSelect.setOffset(null);
+        plainSelect.setFetch(null);
+        return statement.toString();
+    }
+
+    private Expression parseCondition(KeysetPage page, KeysetCursor cursor, List<Object> values) {
+        final String sort = page.getSortColumn();
+        final String id = page.getIdColumn();
+        final String operator = page.isAscending() ? ">" : "<";
+        final String condition;
+        if (this.rowConstructor) {
+            condition = "(" + sort + ", " + id + ") " + operator + " (?, ?)";
+            values.add(cursor.getSortValue());
+            values.add(cursor.getIdValue());
+        } else {
+            condition = sort + " " + operator + "= ? AND (" + sort + " " + operator + " ? OR " + id + " " + operator + " ?)";
+            values.add(cursor.getSortValue());
+            values.add(cursor.getSortValue());
+            values.add(cursor.getIdValue());
+        }
+        try {
+            return new Parenthesis(CCJSqlParserUtil.parseCondExpression(condition));
+        } catch (JSQLParserException e) {
+            throw new IllegalStateException("游标分页条件解析失败: " + condition, e);
+        }
+    }
+
+    private static OrderByElement orderBy(String column, boolean ascending) {
+        final OrderByElement element = new OrderByElement();
+        element.setExpression(new Column(column));
+        element.setAsc(ascending);
+        element.setAscDescPresent(!ascending);
+        return element;
+    }
+
+    private static void checkNoParameters(String sql, Object... parts) {
+        for (Object part : parts) {
+            if (part != null && part.toString().indexOf('?') != -1) {
+                throw new IllegalStateException("游标分页的查询语句在 WHERE 之后不能有参数: " + sql);
+            }
+        }
+    }
+
+    private static KeysetPage findPage(Object parameter) {
+        if (parameter instanceof KeysetPage) {
+            return (KeysetPage) parameter;
+        }
+        if (parameter instanceof Map) {
+            for (Object value : ((Map<?, ?>) parameter).values()) {
+                if (value instanceof KeysetPage) {
+                    return (KeysetPage) value;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -1,102 +1,128 @@
 package com.jlee.data.configurer;
 
+import com.baomidou.mybatisplus.core.injector.ISqlInjector;
 import com.baomidou.mybatisplus.extension.handlers.JacksonTypeHandler;
 import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
-import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateDeserializer;
-import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
-import com.fasterxml.jackson.datatype.jsr310.deser.LocalTimeDeserializer;
-import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateSerializer;
-import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
-import com.fasterxml.jackson.datatype.jsr310.ser.LocalTimeSerializer;
-import com.jlee.config.MyJacksonProperties;
-import org.springframework.beans.BeanUtils;
+import com.jlee.config.ObjectMapperRegistry;
+import com.jlee.data.AuditClock;
+import com.jlee.data.batch.BatchWriter;
+import com.jlee.data.cache.EntityCacheManager;
+import com.jlee.data.cache.EntityCacheMeterBinder;
+import com.jlee.data.configurer.type.JsonColumnTypeHandler;
+import com.jlee.data.page.CountCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
-import org.springframework.util.ClassUtils;
+import org.springframework.core.annotation.Order;
 
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
-import java.util.TimeZone;
 
 @Configuration
 public class MybatisPlusConfigurer {
 
 
-    public MybatisPlusConfigurer(MyJacksonProperties jacksonProperties) {
-        // 设置 mybatis-plus 中 JacksonTypeHandler 处理序列化和反序化时使用的 ObjectMapper
-        JacksonTypeHandler.setObjectMapper(getMybatisPlusObjectMapper(jacksonProperties));
+    public MybatisPlusConfigurer(ObjectMapperRegistry objectMapperRegistry) {
+        // 设置 mybatis-plus 中 JacksonTypeHandler 处理序列化和反序化时使用的 ObjectMapper，
+        // MybatisPlus 内置的 ObjectMapper 是没有加任何配置的，日期格式与习惯不同；
+        // 如果想 为 MybatisPlus 自定义 ObjectMapper 可以定义自己的 ObjectMapperRegistry
+        JacksonTypeHandler.setObjectMapper(objectMapperRegistry.getObjectMapper(ObjectMapperRegistry.Purpose.JSON_COLUMN));
+        // JsonColumnTypeHandler 使用 ObjectMapperRegistry 中按类型共享的 ObjectReader、ObjectWriter
+        JsonColumnTypeHandler.setObjectMapperRegistry(objectMapperRegistry);
     }
 
+    /**
+     * 分页总数的缓存，CountCacheInvalidationInnerInterceptor 在新增、修改、删除时使对应表的缓存失效
+     *
+     * @return CountCache
+     */
+    @Bean
+    public CountCache countCache() {
+        return new CountCache();
+    }
 
     /**
-     * 根据配置文件为 MybatisPlus 创建一个 ObjectMapper，虽然 ObjectMapper 是线程安全的，可以使用全局的 ObjectMapper，但避免高并发时 ObjectMapper 解析时出现线程长期等待的情况，还是考虑 MybatisPlus 单独使用一个，但 MybatisPlus 内置的 ObjectMapper 是没有加任何配置的，日期格式与习惯不同
-     * 如果想 为 MybatisPlus 自定义 ObjectMapper  可以考虑继承改配置类
+     * 配置分页插件，游标分页 (KeysetPage) 和 OFFSET 分页 (IPage，使用 CountPage 可以选择总数查询方式)，
+     * 以及写操作时使分页总数缓存失效的插件
      *
-     * @return ObjectMapper 对象
+     * @return MybatisPlusInterceptor
      */
-    public ObjectMapper getMybatisPlusObjectMapper(MyJacksonProperties jacksonProperties) {
-        Jackson2ObjectMapperBuilder builder = new Jackson2ObjectMapperBuilder();
-        final DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern(jacksonProperties.getLocalDateTimeFormat());
-        final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern(jacksonProperties.getLocalDateFormat());
-        final DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern(jacksonProperties.getLocalTimeFormat());
+    @Bean
+    @Order(InterceptorOrder.MYBATIS_PLUS)
+    public MybatisPlusInterceptor mybatisPlusInterceptor(CountCache countCache) {
+        MybatisPlusInterceptor interceptor = new MybatisPlusInterceptor();
+        interceptor.addInnerInterceptor(new KeysetPaginationInnerInterceptor());
+        interceptor.addInnerInterceptor(new CountStrategyPaginationInnerInterceptor(countCache));
+        interceptor.addInnerInterceptor(new CountCacheInvalidationInnerInterceptor(countCache));
+        return interceptor;
+    }
 
-        // 配置 Date 序列化和反序列化格式
-        configureDateFormat(builder, jacksonProperties);
+    /**
+     * 注入多行插入方法，供继承 BatchBaseMapper 的 Mapper 使用
+     *
+     * @return ISqlInjector
+     */
+    @Bean
+    @ConditionalOnMissingBean(ISqlInjector.class)
+    public ISqlInjector batchSqlInjector() {
+        return new BatchSqlInjector();
+    }
 
-        // jdk8 日期 序列化
-        builder.serializerByType(LocalDateTime.class,
-                new LocalDateTimeSerializer(dateTimeFormatter));
-        builder.serializerByType(LocalDate.class,
-                new LocalDateSerializer(dateFormatter));
-        builder.serializerByType(LocalTime.class,
-                new LocalTimeSerializer(timeFormatter));
+    /**
+     * 填充 createTime、updateTime 的时钟，可以定义 AuditClock.coarse(...) 的 Bean 替换
+     *
+     * @return AuditClock
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public AuditClock auditClock() {
+        return AuditClock.system();
+    }
 
-        // jdk8 日期 反序列化
-        builder.deserializerByType(LocalDateTime.class,
-                new LocalDateTimeDeserializer(dateTimeFormatter));
-        builder.deserializerByType(LocalDate.class,
-                new LocalDateDeserializer(dateFormatter));
-        builder.deserializerByType(LocalTime.class,
-                new LocalTimeDeserializer(timeFormatter));
-        return builder.createXmlMapper(false).build();
+    /**
+     * 批量写入继承 AbstractDataEntity 的实体
+     *
+     * @return BatchWriter
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public BatchWriter batchWriter(SqlSessionFactory sqlSessionFactory, AuditClock auditClock) {
+        return new BatchWriter(sqlSessionFactory, auditClock);
     }
 
-    private void configureDateFormat(Jackson2ObjectMapperBuilder builder, MyJacksonProperties jacksonProperties) {
-        // 配置 Date 序列化和反序列化格式
-        String dateFormat = jacksonProperties.getDateFormat();
-        if (dateFormat != null) {
-            try {
-                Class<?> dateFormatClass = ClassUtils.forName(dateFormat, null);
-                builder.dateFormat((DateFormat) BeanUtils.instantiateClass(dateFormatClass));
-            } catch (ClassNotFoundException ex) {
-                SimpleDateFormat simpleDateFormat = new SimpleDateFormat(dateFormat);
-                // 设置时区
-                TimeZone timeZone = jacksonProperties.getTimeZone();
-                if (timeZone == null) {
-                    timeZone = new ObjectMapper().getSerializationConfig().getTimeZone();
-                }
-                simpleDateFormat.setTimeZone(timeZone);
-                builder.dateFormat(simpleDateFormat);
-            }
-        }
+    /**
+     * 实体二级缓存，只缓存标注了 CachedEntity 的实体
+     *
+     * @return EntityCacheManager
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public EntityCacheManager entityCacheManager() {
+        return new EntityCacheManager();
     }
 
     /**
-     * 配置分页插件
+     * 实体二级缓存插件，selectById 读缓存，通过 BaseMapper 写入时清除缓存
      *
-     * @return MybatisPlusInterceptor
+     * @return EntityCacheInterceptor
      */
     @Bean
-    public MybatisPlusInterceptor mybatisPlusInterceptor() {
-        MybatisPlusInterceptor interceptor = new MybatisPlusInterceptor();
-        interceptor.addInnerInterceptor(new PaginationInnerInterceptor());
-        return interceptor;
+    @Order(InterceptorOrder.ENTITY_CACHE)
+    public EntityCacheInterceptor entityCacheInterceptor(EntityCacheManager entityCacheManager) {
+        return new EntityCacheInterceptor(entityCacheManager);
+    }
+
+    /**
+     * 实体缓存的命中、未命中等统计导出到 Micrometer，由 actuator 绑定到 MeterRegistry
+     */
+    @Configuration
+    @ConditionalOnClass(MeterRegistry.class)
+    static class EntityCacheMeterConfiguration {
+
+        @Bean
+        public EntityCacheMeterBinder entityCacheMeterBinder(EntityCacheManager entityCacheManager) {
+            return new EntityCacheMeterBinder(entityCacheManager);
+        }
     }
 }
@@ -0,0 +1,94 @@
+package com.jlee.data.configurer;
+
+import com.alibaba.druid.pool.DruidDataSource;
+import com.alibaba.druid.spring.boot.autoconfigure.DruidDataSourceAutoConfigure;
+import com.jlee.data.routing.ReadWriteRoutingDataSource;
+import com.jlee.data.routing.ReplicaSet;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 读写分离配置，edu.datasource.routing.enabled=true 时开启
+ * <p>
+ * 原来的数据源 (spring.datasource.druid，Bean 名称为 dataSource) 作为主库，按 {@link ReadWriteRoutingProperties} 创建只读库
+ * (连接池参数从主库复制)，注册一个 @Primary 的读写分离数据源，mybatis-plus 和事务管理器都使用该数据源
+ *
+ * @author jlee
+ */
+@Configuration
+@EnableConfigurationProperties(ReadWriteRoutingProperties.class)
+@ConditionalOnProperty(prefix = "edu.datasource.routing", name = "enabled", havingValue = "true")
+@AutoConfigureAfter({DruidDataSourceAutoConfigure.class, DataSourceAutoConfiguration.class})
+public class ReadWriteRoutingConfigurer {
+
+    /**
+     * 只读库
+     *
+     * @return ReplicaSet
+     */
+    @Bean(destroyMethod = "close")
+    public ReplicaSet replicaSet(@Qualifier("dataSource") DataSource primary, ReadWriteRoutingProperties properties) {
+        Assert.notEmpty(properties.getReplicas(), "开启读写分离时 edu.datasource.routing.replicas 不能为空");
+        final List<ReplicaSet.Replica> replicas = new ArrayList<>(properties.getReplicas().size());
+        for (int i = 0; i < properties.getReplicas().size(); i++) {
+            final ReadWriteRoutingProperties.Replica replica = properties.getReplicas().get(i);
+            final String name = StringUtils.hasText(replica.getName()) ? replica.getName() : "replica-" + i;
+            replicas.add(new ReplicaSet.Replica(name, createReplicaDataSource(primary, replica, name), replica.getWeight()));
+        }
+        final ReplicaSet replicaSet = new ReplicaSet(replicas, properties.getHealthCheckTimeout());
+        replicaSet.start(properties.getHealthCheckInterval());
+        return replicaSet;
+    }
+
+    /**
+     * 读写分离数据源，LazyConnectionDataSourceProxy 使事务中的连接在第一条语句执行时才获取，此时事务的只读标记已经设置
+     *
+     * @return DataSource
+     */
+    @Bean
+    @Primary
+    public DataSource readWriteRoutingDataSource(@Qualifier("dataSource") DataSource primary, ReplicaSet replicaSet) {
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replicaSet));
+    }
+
+    /**
+     * 不在事务中时按语句类型设置路由
+     *
+     * @return ReadWriteRoutingInterceptor
+     */
+    @Bean
+    @Order(InterceptorOrder.READ_WRITE_ROUTING)
+    public ReadWriteRoutingInterceptor readWriteRoutingInterceptor(ReadWriteRoutingProperties properties) {
+        return new ReadWriteRoutingInterceptor(properties.isSelectsToReplica());
+    }
+
+    private static DataSource createReplicaDataSource(DataSource primary, ReadWriteRoutingProperties.Replica replica, String name) {
+        Assert.hasText(replica.getUrl(), "只读库 " + name + " 的 url 不能为空");
+        // 连接池参数与主库相同
+        final DruidDataSource dataSource = primary instanceof DruidDataSource
+                ? ((DruidDataSource) primary).cloneDruidDataSource() : new DruidDataSource();
+        dataSource.setName(name);
+        dataSource.setUrl(replica.getUrl());
+        if (replica.getUsername() != null) {
+            dataSource.setUsername(replica.getUsername());
+        }
+        if (replica.getPassword() != null) {
+            dataSource.setPassword(replica.getPassword());
+        }
+        return dataSource;
+    }
+}
@@ -0,0 +1,105 @@
+package com.jlee.data.configurer;
+
+import com.jlee.data.routing.ReadReplica;
+import com.jlee.data.routing.RoutingContext;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 读写分离插件：不在事务中时，按语句类型设置 {@link RoutingContext}，SELECT 使用只读库，其他语句使用主库
+ * <p>
+ * 事务中的连接由事务的只读标记决定，不做处理；已经通过 RoutingContext 指定了路由时保持指定的路由
+ *
+ * @author jlee
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "query", args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query", args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "queryCursor", args = {MappedStatement.class, Object.class, RowBounds.class}),
+        @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class})
+})
+public class ReadWriteRoutingInterceptor implements Interceptor {
+
+    /**
+     * mybatis-plus 分页插件生成的 COUNT 语句 id 的后缀
+     */
+    private static final String COUNT_SUFFIX = "_mpCount";
+
+    private final boolean selectsToReplica;
+    /**
+     * MappedStatement id → Mapper 方法或接口是否标注了 {@link ReadReplica}
+     */
+    private final ConcurrentMap<String, Boolean> annotated = new ConcurrentHashMap<>();
+
+    /**
+     * @param selectsToReplica 所有 SELECT 是否都使用只读库，为 false 时只有标注了 {@link ReadReplica} 的 Mapper 方法使用只读库
+     */
+    public ReadWriteRoutingInterceptor(boolean selectsToReplica) {
+        this.selectsToReplica = selectsToReplica;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return invocation.proceed();
+        }
+        final MappedStatement ms = (MappedStatement) invocation.getArgs()[0];
+        final boolean read = ms.getSqlCommandType() == SqlCommandType.SELECT && (this.selectsToReplica || this.isAnnotated(ms));
+        if (!RoutingContext.set(read ? RoutingContext.Route.REPLICA : RoutingContext.Route.PRIMARY)) {
+            return invocation.proceed();
+        }
+        try {
+            return invocation.proceed();
+        } finally {
+            RoutingContext.clear();
+        }
+    }
+
+    private boolean isAnnotated(MappedStatement ms) {
+        final Boolean result = this.annotated.get(ms.getId());
+        return result != null ? result : this.annotated.computeIfAbsent(ms.getId(), this::findAnnotation);
+    }
+
+    private boolean findAnnotation(String id) {
+        final int dot = id.lastIndexOf('.');
+        if (dot <= 0) {
+            return false;
+        }
+        final Class<?> mapperClass;
+        try {
+            mapperClass = ClassUtils.forName(id.substring(0, dot), ClassUtils.getDefaultClassLoader());
+        } catch (ClassNotFoundException | LinkageError e) {
+            // 只有 XML 的 namespace
+            return false;
+        }
+        if (AnnotatedElementUtils.hasAnnotation(mapperClass, ReadReplica.class)) {
+            return true;
+        }
+        String methodName = id.substring(dot + 1);
+        if (methodName.endsWith(COUNT_SUFFIX)) {
+            methodName = methodName.substring(0, methodName.length() - COUNT_SUFFIX.length());
+        }
+        for (Method method : mapperClass.getMethods()) {
+            if (method.getName().equals(methodName) && AnnotatedElementUtils.hasAnnotation(method, ReadReplica.class)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,151 @@
+package com.jlee.data.configurer;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 读写分离配置，主库为 spring.datasource.druid 配置的数据源
+ * <pre>
+ * edu:
+ *   datasource:
+ *     routing:
+ *       enabled: true
+ *       replicas:
+ *         - url: jdbc:mysql://replica1:3306/dome
+ *           username: root
+ *           password: 1234
+ *           weight: 2
+ *         - url: jdbc:mysql://replica2:3306/dome
+ *           username: root
+ *           password: 1234
+ * </pre>
+ *
+ * @author jlee
+ */
+@ConfigurationProperties("edu.datasource.routing")
+public class ReadWriteRoutingProperties {
+    /**
+     * 是否开启读写分离
+     */
+    private boolean enabled;
+
+    /**
+     * 不在事务中的 SELECT 是否使用只读库，为 false 时只有 @ReadReplica 标注的 Mapper 方法和只读事务使用只读库
+     */
+    private boolean selectsToReplica = true;
+
+    /**
+     * 只读库健康检查的间隔
+     */
+    private Duration healthCheckInterval = Duration.ofSeconds(10);
+
+    /**
+     * 只读库健康检查的超时时间
+     */
+    private Duration healthCheckTimeout = Duration.ofSeconds(1);
+
+    /**
+     * 只读库
+     */
+    private List<Replica> replicas = new ArrayList<>();
+
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isSelectsToReplica() {
+        return this.selectsToReplica;
+    }
+
+    public void setSelectsToReplica(boolean selectsToReplica) {
+        this.selectsToReplica = selectsToReplica;
+    }
+
+    public Duration getHealthCheckInterval() {
+        return this.healthCheckInterval;
+    }
+
+    public void setHealthCheckInterval(Duration healthCheckInterval) {
+        this.healthCheckInterval = healthCheckInterval;
+    }
+
+    public Duration getHealthCheckTimeout() {
+        return this.healthCheckTimeout;
+    }
+
+    public void setHealthCheckTimeout(Duration healthCheckTimeout) {
+        this.healthCheckTimeout = healthCheckTimeout;
+    }
+
+    public List<Replica> getReplicas() {
+        return this.replicas;
+    }
+
+    public void setReplicas(List<Replica> replicas) {
+        this.replicas = replicas;
+    }
+
+    /**
+     * 只读库配置，没有配置的连接池参数与主库相同
+     */
+    public static class Replica {
+        /**
+         * 名称，用于日志
+         */
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        /**
+         * 权重，按权重随机分配读请求
+         */
+        private int weight = 1;
+
+        public String getName() {
+            return this.name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getUrl() {
+            return this.url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return this.username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return this.password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public int getWeight() {
+            return this.weight;
+        }
+
+        public void setWeight(int weight) {
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.jlee.data.configurer;
+
+import com.jlee.data.metrics.SqlMetrics;
+import com.jlee.data.metrics.SqlMetricsMeterBinder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+
+/**
+ * SQL 执行统计配置，edu.datasource.sql-metrics.enabled=false 时关闭；有 Micrometer 时 (如引入了 actuator) 导出为指标
+ *
+ * @author jlee
+ */
+@Configuration
+@EnableConfigurationProperties(SqlMetricsProperties.class)
+@ConditionalOnProperty(prefix = "edu.datasource.sql-metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SqlMetricsConfigurer {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public SqlMetrics sqlMetrics() {
+        return new SqlMetrics();
+    }
+
+    @Bean
+    @Order(InterceptorOrder.SQL_METRICS)
+    public SqlMetricsInterceptor sqlMetricsInterceptor(SqlMetrics sqlMetrics, SqlMetricsProperties properties) {
+        return new SqlMetricsInterceptor(sqlMetrics, properties.getSlowThreshold(), properties.getParameterSampleRate());
+    }
+
+    /**
+     * 导出到 Micrometer，由 actuator 绑定到 MeterRegistry
+     */
+    @Configuration
+    @ConditionalOnClass(MeterRegistry.class)
+    static class SqlMetricsMeterConfiguration {
+
+        @Bean
+        public SqlMetricsMeterBinder sqlMetricsMeterBinder(SqlMetrics sqlMetrics) {
+            return new SqlMetricsMeterBinder(sqlMetrics);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.jlee.data.configurer;
+
+import com.jlee.data.metrics.SqlMetrics;
+import com.jlee.data.page.CountCache;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SQL 执行统计插件：按 MappedStatement id 记录耗时分布、返回行数、影响行数 (见 {@link SqlMetrics})，
+ * 超过阈值的慢 SQL 记录日志，按采样率附带绑定的参数值 (参数可能包含个人信息，默认只采样一部分)
+ * <p>
+ * 同一个 id 的执行次数远大于请求数时，通常是 N+1 查询
+ * <p>
+ * 通过 {@link InterceptorOrder#SQL_METRICS} 放在其他插件的内层，只统计真正执行的语句
+ *
+ * @author jlee
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "query", args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query", args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class})
+})
+public class SqlMetricsInterceptor implements Interceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlMetricsInterceptor.class);
+
+    private final SqlMetrics sqlMetrics;
+    private final long slowThresholdNanos;
+    private final double parameterSampleRate;
+
+    /**
+     * @param sqlMetrics          统计
+     * @param slowThreshold       慢 SQL 的阈值
+     * @param parameterSampleRate 慢 SQL 日志附带参数值的比例，0 ~ 1
+     */
+    public SqlMetricsInterceptor(SqlMetrics sqlMetrics, Duration slowThreshold, double parameterSampleRate) {
+        this.sqlMetrics = sqlMetrics;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.parameterSampleRate = parameterSampleRate;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        final Object[] args = invocation.getArgs();
+        final MappedStatement ms = (MappedStatement) args[0];
+        final long start = System.nanoTime();
+        Object result = null;
+        try {
+            result = invocation.proceed();
+            return result;
+        } finally {
+            final long nanos = System.nanoTime() - start;
+            final boolean update = args.length == 2;
+            final long rows = !update && result instanceof List ? ((List<?>) result).size() : -1L;
+            // BATCH 执行器的 update 返回的是一个负数常量，影响行数在 flushStatements 时才知道
+            final long affectedRows = update && result instanceof Integer ? (Integer) result : -1L;
+            this.sqlMetrics.statement(ms.getId()).record(nanos, rows, affectedRows);
+            if (nanos >= this.slowThresholdNanos) {
+                this.logSlow(ms, args, nanos, update ? affectedRows : rows);
+            }
+        }
+    }
+
+    private void logSlow(MappedStatement ms, Object[] args, long nanos, long rows) {
+        if (!log.isWarnEnabled()) {
+            return;
+        }
+        try {
+            final BoundSql boundSql = args.length == 6 ? (BoundSql) args[5] : ms.getBoundSql(args[1]);
+            final String sql = CountCache.normalize(boundSql.getSql());
+            if (this.parameterSampleRate > 0D && ThreadLocalRandom.current().nextDouble() < this.parameterSampleRate) {
+                log.warn("慢 SQL {} 耗时 {} ms，行数 {}，SQL: {}，参数: {}", ms.getId(), TimeUnit.NANOSECONDS.toMillis(nanos), rows,
+                        sql, BoundParameters.values(ms, args[1], boundSql));
+            } else {
+                log.warn("慢 SQL {} 耗时 {} ms，行数 {}，SQL: {}", ms.getId(), TimeUnit.NANOSECONDS.toMillis(nanos), rows, sql);
+            }
+        } catch (RuntimeException e) {
+            log.warn("慢 SQL {} 耗时 {} ms", ms.getId(), TimeUnit.NANOSECONDS.toMillis(nanos), e);
+        }
+    }
+}
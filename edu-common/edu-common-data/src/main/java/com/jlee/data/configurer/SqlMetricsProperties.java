@@ -0,0 +1,52 @@
+package com.jlee.data.configurer;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * SQL 执行统计配置
+ *
+ * @author jlee
+ */
+@ConfigurationProperties("edu.datasource.sql-metrics")
+public class SqlMetricsProperties {
+    /**
+     * 是否开启 SQL 执行统计
+     */
+    private boolean enabled = true;
+
+    /**
+     * 慢 SQL 的阈值，超过时记录日志
+     */
+    private Duration slowThreshold = Duration.ofMillis(500);
+
+    /**
+     * 慢 SQL 日志附带参数值的比例，0 ~ 1，为 0 时不记录参数
+     */
+    private double parameterSampleRate = 0.1D;
+
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getSlowThreshold() {
+        return this.slowThreshold;
+    }
+
+    public void setSlowThreshold(Duration slowThreshold) {
+        this.slowThreshold = slowThreshold;
+    }
+
+    public double getParameterSampleRate() {
+        return this.parameterSampleRate;
+    }
+
+    public void setParameterSampleRate(double parameterSampleRate) {
+        this.parameterSampleRate = parameterSampleRate;
+    }
+}
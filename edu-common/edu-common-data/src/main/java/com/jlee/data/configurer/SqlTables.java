@@ -0,0 +1,56 @@
+package com.jlee.data.configurer;
+
+import com.jlee.data.page.CountCache;
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import net.sf.jsqlparser.util.TablesNamesFinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 解析 SQL 涉及的表名 (按 {@link CountCache#normalizeTable} 规范化)，按 SQL 缓存解析结果，避免每次都解析 SQL
+ *
+ * @author jlee
+ */
+final class SqlTables {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlTables.class);
+
+    private static final String[] UNKNOWN_TABLES = new String[0];
+    private static final int MAX_CACHED_SQL = 4096;
+
+    private final ConcurrentMap<String, String[]> tablesCache = new ConcurrentHashMap<>();
+
+    /**
+     * 获取 SQL 涉及的表名
+     *
+     * @param sql 规范化的 SQL
+     * @return 表名，无法解析或者没有表名时返回空数组
+     */
+    String[] get(String sql) {
+        final String[] cached = this.tablesCache.get(sql);
+        if (cached != null) {
+            return cached;
+        }
+        String[] tables;
+        try {
+            final List<String> names = new TablesNamesFinder().getTableList(CCJSqlParserUtil.parse(sql));
+            tables = names.stream().map(CountCache::normalizeTable).distinct().toArray(String[]::new);
+            if (tables.length == 0) {
+                tables = UNKNOWN_TABLES;
+            }
+        } catch (JSQLParserException | RuntimeException e) {
+            log.debug("无法解析 SQL 涉及的表: {}", sql, e);
+            tables = UNKNOWN_TABLES;
+        }
+        if (this.tablesCache.size() >= MAX_CACHED_SQL) {
+            this.tablesCache.clear();
+        }
+        this.tablesCache.put(sql, tables);
+        return tables;
+    }
+}
@@ -3,22 +3,24 @@ package com.jlee.data.configurer.type;
 import org.apache.ibatis.type.BaseTypeHandler;
 import org.apache.ibatis.type.JdbcType;
 import org.apache.ibatis.type.MappedJdbcTypes;
-import org.springframework.util.CollectionUtils;
+import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
 import java.sql.CallableStatement;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.Arrays;
 import java.util.Collections;
-import java.util.Objects;
+import java.util.HashSet;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * set 集合 与数据库 VARCHAR 类型互转抽象处理器(`,` 分隔)，根据 Set 集合中具体的类型去继承该方法，复写 String 转 对应类型 的方法
  * 虽然 json 序列化也能将集合序列化为字符串,但格式是 “[xxx,xxx,xxx]” 该 Handler 是让序列化后的字符串格式为 “,xxx,xxx,xxx,” 这样有利于 sql 中 like “,%xxx%,” 的匹配
+ * <p>
+ * 解析时按分隔符逐段扫描一遍字段 (分隔符按字面量匹配，不使用正则)，集合的容量按分隔符数量预先分配；
+ * 格式化时按元素长度预估容量，只使用一个 StringBuilder。元素类型为数字时可以覆盖 {@link #parseColumn(String)}、
+ * {@link #appendElement(StringBuilder, Object)} 直接解析、写出字符，见 {@link IntSetTypeHandler}
  *
  * @param <T> 集合中的元素类型
  */
@@ -38,6 +40,7 @@ public abstract class AbstractSetTypeHandler<T> extends BaseTypeHandler<Set<T>>
     }
 
     protected AbstractSetTypeHandler(String delimiter, String defaultValue) {
+        Assert.hasLength(delimiter, "delimiter must not be empty");
         this.delimiter = delimiter;
         this.defaultValue = defaultValue;
     }
@@ -53,8 +56,7 @@ public abstract class AbstractSetTypeHandler<T> extends BaseTypeHandler<Set<T>>
      */
     @Override
     public void setNonNullParameter(PreparedStatement preparedStatement, int i, Set<T> sets, JdbcType jdbcType) throws SQLException {
-        String value = CollectionUtils.isEmpty(sets) ? null : sets.stream().filter(Objects::nonNull).map(Object::toString).collect(Collectors.joining(this.delimiter));
-        preparedStatement.setString(i, !StringUtils.hasLength(value) ? this.defaultValue : String.format("%s%s%s", this.delimiter, value, this.delimiter));
+        preparedStatement.setString(i, this.format(sets));
     }
 
     /**
@@ -99,7 +101,133 @@ public abstract class AbstractSetTypeHandler<T> extends BaseTypeHandler<Set<T>>
      * @return Set 集合数据 至少会返回一个空集合,而不是 null
      */
     private Set<T> convert(String value) {
-        return StringUtils.hasLength(value) ? Arrays.stream(value.split(this.delimiter)).filter(StringUtils::hasLength).map(this::parse).filter(Objects::nonNull).collect(Collectors.toSet()) : Collections.emptySet();
+        return StringUtils.hasLength(value) ? this.parseColumn(value) : Collections.emptySet();
+    }
+
+    /**
+     * 解析非空的字段：跳过空的段，parse 返回 null 的元素不放入集合
+     *
+     * @param value 数据库中的字段，如 “,xxx,xxx,xxx,”
+     * @return Set 集合
+     */
+    protected Set<T> parseColumn(String value) {
+        final Set<T> set = new HashSet<>(hashCapacity(this.countDelimiters(value) + 1));
+        final int length = value.length();
+        int start = 0;
+        while (start < length) {
+            int end = this.indexOfDelimiter(value, start);
+            if (end < 0) {
+                end = length;
+            }
+            if (end > start) {
+                final T element = this.parse(value, start, end);
+                if (element != null) {
+                    set.add(element);
+                }
+            }
+            start = end + this.delimiter.length();
+        }
+        return set;
+    }
+
+    /**
+     * 将集合格式化为 “,xxx,xxx,xxx,”，集合为空或者所有元素都为空字符串时返回默认值
+     *
+     * @param sets 集合
+     * @return 存入数据库的字符串
+     */
+    protected String format(Set<T> sets) {
+        if (sets.isEmpty()) {
+            return this.defaultValue;
+        }
+        int capacity = this.delimiter.length();
+        for (T element : sets) {
+            if (element != null) {
+                capacity += this.estimateLength(element) + this.delimiter.length();
+            }
+        }
+        final StringBuilder builder = new StringBuilder(capacity).append(this.delimiter);
+        boolean hasContent = false;
+        for (T element : sets) {
+            if (element != null) {
+                final int before = builder.length();
+                this.appendElement(builder, element);
+                hasContent |= builder.length() > before;
+                builder.append(this.delimiter);
+            }
+        }
+        return hasContent ? builder.toString() : this.defaultValue;
+    }
+
+    /**
+     * 写出一个元素，默认为 toString
+     *
+     * @param builder 目标
+     * @param element 元素，不为 null
+     */
+    protected void appendElement(StringBuilder builder, T element) {
+        builder.append(element.toString());
+    }
+
+    /**
+     * 预估元素写出后的长度，用于预先分配 StringBuilder 的容量
+     *
+     * @param element 元素，不为 null
+     * @return 预估的长度
+     */
+    protected int estimateLength(T element) {
+        return element instanceof CharSequence ? ((CharSequence) element).length() : 16;
+    }
+
+    /**
+     * 解析字段中的一段，默认截取后调用 {@link #parse(String)}
+     *
+     * @param value 数据库中的字段
+     * @param start 开始位置 (包含)
+     * @param end   结束位置 (不包含)，大于 start
+     * @return java中对应类型的数据，为 null 时不放入集合
+     */
+    protected T parse(String value, int start, int end) {
+        return this.parse(value.substring(start, end));
+    }
+
+    /**
+     * 查找分隔符
+     *
+     * @param value 字段
+     * @param from  开始查找的位置
+     * @return 分隔符的位置，没有时返回 -1
+     */
+    protected final int indexOfDelimiter(String value, int from) {
+        return this.delimiter.length() == 1 ? value.indexOf(this.delimiter.charAt(0), from) : value.indexOf(this.delimiter, from);
+    }
+
+    /**
+     * 统计分隔符数量
+     *
+     * @param value 字段
+     * @return 分隔符数量
+     */
+    protected final int countDelimiters(String value) {
+        int count = 0;
+        int index = this.indexOfDelimiter(value, 0);
+        while (index >= 0) {
+            count++;
+            index = this.indexOfDelimiter(value, index + this.delimiter.length());
+        }
+        return count;
+    }
+
+    protected final String getDelimiter() {
+        return this.delimiter;
+    }
+
+    protected final String getDefaultValue() {
+        return this.defaultValue;
+    }
+
+    private static int hashCapacity(int expectedSize) {
+        return expectedSize < 3 ? expectedSize + 1 : (int) (expectedSize / 0.75F + 1.0F);
     }
 
 
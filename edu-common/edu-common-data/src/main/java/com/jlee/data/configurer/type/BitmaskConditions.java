@@ -0,0 +1,100 @@
+package com.jlee.data.configurer.type;
+
+import com.baomidou.mybatisplus.core.conditions.interfaces.Join;
+import org.springframework.util.Assert;
+
+import java.util.regex.Pattern;
+
+/**
+ * {@link EnumBitSetTypeHandler} 存储的 BIGINT 位掩码字段的查询条件
+ * <pre>
+ * long mask = roleSetTypeHandler.mask(EnumSet.of(Role.ADMIN, Role.TEACHER));
+ * userMapper.selectList(BitmaskConditions.containsAny(new QueryWrapper&lt;User&gt;(), "roles", mask));
+ * </pre>
+ * 掩码作为参数绑定，列名只允许是列名 (可以带表别名)；掩码不能包含符号位 (见 {@link EnumBitSetTypeHandler#MAX_BITS})
+ *
+ * @author jlee
+ */
+public final class BitmaskConditions {
+
+    private static final Pattern COLUMN_PATTERN = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*(\\.[A-Za-z_][A-Za-z0-9_]*)?");
+
+    private BitmaskConditions() {
+    }
+
+    /**
+     * 包含掩码中的任意一个：(column &amp; mask) &lt;&gt; 0
+     *
+     * @param wrapper 条件构造器
+     * @param column  列名
+     * @param mask    掩码
+     * @param <W>     条件构造器类型
+     * @return 条件构造器
+     */
+    public static <W extends Join<W>> W containsAny(W wrapper, String column, long mask) {
+        return wrapper.apply(containsAnySql(column), mask);
+    }
+
+    /**
+     * 包含掩码中的全部：(column &amp; mask) = mask
+     *
+     * @param wrapper 条件构造器
+     * @param column  列名
+     * @param mask    掩码
+     * @param <W>     条件构造器类型
+     * @return 条件构造器
+     */
+    public static <W extends Join<W>> W containsAll(W wrapper, String column, long mask) {
+        // MySQL 中按位与的结果是无符号数，与负数比较永远不相等
+        Assert.isTrue(mask >= 0L, () -> "掩码不能包含符号位: " + Long.toHexString(mask));
+        return wrapper.apply(containsAllSql(column), mask, mask);
+    }
+
+    /**
+     * 不包含掩码中的任何一个：(column &amp; mask) = 0
+     *
+     * @param wrapper 条件构造器
+     * @param column  列名
+     * @param mask    掩码
+     * @param <W>     条件构造器类型
+     * @return 条件构造器
+     */
+    public static <W extends Join<W>> W containsNone(W wrapper, String column, long mask) {
+        return wrapper.apply(containsNoneSql(column), mask);
+    }
+
+    /**
+     * 包含任意一个的条件模板 (用于 wrapper.apply)，{0} 为掩码
+     *
+     * @param column 列名
+     * @return 条件模板
+     */
+    public static String containsAnySql(String column) {
+        return "(" + checkColumn(column) + " & {0}) <> 0";
+    }
+
+    /**
+     * 包含全部的条件模板 (用于 wrapper.apply)，{0}、{1} 都为掩码
+     *
+     * @param column 列名
+     * @return 条件模板
+     */
+    public static String containsAllSql(String column) {
+        return "(" + checkColumn(column) + " & {0}) = {1}";
+    }
+
+    /**
+     * 不包含任何一个的条件模板 (用于 wrapper.apply)，{0} 为掩码
+     *
+     * @param column 列名
+     * @return 条件模板
+     */
+    public static String containsNoneSql(String column) {
+        return "(" + checkColumn(column) + " & {0}) = 0";
+    }
+
+    private static String checkColumn(String column) {
+        Assert.isTrue(column != null && COLUMN_PATTERN.matcher(column).matches(), () -> "不是合法的列名: " + column);
+        return column;
+    }
+}
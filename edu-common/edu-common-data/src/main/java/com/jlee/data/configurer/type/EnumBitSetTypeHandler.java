@@ -0,0 +1,141 @@
+package com.jlee.data.configurer.type;
+
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.MappedJdbcTypes;
+import org.springframework.util.Assert;
+
+import java.lang.reflect.Array;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * 枚举 Set 集合 与数据库 BIGINT 类型互转抽象处理器，每个枚举对象占一位 (默认为 ordinal 位)，最多 63 个枚举对象
+ * <p>
+ * 与 {@link AbstractSetTypeHandler} 的 “,xxx,xxx,” 字符串相比，查询时可以用位运算代替 like “,%xxx%,”
+ * (见 {@link BitmaskConditions})，字段只占 8 个字节，可以放入覆盖索引；读出的集合为 EnumSet。
+ * 每个枚举类型继承一个子类：
+ * <pre>
+ * public class RoleSetTypeHandler extends EnumBitSetTypeHandler&lt;Role&gt; {
+ *     public RoleSetTypeHandler() {
+ *         super(Role.class);
+ *     }
+ * }
+ * </pre>
+ * 默认按 ordinal 分配位，枚举对象只能在末尾追加，不能调整顺序或删除；需要固定位时覆盖 {@link #bitOf(Enum)}。
+ * 字段中没有对应枚举对象的位在读取时忽略。
+ * <p>
+ * 不使用符号位 (第 63 位)：MySQL 中 BIGINT 与参数的按位与结果是 BIGINT UNSIGNED，符号位为 1 时大于 Long.MAX_VALUE，
+ * 与作为负数绑定的掩码比较永远不相等，{@link BitmaskConditions#containsAll} 会查不到数据
+ *
+ * @param <E> 枚举类型
+ * @author jlee
+ */
+@MappedJdbcTypes({JdbcType.BIGINT})
+public abstract class EnumBitSetTypeHandler<E extends Enum<E>> extends BaseTypeHandler<Set<E>> {
+
+    /**
+     * 可以使用的位数，不使用符号位
+     */
+    public static final int MAX_BITS = Long.SIZE - 1;
+
+    private final Class<E> enumType;
+    /**
+     * 位 → 枚举对象
+     */
+    private final E[] constantsByBit;
+
+    @SuppressWarnings("unchecked")
+    protected EnumBitSetTypeHandler(Class<E> enumType) {
+        Assert.notNull(enumType, "enumType must not be null");
+        this.enumType = enumType;
+        this.constantsByBit = (E[]) Array.newInstance(enumType, Long.SIZE);
+        for (E constant : enumType.getEnumConstants()) {
+            final int bit = this.bitOf(constant);
+            Assert.isTrue(bit >= 0 && bit < MAX_BITS, () -> enumType.getName() + "." + constant.name() + " 的位必须在 0 ~ 62 之间: " + bit);
+            Assert.isNull(this.constantsByBit[bit], () -> enumType.getName() + "." + constant.name() + " 与 " + this.constantsByBit[bit].name() + " 的位相同: " + bit);
+            this.constantsByBit[bit] = constant;
+        }
+    }
+
+    /**
+     * 枚举对象对应的位，默认为 ordinal，子类覆盖时不能使用子类的实例字段 (构造器中调用)
+     *
+     * @param constant 枚举对象
+     * @return 位，0 ~ 62
+     */
+    protected int bitOf(E constant) {
+        return constant.ordinal();
+    }
+
+    /**
+     * 枚举集合对应的掩码，用于查询条件
+     *
+     * @param constants 枚举对象
+     * @return 掩码
+     */
+    public long mask(Collection<? extends E> constants) {
+        long mask = 0L;
+        for (E constant : constants) {
+            if (constant != null) {
+                mask |= 1L << this.bitOf(constant);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * 枚举对象对应的掩码，用于查询条件
+     *
+     * @param constant 枚举对象
+     * @return 掩码
+     */
+    public long mask(E constant) {
+        return 1L << this.bitOf(constant);
+    }
+
+    /**
+     * 掩码转为枚举集合，没有对应枚举对象的位被忽略
+     *
+     * @param mask 掩码
+     * @return EnumSet
+     */
+    public EnumSet<E> toSet(long mask) {
+        final EnumSet<E> set = EnumSet.noneOf(this.enumType);
+        long remaining = mask;
+        while (remaining != 0L) {
+            final E constant = this.constantsByBit[Long.numberOfTrailingZeros(remaining)];
+            if (constant != null) {
+                set.add(constant);
+            }
+            // 清除最低位的 1
+            remaining &= remaining - 1;
+        }
+        return set;
+    }
+
+    @Override
+    public void setNonNullParameter(PreparedStatement preparedStatement, int i, Set<E> set, JdbcType jdbcType) throws SQLException {
+        preparedStatement.setLong(i, this.mask(set));
+    }
+
+    @Override
+    public Set<E> getNullableResult(ResultSet resultSet, String s) throws SQLException {
+        return this.toSet(resultSet.getLong(s));
+    }
+
+    @Override
+    public Set<E> getNullableResult(ResultSet resultSet, int i) throws SQLException {
+        return this.toSet(resultSet.getLong(i));
+    }
+
+    @Override
+    public Set<E> getNullableResult(CallableStatement callableStatement, int i) throws SQLException {
+        return this.toSet(callableStatement.getLong(i));
+    }
+}
@@ -0,0 +1,193 @@
+package com.jlee.data.configurer.type;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 基于有序 int 数组的 Set，每个元素只占 4 个字节，不装箱
+ * <p>
+ * 适合标签、角色这类元素不多的集合：contains 为二分查找，add / remove 需要移动数组元素；按元素大小顺序遍历。
+ * 通过 {@link #contains(int)}、{@link #add(int)}、{@link #remove(int)} 等方法访问可以避免装箱
+ *
+ * @author jlee
+ */
+public class IntArraySet extends AbstractSet<Integer> {
+
+    private static final int[] EMPTY = new int[0];
+
+    private int[] elements;
+    private int size;
+    private int modCount;
+
+    public IntArraySet() {
+        this.elements = EMPTY;
+    }
+
+    public IntArraySet(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("initialCapacity 不能小于 0: " + initialCapacity);
+        }
+        this.elements = initialCapacity == 0 ? EMPTY : new int[initialCapacity];
+    }
+
+    private IntArraySet(int[] elements, int size) {
+        this.elements = elements;
+        this.size = size;
+    }
+
+    /**
+     * 由数组的前 length 个元素创建，数组会被排序、去重后直接使用，调用方之后不能再修改该数组
+     *
+     * @param values 元素，无序、可以重复
+     * @param length 元素数量
+     * @return IntArraySet
+     */
+    static IntArraySet wrap(int[] values, int length) {
+        Arrays.sort(values, 0, length);
+        int size = 0;
+        for (int i = 0; i < length; i++) {
+            if (size == 0 || values[size - 1] != values[i]) {
+                values[size++] = values[i];
+            }
+        }
+        return new IntArraySet(values, size);
+    }
+
+    public boolean contains(int value) {
+        return Arrays.binarySearch(this.elements, 0, this.size, value) >= 0;
+    }
+
+    public boolean add(int value) {
+        final int index = Arrays.binarySearch(this.elements, 0, this.size, value);
+        if (index >= 0) {
+            return false;
+        }
+        final int insertion = -index - 1;
+        if (this.size == this.elements.length) {
+            this.elements = Arrays.copyOf(this.elements, Math.max(4, this.size + (this.size >> 1)));
+        }
+        System.arraycopy(this.elements, insertion, this.elements, insertion + 1, this.size - insertion);
+        this.elements[insertion] = value;
+        this.size++;
+        this.modCount++;
+        return true;
+    }
+
+    public boolean remove(int value) {
+        final int index = Arrays.binarySearch(this.elements, 0, this.size, value);
+        if (index < 0) {
+            return false;
+        }
+        removeAt(index);
+        return true;
+    }
+
+    /**
+     * 获取第 index 小的元素
+     *
+     * @param index 序号
+     * @return 元素
+     */
+    public int getInt(int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + this.size);
+        }
+        return this.elements[index];
+    }
+
+    /**
+     * 转为有序的 int 数组
+     *
+     * @return 新的数组
+     */
+    public int[] toIntArray() {
+        return Arrays.copyOf(this.elements, this.size);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Integer && contains(((Integer) o).intValue());
+    }
+
+    @Override
+    public boolean add(Integer value) {
+        return add(value.intValue());
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return o instanceof Integer && remove(((Integer) o).intValue());
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public void clear() {
+        this.size = 0;
+        this.modCount++;
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return new Iterator<Integer>() {
+            private int cursor;
+            private int last = -1;
+            private int expectedModCount = IntArraySet.this.modCount;
+
+            @Override
+            public boolean hasNext() {
+                return this.cursor < IntArraySet.this.size;
+            }
+
+            @Override
+            public Integer next() {
+                checkForComodification();
+                if (this.cursor >= IntArraySet.this.size) {
+                    throw new NoSuchElementException();
+                }
+                this.last = this.cursor++;
+                return IntArraySet.this.elements[this.last];
+            }
+
+            @Override
+            public void remove() {
+                if (this.last < 0) {
+                    throw new IllegalStateException();
+                }
+                checkForComodification();
+                removeAt(this.last);
+                this.cursor = this.last;
+                this.last = -1;
+                this.expectedModCount = IntArraySet.this.modCount;
+            }
+
+            private void checkForComodification() {
+                if (this.expectedModCount != IntArraySet.this.modCount) {
+                    throw new ConcurrentModificationException();
+                }
+            }
+        };
+    }
+
+    @Override
+    public int hashCode() {
+        // 与 AbstractSet 相同：元素 hashCode 之和，Integer.hashCode 即为其值
+        int hash = 0;
+        for (int i = 0; i < this.size; i++) {
+            hash += this.elements[i];
+        }
+        return hash;
+    }
+
+    private void removeAt(int index) {
+        System.arraycopy(this.elements, index + 1, this.elements, index, this.size - index - 1);
+        this.size--;
+        this.modCount++;
+    }
+}
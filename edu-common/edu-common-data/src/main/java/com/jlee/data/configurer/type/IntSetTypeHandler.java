@@ -0,0 +1,94 @@
+package com.jlee.data.configurer.type;
+
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.MappedJdbcTypes;
+
+import java.util.Set;
+
+/**
+ * 包含 Integer 的 Set 集合 与数据库 VARCHAR 类型互转处理(默认以 `,` 分隔)
+ * <p>
+ * 查询结果为 {@link IntArraySet}，直接从字段的字符中解析数字，不截取子串、不装箱
+ *
+ * @author jlee
+ */
+@MappedJdbcTypes({JdbcType.VARCHAR})
+public class IntSetTypeHandler extends AbstractSetTypeHandler<Integer> {
+
+    /**
+     * int 最多 11 个字符 (含负号)
+     */
+    private static final int MAX_LENGTH = 11;
+
+    public IntSetTypeHandler() {
+    }
+
+    public IntSetTypeHandler(String delimiter, String defaultValue) {
+        super(delimiter, defaultValue);
+    }
+
+    @Override
+    protected Set<Integer> parseColumn(String value) {
+        final int[] buffer = new int[this.countDelimiters(value) + 1];
+        final int length = value.length();
+        int size = 0;
+        int start = 0;
+        while (start < length) {
+            int end = this.indexOfDelimiter(value, start);
+            if (end < 0) {
+                end = length;
+            }
+            if (end > start) {
+                buffer[size++] = parseInt(value, start, end);
+            }
+            start = end + this.getDelimiter().length();
+        }
+        return IntArraySet.wrap(buffer, size);
+    }
+
+    @Override
+    protected String format(Set<Integer> sets) {
+        if (!(sets instanceof IntArraySet)) {
+            return super.format(sets);
+        }
+        final IntArraySet ints = (IntArraySet) sets;
+        if (ints.isEmpty()) {
+            return this.getDefaultValue();
+        }
+        final String delimiter = this.getDelimiter();
+        final StringBuilder builder = new StringBuilder(delimiter.length() + ints.size() * (MAX_LENGTH + delimiter.length()))
+                .append(delimiter);
+        for (int i = 0; i < ints.size(); i++) {
+            builder.append(ints.getInt(i)).append(delimiter);
+        }
+        return builder.toString();
+    }
+
+    @Override
+    protected void appendElement(StringBuilder builder, Integer element) {
+        builder.append(element.intValue());
+    }
+
+    @Override
+    protected int estimateLength(Integer element) {
+        return MAX_LENGTH;
+    }
+
+    @Override
+    protected Integer parse(String value, int start, int end) {
+        return parseInt(value, start, end);
+    }
+
+    @Override
+    protected Integer parse(String value) {
+        return Integer.parseInt(value);
+    }
+
+    private static int parseInt(String value, int start, int end) {
+        final long result = LongSetTypeHandler.parseLong(value, start, end);
+        if (result < Integer.MIN_VALUE || result > Integer.MAX_VALUE) {
+            throw new NumberFormatException("For input string: \"" + value.substring(start, end) + "\"");
+        }
+        return (int) result;
+    }
+}
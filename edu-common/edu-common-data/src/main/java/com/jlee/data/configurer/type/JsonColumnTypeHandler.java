@@ -0,0 +1,63 @@
+package com.jlee.data.configurer.type;
+
+import com.baomidou.mybatisplus.extension.handlers.JacksonTypeHandler;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.jlee.config.ObjectMapperRegistry;
+import org.springframework.util.Assert;
+
+/**
+ * JSON 字段处理器，与 JacksonTypeHandler 相同，但使用 {@link ObjectMapperRegistry} 中按类型共享的 ObjectReader、ObjectWriter
+ * (用途为 {@link ObjectMapperRegistry.Purpose#JSON_COLUMN})，不再每次读写都重新查找根序列化器、反序列化器
+ * <p>
+ * 用法：@TableField(typeHandler = JsonColumnTypeHandler.class)，实体类上需要 @TableName(autoResultMap = true)；
+ * 写出时按值的实际类型获取 ObjectWriter，与 writeValueAsString 的结果相同。还没有设置 ObjectMapperRegistry 时 (Spring 容器外) 与 JacksonTypeHandler 相同
+ *
+ * @author jlee
+ */
+public class JsonColumnTypeHandler extends JacksonTypeHandler {
+
+    private static volatile ObjectMapperRegistry objectMapperRegistry;
+
+    private final Class<?> type;
+
+    public JsonColumnTypeHandler(Class<?> type) {
+        super(type);
+        this.type = type;
+    }
+
+    /**
+     * 设置提供 ObjectReader、ObjectWriter 的 ObjectMapperRegistry，由 MybatisPlusConfigurer 设置
+     *
+     * @param objectMapperRegistry ObjectMapperRegistry
+     */
+    public static void setObjectMapperRegistry(ObjectMapperRegistry objectMapperRegistry) {
+        Assert.notNull(objectMapperRegistry, "objectMapperRegistry must not be null");
+        JsonColumnTypeHandler.objectMapperRegistry = objectMapperRegistry;
+    }
+
+    @Override
+    protected Object parse(String json) {
+        final ObjectMapperRegistry registry = objectMapperRegistry;
+        if (registry == null) {
+            return super.parse(json);
+        }
+        try {
+            return registry.readerFor(ObjectMapperRegistry.Purpose.JSON_COLUMN, this.type).readValue(json);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    protected String toJson(Object obj) {
+        final ObjectMapperRegistry registry = objectMapperRegistry;
+        if (registry == null) {
+            return super.toJson(obj);
+        }
+        try {
+            return registry.writerFor(ObjectMapperRegistry.Purpose.JSON_COLUMN, obj.getClass()).writeValueAsString(obj);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
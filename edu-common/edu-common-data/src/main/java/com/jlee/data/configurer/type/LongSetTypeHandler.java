@@ -0,0 +1,133 @@
+package com.jlee.data.configurer.type;
+
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.MappedJdbcTypes;
+
+import java.util.Set;
+
+/**
+ * 包含 Long 的 Set 集合 与数据库 VARCHAR 类型互转处理(默认以 `,` 分隔)
+ * <p>
+ * 查询结果为 {@link LongArraySet}，直接从字段的字符中解析数字，不截取子串、不装箱
+ *
+ * @author jlee
+ */
+@MappedJdbcTypes({JdbcType.VARCHAR})
+public class LongSetTypeHandler extends AbstractSetTypeHandler<Long> {
+
+    /**
+     * long 最多 20 个字符 (含负号)
+     */
+    private static final int MAX_LENGTH = 20;
+
+    public LongSetTypeHandler() {
+    }
+
+    public LongSetTypeHandler(String delimiter, String defaultValue) {
+        super(delimiter, defaultValue);
+    }
+
+    @Override
+    protected Set<Long> parseColumn(String value) {
+        final long[] buffer = new long[this.countDelimiters(value) + 1];
+        final int length = value.length();
+        int size = 0;
+        int start = 0;
+        while (start < length) {
+            int end = this.indexOfDelimiter(value, start);
+            if (end < 0) {
+                end = length;
+            }
+            if (end > start) {
+                buffer[size++] = parseLong(value, start, end);
+            }
+            start = end + this.getDelimiter().length();
+        }
+        return LongArraySet.wrap(buffer, size);
+    }
+
+    @Override
+    protected String format(Set<Long> sets) {
+        if (!(sets instanceof LongArraySet)) {
+            return super.format(sets);
+        }
+        final LongArraySet longs = (LongArraySet) sets;
+        if (longs.isEmpty()) {
+            return this.getDefaultValue();
+        }
+        final String delimiter = this.getDelimiter();
+        final StringBuilder builder = new StringBuilder(delimiter.length() + longs.size() * (MAX_LENGTH + delimiter.length()))
+                .append(delimiter);
+        for (int i = 0; i < longs.size(); i++) {
+            builder.append(longs.getLong(i)).append(delimiter);
+        }
+        return builder.toString();
+    }
+
+    @Override
+    protected void appendElement(StringBuilder builder, Long element) {
+        builder.append(element.longValue());
+    }
+
+    @Override
+    protected int estimateLength(Long element) {
+        return MAX_LENGTH;
+    }
+
+    @Override
+    protected Long parse(String value, int start, int end) {
+        return parseLong(value, start, end);
+    }
+
+    @Override
+    protected Long parse(String value) {
+        return Long.parseLong(value);
+    }
+
+    /**
+     * 解析十进制整数，与 Long.parseLong(value.substring(start, end)) 相同，但不截取子串
+     *
+     * @param value 字符串
+     * @param start 开始位置 (包含)
+     * @param end   结束位置 (不包含)
+     * @return 数字
+     * @throws NumberFormatException 不是合法的数字或者超出 long 的范围
+     */
+    static long parseLong(String value, int start, int end) {
+        if (start >= end) {
+            throw numberFormatException(value, start, end);
+        }
+        int i = start;
+        boolean negative = false;
+        long limit = -Long.MAX_VALUE;
+        final char first = value.charAt(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            if (negative) {
+                limit = Long.MIN_VALUE;
+            }
+            if (++i == end) {
+                throw numberFormatException(value, start, end);
+            }
+        }
+        // 与 Long.parseLong 相同，按负数累加以便表示 Long.MIN_VALUE
+        final long multiplyLimit = limit / 10;
+        long result = 0;
+        for (; i < end; i++) {
+            final int digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || result < multiplyLimit) {
+                throw numberFormatException(value, start, end);
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                throw numberFormatException(value, start, end);
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    private static NumberFormatException numberFormatException(String value, int start, int end) {
+        return new NumberFormatException("For input string: \"" + value.substring(start, end) + "\"");
+    }
+}
@@ -0,0 +1,65 @@
+package com.jlee.data.metrics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 按 MappedStatement id 保存的 SQL 执行统计
+ * <p>
+ * 查找统计只有一次 ConcurrentHashMap.get，第一次执行某个语句时才创建统计并通知监听器 (如注册 Micrometer 指标)
+ *
+ * @author jlee
+ */
+public class SqlMetrics {
+
+    private final ConcurrentMap<String, SqlStatementStats> statements = new ConcurrentHashMap<>();
+    private final List<Consumer<SqlStatementStats>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * 获取语句的统计，不存在时创建
+     *
+     * @param statementId MappedStatement id
+     * @return 统计
+     */
+    public SqlStatementStats statement(String statementId) {
+        final SqlStatementStats stats = this.statements.get(statementId);
+        return stats != null ? stats : this.create(statementId);
+    }
+
+    /**
+     * 所有语句的统计
+     *
+     * @return 统计
+     */
+    public Collection<SqlStatementStats> statements() {
+        return Collections.unmodifiableCollection(new ArrayList<>(this.statements.values()));
+    }
+
+    /**
+     * 添加新语句的监听器，已经存在的语句也会通知一次
+     *
+     * @param listener 监听器
+     */
+    public synchronized void addListener(Consumer<SqlStatementStats> listener) {
+        this.listeners.add(listener);
+        this.statements.values().forEach(listener);
+    }
+
+    private synchronized SqlStatementStats create(String statementId) {
+        SqlStatementStats stats = this.statements.get(statementId);
+        if (stats == null) {
+            stats = new SqlStatementStats(statementId);
+            this.statements.put(statementId, stats);
+            for (Consumer<SqlStatementStats> listener : this.listeners) {
+                listener.accept(stats);
+            }
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,73 @@
+package com.jlee.data.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 将 {@link SqlMetrics} 注册为 Micrometer 指标，标签 statement 为 MappedStatement id：
+ * <ul>
+ *     <li>mybatis.statement：执行次数和总耗时 (FunctionTimer)</li>
+ *     <li>mybatis.statement.max：最大耗时</li>
+ *     <li>mybatis.statement.rows / mybatis.statement.affected.rows：返回行数 / 影响行数</li>
+ *     <li>mybatis.statement.latency：耗时不超过 le 秒的累计次数，可以用 Prometheus 的 histogram_quantile 计算百分位</li>
+ * </ul>
+ * 指标的值在采集时从 LongAdder 汇总，执行 SQL 时不经过 Micrometer
+ *
+ * @author jlee
+ */
+public class SqlMetricsMeterBinder implements MeterBinder {
+
+    /**
+     * 导出的耗时分布上界对应的桶：128µs、512µs、1ms、4ms、16ms、65ms、262ms、1s、4s、17s
+     */
+    private static final int[] EXPORTED_BUCKETS = {7, 9, 10, 12, 14, 16, 18, 20, 22, 24};
+
+    private final SqlMetrics sqlMetrics;
+
+    public SqlMetricsMeterBinder(SqlMetrics sqlMetrics) {
+        this.sqlMetrics = sqlMetrics;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.sqlMetrics.addListener(stats -> register(registry, stats));
+    }
+
+    private static void register(MeterRegistry registry, SqlStatementStats stats) {
+        final Tags tags = Tags.of("statement", stats.getStatementId());
+        FunctionTimer.builder("mybatis.statement", stats, SqlStatementStats::getCount, SqlStatementStats::getTotalNanos, TimeUnit.NANOSECONDS)
+                .tags(tags)
+                .description("MyBatis 语句的执行次数和耗时")
+                .register(registry);
+        TimeGauge.builder("mybatis.statement.max", stats, TimeUnit.NANOSECONDS, SqlStatementStats::getMaxNanos)
+                .tags(tags)
+                .description("MyBatis 语句的最大耗时")
+                .register(registry);
+        FunctionCounter.builder("mybatis.statement.rows", stats, SqlStatementStats::getRows)
+                .tags(tags)
+                .description("MyBatis 查询返回的行数")
+                .register(registry);
+        FunctionCounter.builder("mybatis.statement.affected.rows", stats, SqlStatementStats::getAffectedRows)
+                .tags(tags)
+                .description("MyBatis 写操作影响的行数")
+                .register(registry);
+        for (int bucket : EXPORTED_BUCKETS) {
+            final long upperBoundNanos = SqlStatementStats.bucketUpperBoundNanos(bucket);
+            FunctionCounter.builder("mybatis.statement.latency", stats, s -> s.getCountBelow(upperBoundNanos))
+                    .tags(tags.and("le", BigDecimal.valueOf(upperBoundNanos, 9).stripTrailingZeros().toPlainString()))
+                    .description("MyBatis 语句耗时不超过 le 秒的累计次数")
+                    .register(registry);
+        }
+        FunctionCounter.builder("mybatis.statement.latency", stats, SqlStatementStats::getCount)
+                .tags(tags.and("le", "+Inf"))
+                .description("MyBatis 语句耗时不超过 le 秒的累计次数")
+                .register(registry);
+    }
+}
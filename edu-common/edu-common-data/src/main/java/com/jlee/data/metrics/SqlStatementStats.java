@@ -0,0 +1,165 @@
+package com.jlee.data.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 一个 MappedStatement 的执行统计：次数、耗时、耗时分布、返回行数、影响行数
+ * <p>
+ * 耗时分布按 2 的幂次微秒分桶 (第 i 个桶为 [2^(i-1), 2^i) 微秒)，每个桶是一个 LongAdder，
+ * 记录时只对对应的桶和计数器做一次无锁的累加，并发执行时各线程写入不同的 Cell，不会互相竞争
+ *
+ * @author jlee
+ */
+public final class SqlStatementStats {
+
+    /**
+     * 桶的数量，最后一个桶包含所有超过 2^30 微秒 (约 18 分钟) 的执行
+     */
+    public static final int BUCKET_COUNT = 32;
+
+    private final String statementId;
+    private final LongAdder[] buckets = new LongAdder[BUCKET_COUNT];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder affectedRows = new LongAdder();
+
+    SqlStatementStats(String statementId) {
+        this.statementId = statementId;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            this.buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * 记录一次执行
+     *
+     * @param nanos        耗时
+     * @param rows         返回的行数，不是查询或者未知时为 -1
+     * @param affectedRows 影响的行数，不是写操作或者未知时为 -1
+     */
+    public void record(long nanos, long rows, long affectedRows) {
+        this.count.increment();
+        this.totalNanos.add(nanos);
+        this.maxNanos.accumulate(nanos);
+        this.buckets[bucketIndex(nanos)].increment();
+        if (rows > 0) {
+            this.rows.add(rows);
+        }
+        if (affectedRows > 0) {
+            this.affectedRows.add(affectedRows);
+        }
+    }
+
+    /**
+     * 耗时所在的桶
+     *
+     * @param nanos 耗时
+     * @return 桶的序号
+     */
+    public static int bucketIndex(long nanos) {
+        final long micros = nanos / 1_000L;
+        if (micros <= 0L) {
+            return 0;
+        }
+        return Math.min(BUCKET_COUNT - 1, Long.SIZE - Long.numberOfLeadingZeros(micros));
+    }
+
+    /**
+     * 桶的上界 (不包含)
+     *
+     * @param index 桶的序号
+     * @return 纳秒，最后一个桶为 Long.MAX_VALUE
+     */
+    public static long bucketUpperBoundNanos(int index) {
+        return index >= BUCKET_COUNT - 1 ? Long.MAX_VALUE : TimeUnit.MICROSECONDS.toNanos(1L << index);
+    }
+
+    public String getStatementId() {
+        return this.statementId;
+    }
+
+    public long getCount() {
+        return this.count.sum();
+    }
+
+    public long getTotalNanos() {
+        return this.totalNanos.sum();
+    }
+
+    public long getMaxNanos() {
+        return this.maxNanos.get();
+    }
+
+    public long getRows() {
+        return this.rows.sum();
+    }
+
+    public long getAffectedRows() {
+        return this.affectedRows.sum();
+    }
+
+    /**
+     * 每个桶的执行次数 (快照)
+     *
+     * @return 次数
+     */
+    public long[] getBucketCounts() {
+        final long[] counts = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = this.buckets[i].sum();
+        }
+        return counts;
+    }
+
+    /**
+     * 耗时不超过 upperBoundNanos 的执行次数，上界按桶向下取整
+     *
+     * @param upperBoundNanos 上界
+     * @return 次数
+     */
+    public long getCountBelow(long upperBoundNanos) {
+        long sum = 0L;
+        for (int i = 0; i < BUCKET_COUNT && bucketUpperBoundNanos(i) <= upperBoundNanos; i++) {
+            sum += this.buckets[i].sum();
+        }
+        return sum;
+    }
+
+    /**
+     * 按桶估算的百分位耗时 (返回所在桶的上界)
+     *
+     * @param percentile 百分位，0 ~ 1
+     * @return 纳秒，没有执行时返回 0
+     */
+    public long getPercentileNanos(double percentile) {
+        final long[] counts = this.getBucketCounts();
+        long total = 0L;
+        for (long c : counts) {
+            total += c;
+        }
+        if (total == 0L) {
+            return 0L;
+        }
+        final long rank = (long) Math.ceil(percentile * total);
+        long seen = 0L;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(bucketUpperBoundNanos(i), this.getMaxNanos());
+            }
+        }
+        return this.getMaxNanos();
+    }
+
+    @Override
+    public String toString() {
+        return "SqlStatementStats(statementId=" + this.statementId + ", count=" + this.getCount()
+                + ", totalMillis=" + TimeUnit.NANOSECONDS.toMillis(this.getTotalNanos())
+                + ", maxMillis=" + TimeUnit.NANOSECONDS.toMillis(this.getMaxNanos())
+                + ", rows=" + this.getRows() + ", affectedRows=" + this.getAffectedRows() + ")";
+    }
+}
@@ -0,0 +1,206 @@
+package com.jlee.data.page;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 分页总数 (COUNT) 的缓存，键为 规范化的 SQL + 参数值
+ * <p>
+ * 每张表有一个版本号，表有新增或修改时 {@link #invalidate(String)} 将版本号加一；缓存项记录查询前涉及的表的版本号，
+ * 读取时版本号变化或者超过有效期都视为失效。失效不需要遍历缓存项，写操作的开销是固定的
+ *
+ * @author jlee
+ */
+public class CountCache {
+
+    private final long ttlNanos;
+    private final int maximumSize;
+    private final ConcurrentMap<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AtomicLong> tableVersions = new ConcurrentHashMap<>();
+
+    public CountCache() {
+        this(Duration.ofMinutes(1), 10_000);
+    }
+
+    /**
+     * @param ttl         缓存有效期
+     * @param maximumSize 最多缓存的条数，超过时先清理过期的缓存项，仍然超过则全部清空
+     */
+    public CountCache(Duration ttl, int maximumSize) {
+        Assert.isTrue(!ttl.isNegative() && !ttl.isZero(), "ttl 必须大于 0");
+        Assert.isTrue(maximumSize > 0, "maximumSize 必须大于 0");
+        this.ttlNanos = ttl.toNanos();
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * 规范化 SQL：连续的空白字符合并为一个空格，去掉首尾空白
+     *
+     * @param sql SQL
+     * @return 规范化的 SQL
+     */
+    public static String normalize(String sql) {
+        final StringBuilder builder = new StringBuilder(sql.length());
+        boolean whitespace = false;
+        for (int i = 0; i < sql.length(); i++) {
+            final char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                whitespace = builder.length() > 0;
+            } else {
+                if (whitespace) {
+                    builder.append(' ');
+                    whitespace = false;
+                }
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 获取缓存的总数
+     *
+     * @param sql    规范化的 SQL
+     * @param params 参数值
+     * @return 总数，没有缓存或已失效时返回 null
+     */
+    @Nullable
+    public Long get(String sql, List<Object> params) {
+        final Key key = new Key(sql, params);
+        final Entry entry = this.entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.createdAt > this.ttlNanos || !Arrays.equals(entry.versions, versions(entry.tables))) {
+            this.entries.remove(key, entry);
+            return null;
+        }
+        return entry.total;
+    }
+
+    /**
+     * 获取表当前的版本号，在执行 COUNT 查询之前调用，再传给 {@link #put}，查询期间表有修改时缓存项直接失效
+     *
+     * @param tables 表名
+     * @return 版本号
+     */
+    public long[] versions(String[] tables) {
+        final long[] versions = new long[tables.length];
+        for (int i = 0; i < tables.length; i++) {
+            versions[i] = tableVersion(tables[i]).get();
+        }
+        return versions;
+    }
+
+    /**
+     * 缓存总数
+     *
+     * @param sql      规范化的 SQL
+     * @param params   参数值
+     * @param tables   SQL 涉及的表名
+     * @param versions 查询前 {@link #versions(String[])} 得到的版本号
+     * @param total    总数
+     */
+    public void put(String sql, List<Object> params, String[] tables, long[] versions, long total) {
+        if (this.entries.size() >= this.maximumSize) {
+            evict();
+        }
+        this.entries.put(new Key(sql, params), new Entry(tables, versions, total, System.nanoTime()));
+    }
+
+    /**
+     * 表有新增或修改，使涉及该表的缓存失效
+     *
+     * @param table 表名
+     */
+    public void invalidate(String table) {
+        tableVersion(normalizeTable(table)).incrementAndGet();
+    }
+
+    /**
+     * 使多张表的缓存失效
+     *
+     * @param tables 表名
+     */
+    public void invalidate(Collection<String> tables) {
+        tables.forEach(this::invalidate);
+    }
+
+    /**
+     * 规范化表名：去掉库名和引号，转为小写
+     *
+     * @param table 表名
+     * @return 规范化的表名
+     */
+    public static String normalizeTable(String table) {
+        final String name = table.substring(table.lastIndexOf('.') + 1);
+        final StringBuilder builder = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            final char c = name.charAt(i);
+            if (c != '`' && c != '"' && c != '[' && c != ']') {
+                builder.append(c);
+            }
+        }
+        return builder.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private AtomicLong tableVersion(String table) {
+        return this.tableVersions.computeIfAbsent(table, t -> new AtomicLong());
+    }
+
+    private void evict() {
+        final long now = System.nanoTime();
+        this.entries.entrySet().removeIf(e -> now - e.getValue().createdAt > this.ttlNanos);
+        if (this.entries.size() >= this.maximumSize) {
+            this.entries.clear();
+        }
+    }
+
+    private static final class Key {
+        private final String sql;
+        private final List<Object> params;
+        private final int hash;
+
+        private Key(String sql, List<Object> params) {
+            this.sql = sql;
+            this.params = params;
+            this.hash = 31 * sql.hashCode() + params.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key that = (Key) o;
+            return this.hash == that.hash && this.sql.equals(that.sql) && this.params.equals(that.params);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+
+    private static final class Entry {
+        private final String[] tables;
+        private final long[] versions;
+        private final long total;
+        private final long createdAt;
+
+        private Entry(String[] tables, long[] versions, long total, long createdAt) {
+            this.tables = tables;
+            this.versions = versions;
+            this.total = total;
+            this.createdAt = createdAt;
+        }
+    }
+}
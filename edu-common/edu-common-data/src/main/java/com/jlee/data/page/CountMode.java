@@ -0,0 +1,28 @@
+package com.jlee.data.page;
+
+/**
+ * 分页查询总数 (COUNT) 的方式
+ *
+ * @author jlee
+ */
+public enum CountMode {
+    /**
+     * 每次执行 COUNT 查询，得到精确的总数
+     */
+    EXACT,
+    /**
+     * 不查询总数，只执行数据查询，总数为 0
+     */
+    SKIP,
+    /**
+     * 使用 MySQL 执行计划 (EXPLAIN) 中基于表统计信息估算的行数作为总数，不扫描数据，结果是近似值
+     */
+    APPROXIMATE,
+    /**
+     * 按 规范化的 SQL + 参数 缓存 COUNT 的结果，在有效期内直接使用缓存；
+     * 涉及的表有经过 MyBatis 执行的 INSERT、UPDATE、DELETE (由 CountCacheInvalidationInnerInterceptor 通知) 时缓存失效。
+     * 以下写操作不会使缓存失效，只能等待有效期结束：不经过 MyBatis 的写入 (JdbcTemplate、其他服务或者直接修改数据库)、
+     * 其他实例上的写入 (缓存只在当前实例中)、无法解析出表名并且 Mapper 没有对应实体的语句。使用缓存时总数可能不是最新的
+     */
+    CACHED
+}
@@ -0,0 +1,100 @@
+package com.jlee.data.page;
+
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.jlee.data.configurer.CountStrategyPaginationInnerInterceptor;
+import org.springframework.lang.Nullable;
+
+/**
+ * 可以指定总数查询方式的分页参数，由 {@link CountStrategyPaginationInnerInterceptor} 处理
+ * <p>
+ * 查询之后通过 {@link #isTotalApproximate()}、{@link #isTotalStale()}、{@link #isTotalSkipped()} 判断总数是怎样得到的：
+ * <pre>
+ * CountPage&lt;Course&gt; page = courseMapper.selectPage(CountPage.of(current, size, CountMode.CACHED), wrapper);
+ * return PageResult.of(page.getRecords(), page.isTotalSkipped() ? null : page.getTotal(),
+ *         page.isTotalApproximate(), page.isTotalStale());
+ * </pre>
+ *
+ * @param <T> 行的类型
+ * @author jlee
+ */
+public class CountPage<T> extends Page<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    @Nullable
+    private CountMode countMode;
+    private boolean totalApproximate;
+    private boolean totalStale;
+    private boolean totalSkipped;
+
+    public CountPage() {
+    }
+
+    public CountPage(long current, long size, @Nullable CountMode countMode) {
+        super(current, size);
+        this.countMode = countMode;
+    }
+
+    /**
+     * 创建分页参数
+     *
+     * @param current   当前页
+     * @param size      每页数量
+     * @param countMode 总数查询方式，为 null 时使用插件的默认方式
+     * @param <T>       行的类型
+     * @return CountPage
+     */
+    public static <T> CountPage<T> of(long current, long size, @Nullable CountMode countMode) {
+        return new CountPage<>(current, size, countMode);
+    }
+
+    @Nullable
+    public CountMode getCountMode() {
+        return this.countMode;
+    }
+
+    public CountPage<T> setCountMode(@Nullable CountMode countMode) {
+        this.countMode = countMode;
+        return this;
+    }
+
+    /**
+     * 总数是否是估算的近似值
+     *
+     * @return true 为近似值
+     */
+    public boolean isTotalApproximate() {
+        return this.totalApproximate;
+    }
+
+    /**
+     * 总数是否来自缓存，可能不是最新的
+     *
+     * @return true 为缓存中的总数
+     */
+    public boolean isTotalStale() {
+        return this.totalStale;
+    }
+
+    /**
+     * 是否没有查询总数
+     *
+     * @return true 为没有查询总数
+     */
+    public boolean isTotalSkipped() {
+        return this.totalSkipped;
+    }
+
+    /**
+     * 记录总数是怎样得到的，由分页插件调用
+     *
+     * @param approximate 是否为近似值
+     * @param stale       是否来自缓存
+     * @param skipped     是否没有查询总数
+     */
+    public void markTotal(boolean approximate, boolean stale, boolean skipped) {
+        this.totalApproximate = approximate;
+        this.totalStale = stale;
+        this.totalSkipped = skipped;
+    }
+}
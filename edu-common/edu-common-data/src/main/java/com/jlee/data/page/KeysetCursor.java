@@ -0,0 +1,147 @@
+package com.jlee.data.page;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * 游标 (keyset) 分页的游标编解码，游标中保存上一页最后一行的排序字段值和主键值
+ * <p>
+ * 游标对调用方是不透明的字符串 (URL 安全的 Base64)，内部格式为 "版本号 + 每个值的 类型标记、长度:值"，解码时还原成原来的类型以便按类型绑定 SQL 参数
+ *
+ * @author jlee
+ */
+public final class KeysetCursor {
+
+    private static final char VERSION = '1';
+
+    private static final char LONG = 'l';
+    private static final char DECIMAL = 'd';
+    private static final char STRING = 's';
+    private static final char LOCAL_DATE_TIME = 't';
+    private static final char LOCAL_DATE = 'D';
+    private static final char DATE = 'u';
+
+    private final Object sortValue;
+    private final Object idValue;
+
+    private KeysetCursor(Object sortValue, Object idValue) {
+        this.sortValue = sortValue;
+        this.idValue = idValue;
+    }
+
+    /**
+     * 编码游标
+     *
+     * @param sortValue 排序字段值
+     * @param idValue   主键值
+     * @return 游标字符串
+     */
+    public static String encode(Object sortValue, Object idValue) {
+        final StringBuilder builder = new StringBuilder(48).append(VERSION);
+        appendValue(builder, sortValue);
+        appendValue(builder, idValue);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(builder.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解码游标
+     *
+     * @param cursor 游标字符串
+     * @return 游标
+     * @throws IllegalArgumentException 游标格式不正确
+     */
+    public static KeysetCursor decode(String cursor) {
+        final String text;
+        try {
+            text = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("分页游标格式不正确: " + cursor, e);
+        }
+        if (text.isEmpty() || text.charAt(0) != VERSION) {
+            throw new IllegalArgumentException("分页游标格式不正确: " + cursor);
+        }
+        final int[] position = {1};
+        final Object sortValue = readValue(text, position, cursor);
+        final Object idValue = readValue(text, position, cursor);
+        if (position[0] != text.length()) {
+            throw new IllegalArgumentException("分页游标格式不正确: " + cursor);
+        }
+        return new KeysetCursor(sortValue, idValue);
+    }
+
+    public Object getSortValue() {
+        return this.sortValue;
+    }
+
+    public Object getIdValue() {
+        return this.idValue;
+    }
+
+    private static void appendValue(StringBuilder builder, Object value) {
+        final char type;
+        final String text;
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            type = LONG;
+            text = Long.toString(((Number) value).longValue());
+        } else if (value instanceof Number) {
+            type = DECIMAL;
+            text = value instanceof BigDecimal ? ((BigDecimal) value).toPlainString() : new BigDecimal(value.toString()).toPlainString();
+        } else if (value instanceof LocalDateTime) {
+            type = LOCAL_DATE_TIME;
+            text = value.toString();
+        } else if (value instanceof LocalDate) {
+            type = LOCAL_DATE;
+            text = value.toString();
+        } else if (value instanceof Date) {
+            type = DATE;
+            text = Long.toString(((Date) value).getTime());
+        } else if (value instanceof CharSequence || value instanceof Enum) {
+            type = STRING;
+            text = value instanceof Enum ? ((Enum<?>) value).name() : value.toString();
+        } else {
+            throw new IllegalArgumentException("游标分页的排序字段和主键不支持 " + (value == null ? "null" : value.getClass().getName()));
+        }
+        builder.append(type).append(text.length()).append(':').append(text);
+    }
+
+    private static Object readValue(String text, int[] position, String cursor) {
+        final Object value;
+        try {
+            final char type = text.charAt(position[0]);
+            final int colon = text.indexOf(':', position[0] + 1);
+            final int length = Integer.parseInt(text.substring(position[0] + 1, colon));
+            final String valueText = text.substring(colon + 1, colon + 1 + length);
+            position[0] = colon + 1 + length;
+            value = parseValue(type, valueText);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("分页游标格式不正确: " + cursor, e);
+        }
+        if (value == null) {
+            throw new IllegalArgumentException("分页游标格式不正确: " + cursor);
+        }
+        return value;
+    }
+
+    private static Object parseValue(char type, String value) {
+        switch (type) {
+            case LONG:
+                return Long.parseLong(value);
+            case DECIMAL:
+                return new BigDecimal(value);
+            case LOCAL_DATE_TIME:
+                return LocalDateTime.parse(value);
+            case LOCAL_DATE:
+                return LocalDate.parse(value);
+            case DATE:
+                return new Date(Long.parseLong(value));
+            case STRING:
+                return value;
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.jlee.data.page;
+
+import com.jlee.data.configurer.KeysetPaginationInnerInterceptor;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * 游标 (keyset) 分页参数
+ * <p>
+ * 由 {@link KeysetPaginationInnerInterceptor} 将查询改写为 "WHERE 排序字段、主键 在游标之后 ORDER BY 排序字段, 主键 LIMIT 每页数量 + 1"，
+ * 不再使用 OFFSET 跳过前面的行，也不查询总数，翻到多深的页面耗时都相同 (需要 (排序字段, 主键) 上的联合索引)
+ * <p>
+ * 作为 Mapper 方法的参数传入，或者用 {@link #execute(Supplier)} 包裹任意 Mapper 方法 (如 selectList)：
+ * <pre>
+ * KeysetPage page = KeysetPage.of(query.getCursor(), query.getPageSize(), "create_time", "id");
+ * List&lt;Course&gt; rows = page.execute(() -&gt; courseMapper.selectList(wrapper));
+ * KeysetPage.Slice&lt;Course&gt; slice = page.slice(rows, Course::getCreateTime, Course::getId);
+ * return CursorPageResult.of(slice.getRows(), slice.getNextCursor());
+ * </pre>
+ *
+ * @author jlee
+ */
+public class KeysetPage {
+
+    /**
+     * 排序字段和主键只允许是列名 (可以带表别名)，防止 SQL 注入
+     */
+    private static final Pattern COLUMN_PATTERN = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*(\\.[A-Za-z_][A-Za-z0-9_]*)?");
+
+    private static final ThreadLocal<KeysetPage> CURRENT = new ThreadLocal<>();
+
+    private final String sortColumn;
+    private final String idColumn;
+    private final boolean ascending;
+    private final int pageSize;
+    @Nullable
+    private final KeysetCursor cursor;
+
+    private KeysetPage(@Nullable String cursor, int pageSize, String sortColumn, String idColumn, boolean ascending) {
+        Assert.isTrue(pageSize > 0, "pageSize 必须大于 0");
+        Assert.isTrue(COLUMN_PATTERN.matcher(sortColumn).matches(), "排序字段不是合法的列名: " + sortColumn);
+        Assert.isTrue(COLUMN_PATTERN.matcher(idColumn).matches(), "主键不是合法的列名: " + idColumn);
+        this.sortColumn = sortColumn;
+        this.idColumn = idColumn;
+        this.ascending = ascending;
+        this.pageSize = pageSize;
+        this.cursor = StringUtils.hasText(cursor) ? KeysetCursor.decode(cursor) : null;
+    }
+
+    /**
+     * 按排序字段、主键升序分页
+     *
+     * @param cursor     上一页返回的游标，第一页为 null
+     * @param pageSize   每页数量
+     * @param sortColumn 排序字段的列名
+     * @param idColumn   主键的列名
+     * @return KeysetPage
+     * @throws IllegalArgumentException 游标格式不正确
+     */
+    public static KeysetPage of(@Nullable String cursor, int pageSize, String sortColumn, String idColumn) {
+        return new KeysetPage(cursor, pageSize, sortColumn, idColumn, true);
+    }
+
+    /**
+     * 按排序字段、主键降序分页
+     *
+     * @param cursor     上一页返回的游标，第一页为 null
+     * @param pageSize   每页数量
+     * @param sortColumn 排序字段的列名
+     * @param idColumn   主键的列名
+     * @return KeysetPage
+     * @throws IllegalArgumentException 游标格式不正确
+     */
+    public static KeysetPage ofDesc(@Nullable String cursor, int pageSize, String sortColumn, String idColumn) {
+        return new KeysetPage(cursor, pageSize, sortColumn, idColumn, false);
+    }
+
+    /**
+     * 取出当前线程中 {@link #execute(Supplier)} 设置的分页参数，取出后同一个 execute 中后续的查询 (如嵌套查询) 不再分页
+     *
+     * @return KeysetPage，没有时返回 null
+     */
+    @Nullable
+    public static KeysetPage consumeCurrent() {
+        final KeysetPage page = CURRENT.get();
+        if (page != null) {
+            CURRENT.remove();
+        }
+        return page;
+    }
+
+    /**
+     * 在当前线程中使用该分页参数执行查询，只有其中的第一条查询语句会被分页
+     *
+     * @param query 查询
+     * @param <R>   查询结果类型
+     * @return 查询结果
+     */
+    public <R> R execute(Supplier<R> query) {
+        final KeysetPage previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return query.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * 截取本页数据并生成下一页的游标
+     *
+     * @param rows       查询结果 (最多 pageSize + 1 行)
+     * @param sortGetter 获取行的排序字段值
+     * @param idGetter   获取行的主键值
+     * @param <T>        行的类型
+     * @return 本页数据
+     */
+    public <T> Slice<T> slice(List<T> rows, Function<? super T, ?> sortGetter, Function<? super T, ?> idGetter) {
+        if (rows.size() <= this.pageSize) {
+            return new Slice<>(rows, null);
+        }
+        final List<T> pageRows = new ArrayList<>(rows.subList(0, this.pageSize));
+        final T last = pageRows.get(this.pageSize - 1);
+        return new Slice<>(pageRows, KeysetCursor.encode(sortGetter.apply(last), idGetter.apply(last)));
+    }
+
+    public String getSortColumn() {
+        return this.sortColumn;
+    }
+
+    public String getIdColumn() {
+        return this.idColumn;
+    }
+
+    public boolean isAscending() {
+        return this.ascending;
+    }
+
+    public int getPageSize() {
+        return this.pageSize;
+    }
+
+    @Nullable
+    public KeysetCursor getCursor() {
+        return this.cursor;
+    }
+
+    @Override
+    public String toString() {
+        return "KeysetPage(sortColumn=" + this.sortColumn + ", idColumn=" + this.idColumn + ", ascending=" + this.ascending
+                + ", pageSize=" + this.pageSize + ", firstPage=" + (this.cursor == null) + ")";
+    }
+
+    /**
+     * 一页数据
+     *
+     * @param <T> 行的类型
+     */
+    public static final class Slice<T> {
+        private final List<T> rows;
+        @Nullable
+        private final String nextCursor;
+
+        private Slice(List<T> rows, @Nullable String nextCursor) {
+            this.rows = Collections.unmodifiableList(rows);
+            this.nextCursor = nextCursor;
+        }
+
+        public List<T> getRows() {
+            return this.rows;
+        }
+
+        /**
+         * 获取下一页的游标
+         *
+         * @return 游标，已经是最后一页时返回 null
+         */
+        @Nullable
+        public String getNextCursor() {
+            return this.nextCursor;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.jlee.data.routing;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标注在 Mapper 接口或方法上，不在读写事务中执行时使用只读库
+ * <p>
+ * 关闭 edu.datasource.routing.selects-to-replica 后，只有标注了该注解的查询和只读事务使用只读库
+ *
+ * @author jlee
+ */
+@Documented
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReadReplica {
+}
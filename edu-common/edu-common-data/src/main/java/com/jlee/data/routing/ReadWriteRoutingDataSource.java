@@ -0,0 +1,78 @@
+package com.jlee.data.routing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * 读写分离的 DataSource，获取连接时按以下规则选择主库或只读库：
+ * <ol>
+ *     <li>在事务中：只读事务 (@Transactional(readOnly = true)) 使用只读库，读写事务使用主库</li>
+ *     <li>不在事务中：按 {@link RoutingContext} 中的路由，没有设置时使用主库</li>
+ * </ol>
+ * 没有健康的只读库、或者只读库获取连接失败时使用主库
+ * <p>
+ * 事务管理器在设置只读标记之前就会获取连接，所以必须用 {@link LazyConnectionDataSourceProxy} 包裹，
+ * 在第一条语句执行时才真正获取连接
+ *
+ * @author jlee
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    private final DataSource primary;
+    private final ReplicaSet replicaSet;
+
+    public ReadWriteRoutingDataSource(DataSource primary, ReplicaSet replicaSet) {
+        this.primary = primary;
+        this.replicaSet = replicaSet;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return this.isReadRoute() ? this.replicaConnection(null, null) : this.primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return this.isReadRoute() ? this.replicaConnection(username, password) : this.primary.getConnection(username, password);
+    }
+
+    public DataSource getPrimary() {
+        return this.primary;
+    }
+
+    public ReplicaSet getReplicaSet() {
+        return this.replicaSet;
+    }
+
+    private boolean isReadRoute() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        }
+        return RoutingContext.current() == RoutingContext.Route.REPLICA;
+    }
+
+    private Connection replicaConnection(String username, String password) throws SQLException {
+        ReplicaSet.Replica replica = this.replicaSet.select();
+        // 每个只读库最多尝试一次
+        for (int attempt = 0; replica != null && attempt < this.replicaSet.getReplicas().size(); attempt++) {
+            try {
+                final DataSource dataSource = replica.getDataSource();
+                return username == null ? dataSource.getConnection() : dataSource.getConnection(username, password);
+            } catch (SQLException e) {
+                log.debug("只读库 {} 获取连接失败", replica.getName(), e);
+                this.replicaSet.markDown(replica);
+                replica = this.replicaSet.select();
+            }
+        }
+        return username == null ? this.primary.getConnection() : this.primary.getConnection(username, password);
+    }
+}
@@ -0,0 +1,242 @@
+package com.jlee.data.routing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一组只读库，按权重随机选择健康的只读库
+ * <p>
+ * 后台线程定期检查每个只读库 (获取连接并 isValid)，获取连接失败的只读库立即标记为不健康，直到下一次检查通过。
+ * 健康的只读库和累计权重放在一个不可变的快照中，选择时只需要一次随机数和二分查找；
+ * 请求线程的标记和健康检查线程的结果在锁中修改健康状态并重建快照，健康检查期间被标记为不健康的只读库不会被这次检查恢复
+ *
+ * @author jlee
+ */
+public class ReplicaSet implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaSet.class);
+
+    private final List<Replica> replicas;
+    private final int validationTimeoutSeconds;
+    private volatile Snapshot snapshot;
+    /**
+     * 修改健康状态、重建快照时的锁
+     */
+    private final Object lock = new Object();
+    @Nullable
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * @param replicas          只读库
+     * @param validationTimeout 健康检查时 Connection.isValid 的超时时间
+     */
+    public ReplicaSet(List<Replica> replicas, Duration validationTimeout) {
+        this.replicas = Collections.unmodifiableList(new ArrayList<>(replicas));
+        this.validationTimeoutSeconds = (int) Math.max(1L, validationTimeout.getSeconds());
+        this.snapshot = Snapshot.of(this.replicas);
+    }
+
+    /**
+     * 启动后台健康检查
+     *
+     * @param interval 检查间隔
+     */
+    public synchronized void start(Duration interval) {
+        if (this.scheduler != null || this.replicas.isEmpty()) {
+            return;
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::checkHealth, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 按权重随机选择一个健康的只读库
+     *
+     * @return 只读库，没有健康的只读库时返回 null
+     */
+    @Nullable
+    public Replica select() {
+        return this.snapshot.select();
+    }
+
+    /**
+     * 标记只读库不健康，在下一次健康检查通过之前不再选择
+     *
+     * @param replica 只读库
+     */
+    public void markDown(Replica replica) {
+        synchronized (this.lock) {
+            replica.markDowns++;
+            if (!replica.healthy) {
+                return;
+            }
+            replica.healthy = false;
+            this.snapshot = Snapshot.of(this.replicas);
+        }
+        log.warn("只读库 {} 不可用，读请求改为使用其他只读库或主库", replica.getName());
+    }
+
+    /**
+     * 检查所有只读库
+     */
+    public void checkHealth() {
+        for (Replica replica : this.replicas) {
+            final long markDowns;
+            synchronized (this.lock) {
+                markDowns = replica.markDowns;
+            }
+            // 检查可能较慢，不在锁中进行
+            final boolean healthy = this.isValid(replica);
+            synchronized (this.lock) {
+                // 检查期间请求线程标记了不健康，以标记为准
+                if (healthy == replica.healthy || (healthy && replica.markDowns != markDowns)) {
+                    continue;
+                }
+                replica.healthy = healthy;
+                this.snapshot = Snapshot.of(this.replicas);
+            }
+            if (healthy) {
+                log.info("只读库 {} 恢复可用", replica.getName());
+            } else {
+                log.warn("只读库 {} 健康检查失败", replica.getName());
+            }
+        }
+    }
+
+    public List<Replica> getReplicas() {
+        return this.replicas;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (this.scheduler != null) {
+            this.scheduler.shutdownNow();
+            this.scheduler = null;
+        }
+        for (Replica replica : this.replicas) {
+            if (replica.dataSource instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable) replica.dataSource).close();
+                } catch (Exception e) {
+                    log.warn("关闭只读库 {} 失败", replica.getName(), e);
+                }
+            }
+        }
+    }
+
+    private boolean isValid(Replica replica) {
+        try (Connection connection = replica.dataSource.getConnection()) {
+            return connection.isValid(this.validationTimeoutSeconds);
+        } catch (SQLException | RuntimeException e) {
+            log.debug("只读库 {} 健康检查失败", replica.getName(), e);
+            return false;
+        }
+    }
+
+    /**
+     * 一个只读库
+     */
+    public static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private final int weight;
+        private volatile boolean healthy = true;
+        /**
+         * 被请求线程标记为不健康的次数，在 ReplicaSet 的锁中修改
+         */
+        private long markDowns;
+
+        public Replica(String name, DataSource dataSource, int weight) {
+            Assert.notNull(dataSource, "dataSource must not be null");
+            Assert.isTrue(weight > 0, "只读库的权重必须大于 0: " + name);
+            this.name = name;
+            this.dataSource = dataSource;
+            this.weight = weight;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public DataSource getDataSource() {
+            return this.dataSource;
+        }
+
+        public int getWeight() {
+            return this.weight;
+        }
+
+        public boolean isHealthy() {
+            return this.healthy;
+        }
+    }
+
+    /**
+     * 健康的只读库和累计权重
+     */
+    private static final class Snapshot {
+        private final Replica[] replicas;
+        private final int[] cumulativeWeights;
+
+        private Snapshot(Replica[] replicas, int[] cumulativeWeights) {
+            this.replicas = replicas;
+            this.cumulativeWeights = cumulativeWeights;
+        }
+
+        private static Snapshot of(List<Replica> all) {
+            final List<Replica> healthy = new ArrayList<>(all.size());
+            for (Replica replica : all) {
+                if (replica.healthy) {
+                    healthy.add(replica);
+                }
+            }
+            final int[] cumulativeWeights = new int[healthy.size()];
+            int total = 0;
+            for (int i = 0; i < cumulativeWeights.length; i++) {
+                total += healthy.get(i).weight;
+                cumulativeWeights[i] = total;
+            }
+            return new Snapshot(healthy.toArray(new Replica[0]), cumulativeWeights);
+        }
+
+        @Nullable
+        private Replica select() {
+            final int count = this.replicas.length;
+            if (count <= 1) {
+                return count == 0 ? null : this.replicas[0];
+            }
+            final int random = ThreadLocalRandom.current().nextInt(this.cumulativeWeights[count - 1]);
+            // 第一个累计权重大于随机数的只读库
+            int low = 0;
+            int high = count - 1;
+            while (low < high) {
+                final int mid = (low + high) >>> 1;
+                if (this.cumulativeWeights[mid] > random) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            return this.replicas[low];
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.jlee.data.routing;
+
+import org.springframework.lang.Nullable;
+
+import java.util.function.Supplier;
+
+/**
+ * 当前线程的读写分离路由
+ * <p>
+ * 事务中的连接在事务开始后第一条语句执行时确定：只读事务使用只读库，读写事务使用主库，事务中不能切换。
+ * 不在事务中时每条语句单独获取连接，由 ReadWriteRoutingInterceptor 按语句类型设置路由；
+ * 写入后马上读取、不能接受主从延迟的查询用 {@link #onPrimary(Supplier)} 包裹
+ *
+ * @author jlee
+ */
+public final class RoutingContext {
+
+    private static final ThreadLocal<Route> CURRENT = new ThreadLocal<>();
+
+    private RoutingContext() {
+    }
+
+    /**
+     * 在主库上执行
+     *
+     * @param action 操作
+     * @param <T>    返回值类型
+     * @return 返回值
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        return with(Route.PRIMARY, action);
+    }
+
+    /**
+     * 在只读库上执行 (在读写事务中无效)
+     *
+     * @param action 操作
+     * @param <T>    返回值类型
+     * @return 返回值
+     */
+    public static <T> T onReplica(Supplier<T> action) {
+        return with(Route.REPLICA, action);
+    }
+
+    /**
+     * 当前线程的路由
+     *
+     * @return 路由，没有设置时返回 null
+     */
+    @Nullable
+    public static Route current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 设置当前线程的路由，必须在 finally 中调用 {@link #clear()}；已经设置了路由时不修改
+     *
+     * @param route 路由
+     * @return 是否设置了路由，为 true 时才需要 clear
+     */
+    public static boolean set(Route route) {
+        if (CURRENT.get() != null) {
+            return false;
+        }
+        CURRENT.set(route);
+        return true;
+    }
+
+    /**
+     * 清除当前线程的路由
+     */
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * 使用指定的路由执行，已经设置了路由时保持外层的设置
+     *
+     * @param route  路由
+     * @param action 操作
+     * @param <T>    返回值类型
+     * @return 返回值
+     */
+    public static <T> T with(Route route, Supplier<T> action) {
+        if (!set(route)) {
+            return action.get();
+        }
+        try {
+            return action.get();
+        } finally {
+            clear();
+        }
+    }
+
+    /**
+     * 路由
+     */
+    public enum Route {
+        /**
+         * 主库
+         */
+        PRIMARY,
+        /**
+         * 只读库
+         */
+        REPLICA
+    }
+}
@@ -0,0 +1,155 @@
+package com.jlee.data.routing;
+
+import com.jlee.data.configurer.ReadWriteRoutingInterceptor;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mybatis.spring.SqlSessionFactoryBean;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * 用两个 H2 内存库作为主库和只读库，确认语句按事务、语句类型和 {@link ReadReplica} 路由；
+ * 两个库的 course 表中 name 分别为 primary、replica，查询结果就是实际使用的库
+ *
+ * @author jlee
+ */
+class ReadWriteRoutingTests {
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    private SwitchableDataSource replica;
+    private ReplicaSet replicaSet;
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void close() {
+        if (this.replicaSet != null) {
+            this.replicaSet.close();
+        }
+    }
+
+    @Test
+    void nonTransactionalSelectUsesReplica() throws Exception {
+        final CourseMapper mapper = this.setup(true);
+        assertEquals("replica", mapper.findName());
+    }
+
+    @Test
+    void readOnlyTransactionUsesReplica() throws Exception {
+        final CourseMapper mapper = this.setup(true);
+        this.transactionTemplate.setReadOnly(true);
+        assertEquals("replica", this.transactionTemplate.execute(status -> mapper.findName()));
+    }
+
+    @Test
+    void readWriteTransactionUsesPrimary() throws Exception {
+        final CourseMapper mapper = this.setup(true);
+        assertEquals("primary", this.transactionTemplate.execute(status -> mapper.findName()));
+        assertEquals("renamed", this.transactionTemplate.execute(status -> {
+            mapper.rename("renamed");
+            return mapper.findName();
+        }));
+        assertEquals("replica", mapper.findName());
+    }
+
+    @Test
+    void nonTransactionalWriteUsesPrimary() throws Exception {
+        final CourseMapper mapper = this.setup(true);
+        mapper.rename("renamed");
+        assertEquals("renamed", RoutingContext.onPrimary(mapper::findName));
+        assertEquals("replica", mapper.findName());
+    }
+
+    @Test
+    void readReplicaAnnotationUsesReplicaWhenSelectsToReplicaDisabled() throws Exception {
+        final CourseMapper mapper = this.setup(false);
+        assertEquals("primary", mapper.findName());
+        assertEquals("replica", mapper.findNameOnReplica());
+    }
+
+    @Test
+    void readsFallBackToPrimaryWhenAllReplicasAreDown() throws Exception {
+        final CourseMapper mapper = this.setup(true);
+        this.replica.down = true;
+        assertEquals("primary", mapper.findName());
+        assertFalse(this.replicaSet.getReplicas().get(0).isHealthy());
+
+        this.transactionTemplate.setReadOnly(true);
+        assertEquals("primary", this.transactionTemplate.execute(status -> mapper.findName()));
+    }
+
+    private CourseMapper setup(boolean selectsToReplica) throws Exception {
+        final DataSource primary = database("primary");
+        this.replica = new SwitchableDataSource(database("replica"));
+        this.replicaSet = new ReplicaSet(Collections.singletonList(new ReplicaSet.Replica("replica", this.replica, 1)),
+                Duration.ofSeconds(1));
+        final DataSource dataSource = new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, this.replicaSet));
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        final SqlSessionFactoryBean factoryBean = new SqlSessionFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setPlugins(new ReadWriteRoutingInterceptor(selectsToReplica));
+        final SqlSessionFactory sqlSessionFactory = factoryBean.getObject();
+        sqlSessionFactory.getConfiguration().addMapper(CourseMapper.class);
+        return new SqlSessionTemplate(sqlSessionFactory).getMapper(CourseMapper.class);
+    }
+
+    private static DataSource database(String name) {
+        final SimpleDriverDataSource dataSource = new SimpleDriverDataSource(new org.h2.Driver(),
+                "jdbc:h2:mem:" + name + DATABASES.incrementAndGet() + ";DB_CLOSE_DELAY=-1");
+        final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE course (id BIGINT PRIMARY KEY, name VARCHAR(32))");
+        jdbcTemplate.update("INSERT INTO course (id, name) VALUES (1, ?)", name);
+        return dataSource;
+    }
+
+    interface CourseMapper {
+
+        @Select("SELECT name FROM course WHERE id = 1")
+        String findName();
+
+        @ReadReplica
+        @Select("SELECT name FROM course WHERE id = 1")
+        String findNameOnReplica();
+
+        @Update("UPDATE course SET name = #{name} WHERE id = 1")
+        int rename(String name);
+    }
+
+    /**
+     * 可以模拟不可用的只读库
+     */
+    static class SwitchableDataSource extends DelegatingDataSource {
+        private volatile boolean down;
+
+        SwitchableDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (this.down) {
+                throw new SQLException("只读库不可用");
+            }
+            return super.getConnection();
+        }
+    }
+}
@@ -17,4 +17,11 @@ import java.lang.annotation.*;
 @Import({EnumMvcConfigure.class,})
 public @interface EnableEnumMvcConfigure {
 
+    /**
+     * 是否预先用每个枚举对象的字符串形式调用 @JsonCreator 工厂方法并缓存结果，
+     * 只有工厂方法没有副作用、相同入参总是返回相同枚举对象时才能开启
+     *
+     * @return 默认 false
+     */
+    boolean precomputeJsonCreator() default false;
 }
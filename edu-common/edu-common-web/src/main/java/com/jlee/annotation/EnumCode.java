@@ -0,0 +1,17 @@
+package com.jlee.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 标记枚举类中表示状态码的字段或无参方法 (int / Integer 类型)
+ * <p>
+ * Spring MVC 中将 Integer 转为枚举时按该状态码查找枚举对象，没有标记时如果枚举实现了 ResultStatus 则取 getCode()
+ *
+ * @author jlee
+ */
+@Target({ElementType.FIELD, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface EnumCode {
+
+}
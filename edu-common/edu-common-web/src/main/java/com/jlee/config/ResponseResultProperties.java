@@ -5,6 +5,8 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpStatus;
 import org.springframework.util.StringUtils;
 
+import java.time.Duration;
+
 /**
  * @author jlee
  * @since 2021/7/16
@@ -45,6 +47,18 @@ public class ResponseResultProperties {
      * message 在 响应头中标题
      */
     private static final String DEFAULT_MESSAGE_HEAD_TITLE = "xx-message";
+    /**
+     * 错误日志聚合的默认时间窗口
+     */
+    private static final Duration DEFAULT_ERROR_LOG_WINDOW = Duration.ofSeconds(10);
+    /**
+     * 每个错误在一个时间窗口内默认最多输出的明细条数
+     */
+    private static final int DEFAULT_ERROR_LOG_LIMIT_PER_WINDOW = 5;
+    /**
+     * 错误日志队列的默认容量
+     */
+    private static final int DEFAULT_ERROR_LOG_BUFFER_SIZE = 1024;
 
 
     //========================
@@ -103,6 +117,37 @@ public class ResponseResultProperties {
      */
     private String messageHeadTitle;
 
+    /**
+     * 由 ResultStatus 创建的 ApiException 是否都使用轻量模式：不收集调用栈，按 lightweightLogSampleRate 采样记录日志
+     * 为 false 时只有 ResultStatus#isLightweight 返回 true 的状态使用轻量模式
+     */
+    private boolean lightweightApiException;
+
+    /**
+     * 轻量模式的 ApiException 记录日志的比例，0 ~ 1，默认为 0 不记录
+     */
+    private double lightweightLogSampleRate;
+
+    /**
+     * 是否异步输出 GlobalExceptionHandler 的错误日志，为 false 时在请求线程中直接输出
+     */
+    private boolean asyncErrorLog = true;
+
+    /**
+     * 错误日志按 异常类型 + 状态码 + URI 模板 聚合的时间窗口，默认 10 秒
+     */
+    private Duration errorLogWindow;
+
+    /**
+     * 每个错误在一个时间窗口内最多输出的明细条数，其余的在窗口结束时汇总输出，默认 5
+     */
+    private int errorLogLimitPerWindow;
+
+    /**
+     * 错误日志队列的容量，队列满时丢弃，默认 1024
+     */
+    private int errorLogBufferSize;
+
     public String getResultFieldName() {
         if (!StringUtils.hasText(resultFieldName)) {
             resultFieldName = DEFAULT_RESULT_FIELD_NAME;
@@ -217,4 +262,61 @@ public class ResponseResultProperties {
     public void setMessageHeadTitle(String messageHeadTitle) {
         this.messageHeadTitle = messageHeadTitle;
     }
+
+    public boolean isLightweightApiException() {
+        return lightweightApiException;
+    }
+
+    public void setLightweightApiException(boolean lightweightApiException) {
+        this.lightweightApiException = lightweightApiException;
+    }
+
+    public double getLightweightLogSampleRate() {
+        return lightweightLogSampleRate;
+    }
+
+    public void setLightweightLogSampleRate(double lightweightLogSampleRate) {
+        this.lightweightLogSampleRate = lightweightLogSampleRate;
+    }
+
+    public boolean isAsyncErrorLog() {
+        return asyncErrorLog;
+    }
+
+    public void setAsyncErrorLog(boolean asyncErrorLog) {
+        this.asyncErrorLog = asyncErrorLog;
+    }
+
+    public Duration getErrorLogWindow() {
+        if (errorLogWindow == null) {
+            errorLogWindow = DEFAULT_ERROR_LOG_WINDOW;
+        }
+        return errorLogWindow;
+    }
+
+    public void setErrorLogWindow(Duration errorLogWindow) {
+        this.errorLogWindow = errorLogWindow;
+    }
+
+    public int getErrorLogLimitPerWindow() {
+        if (errorLogLimitPerWindow == 0) {
+            errorLogLimitPerWindow = DEFAULT_ERROR_LOG_LIMIT_PER_WINDOW;
+        }
+        return errorLogLimitPerWindow;
+    }
+
+    public void setErrorLogLimitPerWindow(int errorLogLimitPerWindow) {
+        this.errorLogLimitPerWindow = errorLogLimitPerWindow;
+    }
+
+    public int getErrorLogBufferSize() {
+        if (errorLogBufferSize == 0) {
+            errorLogBufferSize = DEFAULT_ERROR_LOG_BUFFER_SIZE;
+        }
+        return errorLogBufferSize;
+    }
+
+    public void setErrorLogBufferSize(int errorLogBufferSize) {
+        this.errorLogBufferSize = errorLogBufferSize;
+    }
 }
@@ -1,8 +1,13 @@
 package com.jlee.configurer;
 
+import com.jlee.annotation.EnableEnumMvcConfigure;
 import com.jlee.converter.MyIntegerToEnumConverterFactory;
 import com.jlee.converter.MyStringToEnumConverterFactory;
+import org.springframework.context.annotation.ImportAware;
+import org.springframework.core.annotation.AnnotationAttributes;
+import org.springframework.core.type.AnnotationMetadata;
 import org.springframework.format.FormatterRegistry;
+import org.springframework.lang.NonNull;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 /**
@@ -10,13 +15,24 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
  *
  * @author jlee
  */
-public class EnumMvcConfigure implements WebMvcConfigurer {
+public class EnumMvcConfigure implements WebMvcConfigurer, ImportAware {
+
+    private boolean precomputeJsonCreator;
+
+    @Override
+    public void setImportMetadata(@NonNull AnnotationMetadata importMetadata) {
+        AnnotationAttributes attributes = AnnotationAttributes.fromMap(
+                importMetadata.getAnnotationAttributes(EnableEnumMvcConfigure.class.getName()));
+        if (attributes != null) {
+            this.precomputeJsonCreator = attributes.getBoolean("precomputeJsonCreator");
+        }
+    }
 
     @Override
     public void addFormatters(FormatterRegistry registry) {
         // MVC在需要进行转换时会去调用 ConverterFactory 获取对应类型的 Converter，然后添加到 GenericConversionService 中，
         // 而 GenericConversionService.ConvertersForPair.add 方法使用的是  this.converters.addFirst(converter); 我们自定义的会放在前面
-        registry.addConverterFactory(new MyStringToEnumConverterFactory());
+        registry.addConverterFactory(new MyStringToEnumConverterFactory(this.precomputeJsonCreator));
         registry.addConverterFactory(new MyIntegerToEnumConverterFactory());
     }
 
@@ -0,0 +1,25 @@
+package com.jlee.configurer;
+
+import com.jlee.metrics.ErrorReporterMeterBinder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.stream.Collectors;
+
+/**
+ * 有 Micrometer 时 (如引入了 actuator) 将 GlobalExceptionHandler 的错误计数导出为指标
+ *
+ * @author jlee
+ */
+@Configuration
+@ConditionalOnClass(MeterRegistry.class)
+public class ErrorMetricsConfigurer {
+
+    @Bean
+    public ErrorReporterMeterBinder errorReporterMeterBinder(ObjectProvider<GlobalExceptionHandler> exceptionHandlers) {
+        return new ErrorReporterMeterBinder(exceptionHandlers.orderedStream().collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,160 @@
+package com.jlee.configurer;
+
+import com.jlee.result.InputStreamSourceResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.util.StreamUtils;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * 写出文件下载的响应体，不把整个文件读入内存
+ * <p>
+ * 文件系统中的资源：长度取自文件属性，支持单段 Range 请求，容器支持 sendfile 时 (Tomcat NIO 会在请求中设置
+ * org.apache.tomcat.sendfile.support 属性) 交给容器在响应提交后直接发送文件，文件内容不经过堆内存；
+ * 否则使用 FileChannel.transferTo 写到包装了响应输出流的 Channel，目标不是 FileChannel / SocketChannel，
+ * 所以仍是经过缓冲区 (每次最多 8K，最终以堆中的 byte[] 写入输出流) 的分块复制；
+ * {@link InputStreamSourceResource}：边读边写，不支持 Range 请求
+ *
+ * @author jlee
+ */
+final class FileDownloadWriter {
+
+    private static final String SENDFILE_SUPPORTED_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_FILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_FILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    private FileDownloadWriter() {
+    }
+
+    /**
+     * 是否由这里写出该资源，其余资源交给父类的转换器
+     *
+     * @param resource 资源
+     * @return 文件系统中的资源或 {@link InputStreamSourceResource} 返回 true
+     */
+    static boolean supports(Resource resource) {
+        return resource instanceof InputStreamSourceResource || resource.isFile();
+    }
+
+    /**
+     * 写出资源
+     *
+     * @param resource      资源
+     * @param inputMessage  请求
+     * @param outputMessage 响应
+     * @return 多段 Range 请求返回 false，交给父类按 multipart/byteranges 写出
+     * @throws IOException 读取资源或写出响应失败
+     */
+    static boolean write(Resource resource, ServletServerHttpRequest inputMessage, ServletServerHttpResponse outputMessage)
+            throws IOException {
+        final HttpHeaders headers = outputMessage.getHeaders();
+        if (headers.getContentType() == null) {
+            headers.setContentType(MediaTypeFactory.getMediaType(resource).orElse(MediaType.APPLICATION_OCTET_STREAM));
+        }
+        if (resource instanceof InputStreamSourceResource) {
+            writeStream(resource, inputMessage, outputMessage);
+            return true;
+        }
+
+        final Path path = resource.getFile().toPath();
+        final long length = Files.size(path);
+        final HttpServletRequest request = inputMessage.getServletRequest();
+        final HttpServletResponse response = outputMessage.getServletResponse();
+
+        // [start, end)
+        long start = 0;
+        long end = length;
+        final String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && response.getStatus() == HttpStatus.OK.value()) {
+            try {
+                final List<HttpRange> httpRanges = HttpRange.parseRanges(range);
+                if (httpRanges.size() > 1) {
+                    return false;
+                }
+                if (!httpRanges.isEmpty()) {
+                    start = httpRanges.get(0).getRangeStart(length);
+                    end = httpRanges.get(0).getRangeEnd(length) + 1;
+                    if (start >= length) {
+                        // ByteRange 不检查起始位置是否超出文件长度
+                        throw new IllegalArgumentException("Range 起始位置 " + start + " 超出文件长度 " + length);
+                    }
+                    response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                    headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + '-' + (end - 1) + '/' + length);
+                }
+            } catch (IllegalArgumentException ex) {
+                headers.set(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                headers.setContentLength(0);
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                outputMessage.getBody();
+                return true;
+            }
+        }
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        headers.setContentLength(end - start);
+
+        if (HttpMethod.HEAD.matches(request.getMethod()) || start == end) {
+            // 写出响应头
+            outputMessage.getBody();
+            return true;
+        }
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED_ATTR))) {
+            // 由容器在提交响应后发送文件，这里不写出响应体
+            request.setAttribute(SENDFILE_FILENAME_ATTR, path.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_FILE_START_ATTR, start);
+            request.setAttribute(SENDFILE_FILE_END_ATTR, end);
+            outputMessage.getBody();
+            return true;
+        }
+
+        // 响应输出流没有对应的原生 Channel，transferTo 会退化为经过缓冲区的分块复制
+        final WritableByteChannel target = Channels.newChannel(outputMessage.getBody());
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long position = start;
+            while (position < end) {
+                final long transferred = channel.transferTo(position, end - position, target);
+                if (transferred <= 0) {
+                    throw new IOException("文件 " + path + " 在写出过程中被截断");
+                }
+                position += transferred;
+            }
+        }
+        return true;
+    }
+
+    private static void writeStream(Resource resource, ServletServerHttpRequest inputMessage,
+                                    ServletServerHttpResponse outputMessage) throws IOException {
+        final HttpHeaders headers = outputMessage.getHeaders();
+        headers.set(HttpHeaders.ACCEPT_RANGES, "none");
+        final long contentLength = resource.contentLength();
+        if (contentLength >= 0) {
+            headers.setContentLength(contentLength);
+        }
+        final OutputStream body = outputMessage.getBody();
+        if (HttpMethod.HEAD.matches(inputMessage.getServletRequest().getMethod())) {
+            return;
+        }
+        try (InputStream inputStream = resource.getInputStream()) {
+            StreamUtils.copy(inputStream, body);
+        }
+    }
+}
@@ -1,13 +1,20 @@
 package com.jlee.configurer;
 
 import com.fasterxml.jackson.databind.JsonMappingException;
+import com.jlee.config.ResponseResultProperties;
 import com.jlee.exception.ApiException;
+import com.jlee.exception.ErrorKey;
+import com.jlee.exception.ErrorReporter;
 import com.jlee.exception.ErrorViewModel;
+import com.jlee.exception.FieldViolation;
+import com.jlee.utils.ResponseResultPropertiesUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 import org.springframework.validation.BindException;
@@ -15,10 +22,15 @@ import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.HandlerMapping;
 
 import javax.servlet.http.HttpServletRequest;
-import java.util.*;
-import java.util.stream.Collectors;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
 
 /**
  * 全局异常处理器，
@@ -27,9 +39,17 @@ import java.util.stream.Collectors;
  * @author ruoyi
  */
 @RestControllerAdvice
-public class GlobalExceptionHandler {
+public class GlobalExceptionHandler implements DisposableBean {
     private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    /**
+     * 没有匹配到接口 (如 404、请求方法不支持、处理器映射之前抛出的异常) 时使用的 URI 模板，不使用原始地址，避免聚合键无限增长
+     */
+    public static final String UNMATCHED_URI_TEMPLATE = "UNMATCHED";
+
+    private volatile ErrorReporter errorReporter;
+    private final List<Consumer<ErrorReporter>> errorReporterListeners = new CopyOnWriteArrayList<>();
+
 
     /**
      * 全局异常
@@ -89,10 +109,24 @@ public class GlobalExceptionHandler {
     @ExceptionHandler({ApiException.class})
     public ErrorViewModel handleApiException(ApiException apiException, HttpServletRequest request) {
         final ErrorViewModel errorViewModel = createErrorViewModel(apiException.getCode(), apiException.getMessage(), apiException.getHttpStatus());
-        doLogOut(apiException, errorViewModel, request);
+        if (!apiException.isLightweight() || sampleLightweightLog()) {
+            doLogOut(apiException, errorViewModel, request);
+        } else {
+            countError(apiException, errorViewModel, request);
+        }
         return errorViewModel;
     }
 
+    /**
+     * 轻量模式的 ApiException 是业务预期内的错误，按 result.lightweight-log-sample-rate 采样记录日志
+     *
+     * @return 是否记录日志
+     */
+    protected boolean sampleLightweightLog() {
+        final double sampleRate = ResponseResultPropertiesUtils.getResponseResultProperties().getLightweightLogSampleRate();
+        return sampleRate > 0D && (sampleRate >= 1D || ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
     /**
      * 构建ApiErrorViewModel
      *
@@ -128,6 +162,9 @@ public class GlobalExceptionHandler {
     /**
      * 异常日志输出方式，
      * 可以复写这个方法实现自定义的日志记录
+     * <p>
+     * 默认交给 {@link ErrorReporter} 在后台线程中按 异常类型 + 状态码 + URI 模板 聚合、限流后输出，
+     * 配置 result.async-error-log=false 时在请求线程中直接输出
      *
      * @param e              异常信息
      * @param errorViewModel 封装的ApiErrorViewModel
@@ -136,9 +173,17 @@ public class GlobalExceptionHandler {
     public void doLogOut(@NonNull Exception e, ErrorViewModel errorViewModel, HttpServletRequest request) {
         String message = e.getMessage();
         List<?> errors = Collections.emptyList();
+        int code = HttpStatus.INTERNAL_SERVER_ERROR.value();
         if (errorViewModel != null) {
             message = StringUtils.hasText(errorViewModel.getMessage()) ? errorViewModel.getMessage() : errorViewModel.toString();
             errors = errorViewModel.getErrors() != null ? errorViewModel.getErrors() : Collections.emptyList();
+            code = errorViewModel.getCode();
+        }
+        final ErrorReporter reporter = getErrorReporter();
+        if (reporter != null) {
+            final String uri = request.getRequestURI();
+            reporter.report(new ErrorKey(e.getClass(), code, request.getMethod(), getUriTemplate(request)), uri, message, errors);
+            return;
         }
         log.error("请求的地址是：{},ApiException出现异常：{}", request.getRequestURL(), message);
         for (Object error : errors) {
@@ -146,6 +191,73 @@ public class GlobalExceptionHandler {
         }
     }
 
+    /**
+     * 只累计错误次数、不记录日志 (未被采样的轻量模式 ApiException)，http.server.errors 指标仍包含这些错误
+     */
+    private void countError(Exception e, ErrorViewModel errorViewModel, HttpServletRequest request) {
+        final ErrorReporter reporter = getErrorReporter();
+        if (reporter != null) {
+            reporter.count(new ErrorKey(e.getClass(), errorViewModel.getCode(), request.getMethod(), getUriTemplate(request)));
+        }
+    }
+
+    /**
+     * 获取异步输出错误日志的 ErrorReporter，第一次调用时创建
+     *
+     * @return ErrorReporter，配置了 result.async-error-log=false 时返回 null
+     */
+    @Nullable
+    public ErrorReporter getErrorReporter() {
+        ErrorReporter reporter = this.errorReporter;
+        if (reporter == null) {
+            final ResponseResultProperties properties = ResponseResultPropertiesUtils.getResponseResultProperties();
+            if (!properties.isAsyncErrorLog()) {
+                return null;
+            }
+            synchronized (this) {
+                reporter = this.errorReporter;
+                if (reporter == null) {
+                    reporter = new ErrorReporter(log, properties.getErrorLogBufferSize(), properties.getErrorLogWindow(),
+                            properties.getErrorLogLimitPerWindow());
+                    this.errorReporter = reporter;
+                    for (Consumer<ErrorReporter> listener : this.errorReporterListeners) {
+                        listener.accept(reporter);
+                    }
+                }
+            }
+        }
+        return reporter;
+    }
+
+    /**
+     * 添加 ErrorReporter 创建时的监听器 (如导出指标)，已经创建时立即通知一次；不会提前创建 ErrorReporter
+     *
+     * @param listener 监听器
+     */
+    public synchronized void addErrorReporterListener(Consumer<ErrorReporter> listener) {
+        this.errorReporterListeners.add(listener);
+        final ErrorReporter reporter = this.errorReporter;
+        if (reporter != null) {
+            listener.accept(reporter);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        final ErrorReporter reporter = this.errorReporter;
+        if (reporter != null) {
+            reporter.close();
+        }
+    }
+
+    /**
+     * 获取请求匹配的 URI 模板 (如 /courses/{id})，同一个接口的错误聚合在一起；没有匹配到接口时返回 {@link #UNMATCHED_URI_TEMPLATE}
+     */
+    private static String getUriTemplate(HttpServletRequest request) {
+        final Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern instanceof String ? (String) pattern : UNMATCHED_URI_TEMPLATE;
+    }
+
 
     /**
      * 将 json 转换异常信息 提取成 FieldError
@@ -185,8 +297,8 @@ public class GlobalExceptionHandler {
     private ErrorViewModel fieldErrorToErrorViewModel(List<FieldError> fieldErrors) {
         String message = getFieldErrorMessage(fieldErrors);
         // 把fieldErrors中，需要的部分提出出来进行返回
-        List<Map<String, String>> mapList = toValidatorMsg(fieldErrors);
-        return createErrorViewModel(HttpStatus.BAD_REQUEST.value(), message, mapList, HttpStatus.BAD_REQUEST);
+        List<FieldViolation> violations = toValidatorMsg(fieldErrors);
+        return createErrorViewModel(HttpStatus.BAD_REQUEST.value(), message, violations, HttpStatus.BAD_REQUEST);
     }
 
     /**
@@ -195,25 +307,27 @@ public class GlobalExceptionHandler {
      * @param fieldErrors 字段错误信息
      * @return 简化后的错误信息
      */
-    private List<Map<String, String>> toValidatorMsg(List<FieldError> fieldErrors) {
-        List<Map<String, String>> mapList = new ArrayList<>();
-        // 循环提取
+    private List<FieldViolation> toValidatorMsg(List<FieldError> fieldErrors) {
+        final List<FieldViolation> violations = new ArrayList<>(fieldErrors.size());
         for (FieldError fieldError : fieldErrors) {
-            Map<String, String> map = new HashMap<>();
-            // 获取验证失败的属性
-            map.put("field", fieldError.getField());
-            // 获取验证失败的的提示信息
-            map.put("msg", fieldError.getDefaultMessage());
-            mapList.add(map);
+            // 验证失败的属性、约束名 和 提示信息
+            violations.add(FieldViolation.of(fieldError.getField(), fieldError.getCode(), fieldError.getDefaultMessage()));
         }
-        return mapList;
+        return violations;
     }
 
     private String getFieldErrorMessage(List<FieldError> fieldErrors) {
-        String message = "参数错误";
-        if (!CollectionUtils.isEmpty(fieldErrors)) {
-            message = String.format("%s 参数出错", fieldErrors.stream().map(FieldError::getField).collect(Collectors.joining(",")));
+        if (CollectionUtils.isEmpty(fieldErrors)) {
+            return "参数错误";
+        }
+        final int size = fieldErrors.size();
+        final StringBuilder message = new StringBuilder(size * 16 + 5);
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                message.append(',');
+            }
+            message.append(fieldErrors.get(i).getField());
         }
-        return message;
+        return message.append(" 参数出错").toString();
     }
 }
@@ -2,60 +2,137 @@ package com.jlee.configurer;
 
 import com.jlee.config.ResponseResultProperties;
 import com.jlee.exception.ErrorViewModel;
+import com.jlee.model.StreamingPageResult;
 import com.jlee.result.ResponseResult;
+import org.springframework.core.GenericTypeResolver;
 import org.springframework.core.MethodParameter;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.GenericHttpMessageConverter;
 import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
 import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
-import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.context.request.NativeWebRequest;
-import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
 import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.HandlerMapping;
 import org.springframework.web.servlet.mvc.method.annotation.HttpEntityMethodProcessor;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Type;
 import java.net.URLEncoder;
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.Enumeration;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 包装返回值
+ * <p>每个处理器方法第一次被调用时会生成一份包装计划 {@link WrappingPlan} 并缓存，后续调用只需要按计划组装 ResponseEntity 并写出 body</p>
  *
  * @author jlee
  */
 public class ReturnValueHandler extends HttpEntityMethodProcessor implements HandlerMethodReturnValueHandler {
 
+    /**
+     * ResponseEntity 中 getBody 方法，真正的结果集类型由该方法的返回值描述
+     */
+    private static final Method BODY_METHOD = ClassUtils.getMethod(ResponseEntity.class, "getBody");
+
+    /**
+     * getBody 方法的返回值参数，所有 body 类型的 MethodParameter 都从这里复制
+     */
+    private static final MethodParameter BODY_RETURN_TYPE = new MethodParameter(BODY_METHOD, -1);
+
+    /**
+     * 写出 body 时使用的目标类型，与父类中通过 getBody 返回值解析出来的类型一致
+     */
+    private static final Type BODY_TARGET_TYPE = GenericTypeResolver.resolveType(BODY_METHOD.getGenericReturnType(), ResponseEntity.class);
+
+    /**
+     * application/* 类型，内容协商中遇到该类型时父类会使用 application/octet-stream
+     */
+    private static final MediaType APPLICATION_ALL = new MediaType("application");
+
     private final ResponseResultProperties responseResultProperties;
 
+    /**
+     * 每个处理器方法的包装计划，key 为处理器方法的返回值参数
+     */
+    private final Map<MethodParameter, WrappingPlan> wrappingPlanCache = new ConcurrentHashMap<>(256);
+
+    /**
+     * 响应头模式下 提示信息的最大缓存数量，超过后不再缓存 (避免拼接了动态内容的提示信息撑大缓存)
+     */
+    private static final int MESSAGE_HEADER_CACHE_LIMIT = 1024;
+
+    /**
+     * 响应头模式下 缓存字符串形式的状态码范围 [0, CODE_HEADER_CACHE_SIZE)
+     */
+    private static final int CODE_HEADER_CACHE_SIZE = 1024;
+
+    /**
+     * 响应头模式下 每个状态枚举 (ResultStatus 枚举、HttpStatus) 对应的响应头的值
+     */
+    private final Map<Object, HeaderValues> statusHeaderCache = new ConcurrentHashMap<>(64);
+
+    /**
+     * 响应头模式下 提示信息 → URL 编码后的提示信息
+     */
+    private final Map<String, String> messageHeaderCache = new ConcurrentHashMap<>(64);
+
+    /**
+     * 响应头模式下 状态码 → 字符串形式的状态码，按需填充，并发填充时写入的都是相同内容的字符串
+     */
+    private final String[] codeHeaderCache = new String[CODE_HEADER_CACHE_SIZE];
+
+    /**
+     * 是否可以直接使用包装计划中缓存的转换器写出结果集
+     * 只有使用默认的 ContentNegotiationManager (只根据请求头协商) 且没有 ResponseBodyAdvice 时，才能跳过父类的内容协商
+     */
+    private final boolean converterCacheable;
+
     public ReturnValueHandler(ResponseResultProperties responseResultProperties, List<HttpMessageConverter<?>> converters) {
         super(converters);
         this.responseResultProperties = responseResultProperties;
+        this.converterCacheable = true;
     }
 
     public ReturnValueHandler(ResponseResultProperties responseResultProperties, List<HttpMessageConverter<?>> converters,
                               ContentNegotiationManager manager) {
         super(converters, manager);
         this.responseResultProperties = responseResultProperties;
+        this.converterCacheable = manager == null;
     }
 
     public ReturnValueHandler(ResponseResultProperties responseResultProperties, List<HttpMessageConverter<?>> converters,
                               List<Object> requestResponseBodyAdvice) {
         super(converters, null, requestResponseBodyAdvice);
         this.responseResultProperties = responseResultProperties;
+        this.converterCacheable = CollectionUtils.isEmpty(requestResponseBodyAdvice);
     }
 
     public ReturnValueHandler(ResponseResultProperties responseResultProperties, List<HttpMessageConverter<?>> converters,
                               @Nullable ContentNegotiationManager manager, List<Object> requestResponseBodyAdvice) {
         super(converters, manager, requestResponseBodyAdvice);
         this.responseResultProperties = responseResultProperties;
+        this.converterCacheable = manager == null && CollectionUtils.isEmpty(requestResponseBodyAdvice);
     }
 
     @Override
@@ -72,93 +149,498 @@ public class ReturnValueHandler extends HttpEntityMethodProcessor implements Han
                                   @NonNull ModelAndViewContainer mavContainer, @NonNull NativeWebRequest webRequest)
             throws Exception {
 
+        final WrappingPlan plan = this.wrappingPlanCache.computeIfAbsent(returnType, this::createWrappingPlan);
+
+        final ResponseResult<?> responseResult = plan.toResponseResult(returnValue);
 
-        ResponseResult<?> responseResult;
+        if (plan.layout == Layout.HEADER && !(responseResult.getResult() instanceof Resource)) {
+            // 业务code 和 message 写入到响应头中
+            writeResultHeaders(plan, responseResult, webRequest);
+        }
+
+        // 最后封装成ResponseEntity
+        final ResponseEntity<?> responseEntity = plan.toResponseEntity(responseResult);
 
-        if (returnValue instanceof ErrorViewModel) {
-            Assert.isInstanceOf(ErrorViewModel.class, returnValue);
-            ErrorViewModel errorViewModel = (ErrorViewModel) returnValue;
-            HttpStatus status = errorViewModel.getStatus();
-            if (status == null) {
-                //  异常 返回值 HttpStatus 没指定时取默认值
-                status = responseResultProperties.getFailHttpStatus();
+        if (responseResult.getResult() instanceof StreamingPageResult) {
+            // 流式分页数据在序列化时逐行写出，写出结束 (或者失败、没有写出) 后关闭数据源
+            try (StreamingPageResult<?> ignored = (StreamingPageResult<?>) responseResult.getResult()) {
+                super.handleReturnValue(responseEntity, plan.getBodyType(responseEntity.getBody()), mavContainer, webRequest);
             }
-            responseResult = ResponseResult.of(errorViewModel.getCode(), errorViewModel.getMessage(), null, status);
-        } else if (returnValue instanceof ResponseResult) {
-            Assert.isInstanceOf(ResponseResult.class, returnValue);
-            responseResult = (ResponseResult<?>) returnValue;
-        } else {
-            // 将其他类型转成ResponseResult
-            responseResult = ResponseResult.of(returnValue);
-            // 这里不需要对String类型特殊处理，因为我的自定义的Handler会先被执行然后返回给前端
-            // 如果是使用 实现ResponseBodyAdvice类的方式来进行统一类型转换就需要对String类型的返回值进行特殊处理
-            // 因为 AbstractMessageConverterMethodProcessor的writeWithMessageConverters方法会先执行，传入都是原始的类型和数据
-            // 然后 writeWithMessageConverters 会调用 beforeBodyWrite 拿去转换前的数据，但记录的类型还是beforeBodyWrite之前的类型
-            // 对于 String会用StringHttpMessageConverter转换器进行转换，如果不特殊处理就无法转换
+            return;
         }
 
-        ResponseEntity<?> responseEntity;
+        // 使用父类去处理，然后返回
+        super.handleReturnValue(responseEntity, plan.getBodyType(responseEntity.getBody()), mavContainer, webRequest);
+    }
+
+    @Override
+    protected <T> void writeWithMessageConverters(@Nullable T value, MethodParameter returnType,
+                                                  ServletServerHttpRequest inputMessage, ServletServerHttpResponse outputMessage)
+            throws IOException, HttpMediaTypeNotAcceptableException, HttpMessageNotWritableException {
 
+        if (value instanceof Resource && FileDownloadWriter.supports((Resource) value)
+                && FileDownloadWriter.write((Resource) value, inputMessage, outputMessage)) {
+            // 文件下载不经过转换器，文件内容不读入内存
+            return;
+        }
+        if (value instanceof ResponseResult && returnType instanceof BodyMethodParameter) {
+            final WrappingPlan plan = ((BodyMethodParameter) returnType).plan;
+            if (plan.envelopeConverter != null && isNegotiationSkippable(plan.envelopeMediaType, inputMessage, outputMessage)) {
+                writeEnvelope(value, plan.envelopeConverter, plan.envelopeMediaType, outputMessage);
+                return;
+            }
+        }
+        super.writeWithMessageConverters(value, returnType, inputMessage, outputMessage);
+    }
+
+    /**
+     * 响应头模式下 将业务code 和 message 直接写入 servlet 响应头，不再经过 HttpHeaders
+     *
+     * @param plan           包装计划
+     * @param responseResult 结果集
+     * @param webRequest     当前请求
+     * @throws UnsupportedEncodingException 不会抛出
+     */
+    private void writeResultHeaders(WrappingPlan plan, ResponseResult<?> responseResult, NativeWebRequest webRequest)
+            throws UnsupportedEncodingException {
+        final HeaderValues headerValues = obtainHeaderValues(responseResult);
+        final HttpServletResponse response = webRequest.getNativeResponse(HttpServletResponse.class);
         HttpHeaders headers = responseResult.getHeaders();
+        if (response != null && (headers == null
+                || !headers.containsKey(plan.codeHeadTitle) && !headers.containsKey(plan.messageHeadTitle))) {
+            response.setHeader(plan.codeHeadTitle, headerValues.code);
+            response.setHeader(plan.messageHeadTitle, headerValues.encodedMessage);
+            return;
+        }
+        // 结果集中已经带有同名响应头时，与原来一样覆盖结果集中的值
         if (headers == null) {
             headers = new HttpHeaders();
+            responseResult.setHeaders(headers);
         }
+        headers.set(plan.codeHeadTitle, headerValues.code);
+        headers.set(plan.messageHeadTitle, headerValues.encodedMessage);
+    }
 
-        // 最后封装成ResponseEntity
-        if (this.responseResultProperties.isEnabledHttpStatus()) {
-            HttpStatus httpStatus = responseResult.getHttpStatus();
-            if (httpStatus == null) {
-                // 取不到 HttpStatus 设置为 200
-                httpStatus = HttpStatus.OK;
+    /**
+     * 获取结果集对应的响应头的值，状态为枚举且 code、message 未被修改时直接使用缓存
+     *
+     * @param responseResult 结果集
+     * @return 响应头的值
+     * @throws UnsupportedEncodingException 不会抛出
+     */
+    private HeaderValues obtainHeaderValues(ResponseResult<?> responseResult) throws UnsupportedEncodingException {
+        final Object status = responseResult.getStatus();
+        final String message = responseResult.getMessage() != null ? responseResult.getMessage() : "";
+        if (status instanceof Enum) {
+            final HeaderValues cached = this.statusHeaderCache.get(status);
+            if (cached != null && cached.matches(responseResult.getCode(), message)) {
+                return cached;
+            }
+        }
+        final HeaderValues headerValues = new HeaderValues(responseResult.getCode(), message,
+                formatCode(responseResult.getCode()), encodeMessage(message));
+        if (status instanceof Enum) {
+            // 以最近一次的 code、message 为准
+            this.statusHeaderCache.put(status, headerValues);
+        }
+        return headerValues;
+    }
+
+    private String formatCode(int code) {
+        if (code < 0 || code >= CODE_HEADER_CACHE_SIZE) {
+            return Integer.toString(code);
+        }
+        String value = this.codeHeaderCache[code];
+        if (value == null) {
+            value = Integer.toString(code);
+            this.codeHeaderCache[code] = value;
+        }
+        return value;
+    }
+
+    private String encodeMessage(String message) throws UnsupportedEncodingException {
+        String encoded = this.messageHeaderCache.get(message);
+        if (encoded == null) {
+            // 提示信息进行URL编码，避免中文乱码
+            encoded = URLEncoder.encode(message, "utf-8");
+            if (this.messageHeaderCache.size() < MESSAGE_HEADER_CACHE_LIMIT) {
+                this.messageHeaderCache.put(message, encoded);
             }
-            final String codeHeadTitle = responseResultProperties.getCodeHeadTitle();
-            if (StringUtils.hasText(codeHeadTitle)) {
+        }
+        return encoded;
+    }
+
+    /**
+     * 为处理器方法创建包装计划
+     *
+     * @param returnType 处理器方法的返回值参数
+     * @return 包装计划
+     */
+    private WrappingPlan createWrappingPlan(MethodParameter returnType) {
+        final Layout layout;
+        if (this.responseResultProperties.isEnabledHttpStatus()) {
+            layout = StringUtils.hasText(this.responseResultProperties.getCodeHeadTitle()) ? Layout.HEADER : Layout.STATUS_BODY;
+        } else {
+            layout = Layout.BODY;
+        }
+        // 传入的 returnType 中参数类型是本次返回值的真实类型，这里需要的是方法声明的返回值类型
+        final Method method = returnType.getMethod();
+        final Class<?> declaredType = method != null ? method.getReturnType() : Object.class;
+        final WrappingPlan plan = new WrappingPlan(ValueKind.of(declaredType), layout,
+                this.responseResultProperties.getFailHttpStatus(),
+                this.responseResultProperties.getCodeHeadTitle(),
+                this.responseResultProperties.getMessageHeadTitle());
+
+        if (this.converterCacheable && layout != Layout.HEADER) {
+            selectEnvelopeConverter(plan);
+        }
+        return plan;
+    }
 
-                // 业务code 内容 写入到响应头中
-                headers.put(codeHeadTitle, Collections.singletonList(String.valueOf(responseResult.getCode())));
+    /**
+     * 按照父类内容协商的规则，找出请求头未指定 Accept 时写出 ResponseResult 所使用的转换器和媒体类型
+     *
+     * @param plan 包装计划
+     */
+    private void selectEnvelopeConverter(WrappingPlan plan) {
+        final List<MediaType> producibleTypes = new ArrayList<>();
+        for (HttpMessageConverter<?> converter : this.messageConverters) {
+            if (canWrite(converter, null)) {
+                producibleTypes.addAll(converter.getSupportedMediaTypes(ResponseResult.class));
+            }
+        }
+        MediaType.sortBySpecificityAndQuality(producibleTypes);
 
-                final String messageHeadTitle = responseResultProperties.getMessageHeadTitle();
-                // message 内容 写入到响应头中
-                // 提示信息进行URL编码，避免中文乱码
-                headers.put(messageHeadTitle, Collections.singletonList(URLEncoder.encode(responseResult.getMessage(), "utf-8")));
-                // 业务状态码写入响应头
+        MediaType selectedMediaType = null;
+        for (MediaType mediaType : producibleTypes) {
+            if (mediaType.isConcrete()) {
+                selectedMediaType = mediaType.removeQualityValue();
+                break;
+            } else if (mediaType.isWildcardType() || APPLICATION_ALL.equalsTypeAndSubtype(mediaType)) {
+                break;
+            }
+        }
+        if (selectedMediaType == null) {
+            // 选不出具体的类型时交给父类处理
+            return;
+        }
 
-                // body 中只包含Data内容
-                responseEntity = new ResponseEntity<>(responseResult.getResult(), headers, httpStatus);
-            } else {
-                // 将状态code设置到Http响应头中
-                // body 中同样 包含状态和提示信息
-                responseEntity = new ResponseEntity<>(responseResult, headers, httpStatus);
+        for (HttpMessageConverter<?> converter : this.messageConverters) {
+            if (canWrite(converter, selectedMediaType)) {
+                plan.envelopeConverter = converter;
+                plan.envelopeMediaType = selectedMediaType;
+                return;
             }
+        }
+    }
+
+    private static boolean canWrite(HttpMessageConverter<?> converter, @Nullable MediaType mediaType) {
+        if (converter instanceof GenericHttpMessageConverter) {
+            return ((GenericHttpMessageConverter<?>) converter).canWrite(BODY_TARGET_TYPE, ResponseResult.class, mediaType);
+        }
+        return converter.canWrite(ResponseResult.class, mediaType);
+    }
 
+    /**
+     * 判断本次请求是否可以跳过内容协商，直接使用缓存的转换器
+     *
+     * @param mediaType      缓存的媒体类型
+     * @param inputMessage   请求
+     * @param outputMessage  响应
+     * @return 协商结果必然与缓存一致时返回 true
+     */
+    private static boolean isNegotiationSkippable(MediaType mediaType, ServletServerHttpRequest inputMessage,
+                                                  ServletServerHttpResponse outputMessage) {
+        if (outputMessage.getHeaders().getContentType() != null) {
+            // 响应头中已经指定了 Content-Type
+            return false;
+        }
+        final HttpServletRequest request = inputMessage.getServletRequest();
+        if (request.getAttribute(HandlerMapping.PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE) != null) {
+            // @RequestMapping 中指定了 produces
+            return false;
+        }
+        final String uri = request.getRequestURI();
+        final int lastSlash = uri.lastIndexOf('/');
+        if (uri.indexOf('.', lastSlash) != -1 || uri.indexOf(';', lastSlash) != -1) {
+            // 带有扩展名的请求需要父类添加 Content-Disposition 头防止 RFD 攻击
+            return false;
+        }
+
+        final Enumeration<String> accepts = request.getHeaders(HttpHeaders.ACCEPT);
+        if (accepts == null || !accepts.hasMoreElements()) {
+            return true;
+        }
+        final String accept = accepts.nextElement();
+        if (accepts.hasMoreElements()) {
+            return false;
+        }
+        final int comma = accept.indexOf(',');
+        final String firstAccept = (comma == -1 ? accept : accept.substring(0, comma)).trim();
+        if (firstAccept.indexOf(';') != -1) {
+            return false;
+        }
+        // 只有 */* 或者第一个类型正好是缓存的类型时，协商结果才与缓存一致
+        return comma == -1 && (firstAccept.isEmpty() || MediaType.ALL_VALUE.equals(firstAccept))
+                || firstAccept.equalsIgnoreCase(mediaType.toString());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static void writeEnvelope(Object value, HttpMessageConverter<?> converter, MediaType mediaType,
+                                      ServletServerHttpResponse outputMessage) throws IOException {
+        if (converter instanceof GenericHttpMessageConverter) {
+            ((GenericHttpMessageConverter) converter).write(value, BODY_TARGET_TYPE, mediaType, outputMessage);
         } else {
+            ((HttpMessageConverter) converter).write(value, mediaType, outputMessage);
+        }
+    }
 
-            List<String> contentTypes = headers.get(HttpHeaders.CONTENT_TYPE);
-            boolean isJson = false;
-            if (!CollectionUtils.isEmpty(contentTypes)) {
-                for (String contentType : contentTypes) {
-                    if (contentType.contains(MediaType.APPLICATION_JSON_VALUE)) {
-                        isJson = true;
-                        break;
-                    }
+    /**
+     * 处理器方法返回值的种类，根据声明的返回值类型确定，声明类型无法确定时在运行时判断
+     */
+    private enum ValueKind {
+        /**
+         * 异常处理返回的 ErrorViewModel
+         */
+        ERROR_VIEW,
+        /**
+         * 已经是 ResponseResult
+         */
+        RESPONSE_RESULT,
+        /**
+         * 其他需要包装的类型
+         */
+        PLAIN,
+        /**
+         * 声明的类型无法确定，需要运行时判断
+         */
+        DYNAMIC;
+
+        static ValueKind of(Class<?> declaredType) {
+            if (ErrorViewModel.class.isAssignableFrom(declaredType)) {
+                return ERROR_VIEW;
+            } else if (ResponseResult.class.isAssignableFrom(declaredType)) {
+                return RESPONSE_RESULT;
+            } else if (declaredType.isAssignableFrom(ErrorViewModel.class) || declaredType.isAssignableFrom(ResponseResult.class)) {
+                // Object 之类的声明，实际值可能是任意类型
+                return DYNAMIC;
+            }
+            return PLAIN;
+        }
+    }
+
+    /**
+     * 响应头和响应体的组织方式，由配置文件决定
+     */
+    private enum Layout {
+        /**
+         * 未启用 Http 状态，body 中包含状态、提示信息和 data
+         */
+        BODY,
+        /**
+         * 启用 Http 状态，body 中同样包含状态、提示信息和 data
+         */
+        STATUS_BODY,
+        /**
+         * 启用 Http 状态，状态和提示信息写入响应头，body 中只包含 data
+         */
+        HEADER
+    }
+
+    /**
+     * 单个处理器方法的包装计划
+     */
+    private static final class WrappingPlan {
+
+        private final ValueKind valueKind;
+        private final Layout layout;
+        private final HttpStatus failHttpStatus;
+        private final String codeHeadTitle;
+        private final String messageHeadTitle;
+
+        /**
+         * 写出 ResponseResult 时选中的转换器和媒体类型，为 null 时交给父类协商
+         */
+        @Nullable
+        private HttpMessageConverter<?> envelopeConverter;
+        @Nullable
+        private MediaType envelopeMediaType;
+
+        /**
+         * 最近一次使用的 body 类型，body 类型不变时直接复用
+         */
+        @Nullable
+        private volatile BodyMethodParameter bodyType;
+
+        WrappingPlan(ValueKind valueKind, Layout layout, HttpStatus failHttpStatus, String codeHeadTitle, String messageHeadTitle) {
+            this.valueKind = valueKind;
+            this.layout = layout;
+            this.failHttpStatus = failHttpStatus;
+            this.codeHeadTitle = codeHeadTitle;
+            this.messageHeadTitle = messageHeadTitle;
+        }
+
+        ResponseResult<?> toResponseResult(@Nullable Object returnValue) {
+            ValueKind kind = this.valueKind;
+            if (returnValue == null || kind == ValueKind.DYNAMIC) {
+                if (returnValue instanceof ErrorViewModel) {
+                    kind = ValueKind.ERROR_VIEW;
+                } else if (returnValue instanceof ResponseResult) {
+                    kind = ValueKind.RESPONSE_RESULT;
+                } else {
+                    kind = ValueKind.PLAIN;
                 }
-            } else {
-                isJson = true;
             }
-            if (isJson) {
-                responseEntity = new ResponseEntity<>(responseResult, headers, HttpStatus.OK);
-            } else {
-                // 如果响应头中被设置成非json的数据那么，就返回data
-                responseEntity = new ResponseEntity<>(responseResult.getResult(), headers, HttpStatus.OK);
+
+            switch (kind) {
+                case ERROR_VIEW:
+                    ErrorViewModel errorViewModel = (ErrorViewModel) returnValue;
+                    HttpStatus status = errorViewModel.getStatus();
+                    if (status == null) {
+                        //  异常 返回值 HttpStatus 没指定时取默认值
+                        status = this.failHttpStatus;
+                    }
+                    // 字段校验错误 (FieldViolation) 作为 result 返回给前端
+                    final List<?> errors = errorViewModel.getErrors();
+                    return ResponseResult.of(errorViewModel.getCode(), errorViewModel.getMessage(),
+                            errors == null || errors.isEmpty() ? null : errors, status);
+                case RESPONSE_RESULT:
+                    return (ResponseResult<?>) returnValue;
+                default:
+                    // 将其他类型转成ResponseResult
+                    // 这里不需要对String类型特殊处理，因为我的自定义的Handler会先被执行然后返回给前端
+                    // 如果是使用 实现ResponseBodyAdvice类的方式来进行统一类型转换就需要对String类型的返回值进行特殊处理
+                    // 因为 AbstractMessageConverterMethodProcessor的writeWithMessageConverters方法会先执行，传入都是原始的类型和数据
+                    // 然后 writeWithMessageConverters 会调用 beforeBodyWrite 拿去转换前的数据，但记录的类型还是beforeBodyWrite之前的类型
+                    // 对于 String会用StringHttpMessageConverter转换器进行转换，如果不特殊处理就无法转换
+                    return ResponseResult.of(returnValue);
             }
         }
 
-        // 获取真正的结果集类型
-        final HandlerMethod bodyMethod = new HandlerMethod(responseEntity, "getBody");
-        final MethodParameter returnValueType = bodyMethod.getReturnValueType(responseEntity.getBody());
+        ResponseEntity<?> toResponseEntity(ResponseResult<?> responseResult) {
+            final HttpHeaders headers = responseResult.getHeaders();
+            if (responseResult.getResult() instanceof Resource) {
+                // 文件下载不包装，body 直接是文件资源
+                return new ResponseEntity<>(responseResult.getResult(), headers, HttpStatus.OK);
+            }
 
-        // 使用父类去处理，然后返回
-        super.handleReturnValue(responseEntity, returnValueType, mavContainer, webRequest);
+            switch (this.layout) {
+                case HEADER:
+                    // 业务code 和 message 已经由 writeResultHeaders 写入响应头
+                    // body 中只包含Data内容
+                    return new ResponseEntity<>(responseResult.getResult(), headers, obtainHttpStatus(responseResult));
+                case STATUS_BODY:
+                    // 将状态code设置到Http响应头中
+                    // body 中同样 包含状态和提示信息
+                    return new ResponseEntity<>(responseResult, headers, obtainHttpStatus(responseResult));
+                default:
+                    if (isJson(headers)) {
+                        return new ResponseEntity<>(responseResult, headers, HttpStatus.OK);
+                    }
+                    // 如果响应头中被设置成非json的数据那么，就返回data
+                    return new ResponseEntity<>(responseResult.getResult(), headers, HttpStatus.OK);
+            }
+        }
+
+        /**
+         * 获取 body 对应的 MethodParameter，描述真正的结果集类型
+         *
+         * @param body 响应体
+         * @return MethodParameter
+         */
+        MethodParameter getBodyType(@Nullable Object body) {
+            final Class<?> bodyClass = body != null ? body.getClass() : null;
+            BodyMethodParameter bodyType = this.bodyType;
+            if (bodyType == null || bodyType.bodyClass != bodyClass) {
+                bodyType = new BodyMethodParameter(bodyClass, this);
+                this.bodyType = bodyType;
+            }
+            return bodyType;
+        }
+
+        private static HttpStatus obtainHttpStatus(ResponseResult<?> responseResult) {
+            final HttpStatus httpStatus = responseResult.getHttpStatus();
+            // 取不到 HttpStatus 设置为 200
+            return httpStatus != null ? httpStatus : HttpStatus.OK;
+        }
+
+        private static boolean isJson(@Nullable HttpHeaders headers) {
+            if (headers == null) {
+                return true;
+            }
+            final List<String> contentTypes = headers.get(HttpHeaders.CONTENT_TYPE);
+            if (CollectionUtils.isEmpty(contentTypes)) {
+                return true;
+            }
+            for (String contentType : contentTypes) {
+                if (contentType.contains(MediaType.APPLICATION_JSON_VALUE)) {
+                    return true;
+                }
+            }
+            return false;
+        }
     }
 
-}
\ No newline at end of file
+    /**
+     * 响应头模式下 写入响应头的状态码和 URL 编码后的提示信息
+     */
+    private static final class HeaderValues {
+
+        private final int codeValue;
+        private final String message;
+        private final String code;
+        private final String encodedMessage;
+
+        HeaderValues(int codeValue, String message, String code, String encodedMessage) {
+            this.codeValue = codeValue;
+            this.message = message;
+            this.code = code;
+            this.encodedMessage = encodedMessage;
+        }
+
+        boolean matches(int codeValue, String message) {
+            return this.codeValue == codeValue && this.message.equals(message);
+        }
+    }
+
+    /**
+     * ResponseEntity 中 getBody 方法的返回值参数，参数类型为真正的 body 类型，
+     * 与 HandlerMethod#getReturnValueType 得到的参数一致，但不需要每次通过反射创建 HandlerMethod
+     */
+    private static final class BodyMethodParameter extends MethodParameter {
+
+        @Nullable
+        private final Class<?> bodyClass;
+        private final WrappingPlan plan;
+
+        BodyMethodParameter(@Nullable Class<?> bodyClass, WrappingPlan plan) {
+            super(BODY_RETURN_TYPE);
+            this.bodyClass = bodyClass;
+            this.plan = plan;
+        }
+
+        private BodyMethodParameter(BodyMethodParameter original) {
+            super(original);
+            this.bodyClass = original.bodyClass;
+            this.plan = original.plan;
+        }
+
+        @Override
+        @NonNull
+        public Class<?> getContainingClass() {
+            return ResponseEntity.class;
+        }
+
+        @Override
+        @NonNull
+        public Class<?> getParameterType() {
+            return this.bodyClass != null ? this.bodyClass : super.getParameterType();
+        }
+
+        @Override
+        @NonNull
+        public BodyMethodParameter clone() {
+            return new BodyMethodParameter(this);
+        }
+    }
+}
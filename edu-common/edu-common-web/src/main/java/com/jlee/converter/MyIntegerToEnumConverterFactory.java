@@ -1,15 +1,26 @@
 package com.jlee.converter;
 
+import com.jlee.annotation.EnumCode;
+import com.jlee.result.ResultStatus;
 import com.jlee.utils.EnumUtils;
+import com.jlee.utils.IntEnumTable;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.core.convert.converter.ConverterFactory;
 import org.springframework.lang.Nullable;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Method;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.ToIntFunction;
 
 /**
+ * springMVC Integer 转枚举类的转换器
+ * <p>
+ * 每个枚举类型在第一次转换时创建一张 int → 枚举对象 的查找表 ({@link IntEnumTable})：
+ * 枚举中有 {@link EnumCode} 标记的字段或方法、或者实现了 {@link ResultStatus} 时按状态码查找，否则按 ordinal 查找；
+ * 查表不到时如果有 JsonCreator 工厂方法则交给工厂方法，否则抛出 IllegalArgumentException
+ *
  * @author jlee
  */
 @SuppressWarnings({"unchecked"})
@@ -42,29 +53,41 @@ public final class MyIntegerToEnumConverterFactory implements ConverterFactory<I
 
     public static class EnumMvcConverter<T extends Enum<T>> implements Converter<Integer, T> {
 
-        private final Method method;
-        private final Class<?> enumType;
-
-        public EnumMvcConverter(Class<?> enumType, Method method) {
-            this.enumType = enumType;
-            this.method = method;
-            if (method != null) {
-                this.method.setAccessible(true);
+        @Nullable
+        private final MethodHandle creator;
+        /**
+         * 状态码 (或 ordinal) → 枚举对象；有 JsonCreator 且没有声明状态码时为 null，全部交给工厂方法
+         */
+        @Nullable
+        private final IntEnumTable<T> table;
+
+        public EnumMvcConverter(Class<?> enumType, @Nullable Method method) {
+            final Class<T> type = (Class<T>) enumType;
+            final ToIntFunction<Object> codeFunc = EnumUtils.getEnumCodeFunction(type);
+            this.creator = method == null ? null : EnumUtils.getJsonCreatorHandle(method);
+            if (codeFunc != null) {
+                this.table = IntEnumTable.of(type, codeFunc);
+            } else {
+                // 有工厂方法时保持原来的行为，数字交给工厂方法处理
+                this.table = method == null ? IntEnumTable.ofOrdinal(type) : null;
             }
         }
 
         @Override
         public T convert(Integer source) {
-            try {
-                if (method == null) {
-                    //  没有加注解
-                    //  从 int类型中取
-                    return ((T[]) this.enumType.getEnumConstants())[source];
-
+            if (this.table != null) {
+                final T value = this.table.get(source);
+                if (value != null) {
+                    return value;
+                }
+                if (this.creator == null) {
+                    return this.table.getRequired(source);
                 }
-                // 有加注解直接走注解方法
-                return (T) method.invoke(null, String.valueOf(source));
-            } catch (Exception e) {
+            }
+            // 有加注解直接走注解方法
+            try {
+                return (T) (Object) this.creator.invokeExact(String.valueOf(source));
+            } catch (Throwable e) {
                 throw new IllegalArgumentException(e);
             }
         }
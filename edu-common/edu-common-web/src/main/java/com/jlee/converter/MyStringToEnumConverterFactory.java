@@ -6,13 +6,22 @@ import org.springframework.core.convert.converter.Converter;
 import org.springframework.core.convert.converter.ConverterFactory;
 import org.springframework.lang.Nullable;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
 /**
  * springMVC 枚举类的转换器
  * 如果枚举类中有工厂方法(静态方法)被标记为@{@link JsonValue },则调用该方法转为枚举对象
+ * <p>
+ * 每个枚举类型在第一次转换时创建一张不可变的查找表 (name、@JsonValue 的值、ordinal → 枚举对象)，之后的转换只需一次 Map 查找，
+ * 不再复制 getEnumConstants() 数组，也不再靠 Integer.parseInt 的异常判断是否为 ordinal；
+ * 工厂方法绑定为 MethodHandle 调用，开启 precomputeJsonCreator 时还会预先用每个枚举对象的字符串形式调用一次工厂方法并缓存结果
+ * (只适用于没有副作用、相同入参总是返回相同枚举对象的工厂方法)
  *
  * @author jlee
  */
@@ -21,10 +30,23 @@ public class MyStringToEnumConverterFactory implements ConverterFactory<String,
 
     private final ConcurrentMap<Class<? extends Enum<?>>, EnumMvcConverterHolder> holderMapper = new ConcurrentHashMap<>();
 
+    /**
+     * 是否预先计算 JsonCreator 工厂方法的结果
+     */
+    private final boolean precomputeJsonCreator;
+
+    public MyStringToEnumConverterFactory() {
+        this(false);
+    }
+
+    public MyStringToEnumConverterFactory(boolean precomputeJsonCreator) {
+        this.precomputeJsonCreator = precomputeJsonCreator;
+    }
 
     @Override
     public <T extends Enum<?>> Converter<String, T> getConverter(Class<T> targetType) {
-        EnumMvcConverterHolder holder = holderMapper.computeIfAbsent(targetType, EnumMvcConverterHolder::createHolder);
+        EnumMvcConverterHolder holder = holderMapper.computeIfAbsent(targetType,
+                type -> EnumMvcConverterHolder.createHolder(type, this.precomputeJsonCreator));
         return (Converter<String, T>) holder.converter;
     }
 
@@ -38,22 +60,40 @@ public class MyStringToEnumConverterFactory implements ConverterFactory<String,
         }
 
         static <T extends Enum<?>> EnumMvcConverterHolder createHolder(Class<T> targetType) {
+            return createHolder(targetType, false);
+        }
+
+        static <T extends Enum<?>> EnumMvcConverterHolder createHolder(Class<T> targetType, boolean precomputeJsonCreator) {
             Method method = EnumUtils.getJsonCreatorMethod(targetType);
-            return new EnumMvcConverterHolder(new EnumMvcConverter<>(targetType, method));
+            return new EnumMvcConverterHolder(new EnumMvcConverter<>(targetType, method, precomputeJsonCreator));
         }
 
     }
 
     public static class EnumMvcConverter<T extends Enum<T>> implements Converter<String, T> {
 
-        private final Method method;
         private final Class<?> enumType;
+        private final T[] enumValues;
+        /**
+         * 字符串 → 枚举对象，创建后不再修改
+         */
+        private final Map<String, T> lookupTable;
+        @Nullable
+        private final MethodHandle creator;
 
         public EnumMvcConverter(Class<?> enumType, Method method) {
+            this(enumType, method, false);
+        }
+
+        public EnumMvcConverter(Class<?> enumType, @Nullable Method method, boolean precomputeJsonCreator) {
             this.enumType = enumType;
-            this.method = method;
-            if (method != null) {
-                this.method.setAccessible(true);
+            this.enumValues = (T[]) enumType.getEnumConstants();
+            if (method == null) {
+                this.creator = null;
+                this.lookupTable = createLookupTable();
+            } else {
+                this.creator = EnumUtils.getJsonCreatorHandle(method);
+                this.lookupTable = precomputeJsonCreator ? precomputeCreatorTable() : Collections.emptyMap();
             }
         }
 
@@ -63,26 +103,111 @@ public class MyStringToEnumConverterFactory implements ConverterFactory<String,
                 // reset the enum value to null.
                 return null;
             }
+            T value = this.lookupTable.get(source);
+            if (value != null) {
+                return value;
+            }
+            if (this.creator == null) {
+                //  没有加注解， source 不是标准写法的 ordinal (如 "01") 时再尝试按 int 取
+                int ordinal = parseOrdinal(source);
+                if (ordinal >= 0 && ordinal < this.enumValues.length) {
+                    return this.enumValues[ordinal];
+                }
+                throw new IllegalArgumentException("No enum constant " + this.enumType.getName() + " for value '" + source + "'");
+            }
+            // 有加注解直接走注解方法
             try {
-                if (method == null) {
-                    //  没有加注解
-                    Enum<?>[] enumValues = (Enum<?>[]) this.enumType.getEnumConstants();
-                    for (Enum<?> enumValue : enumValues) {
-                        if (enumValue.name().equals(source)) {
-                            return (T) enumValue;
-                        }
+                return (T) (Object) this.creator.invokeExact(source);
+            } catch (Throwable e) {
+                throw new IllegalArgumentException(e);
+            }
+        }
+
+        /**
+         * 没有 JsonCreator 时的查找表，name 优先，其次是 @JsonValue 的值，最后是 ordinal
+         */
+        private Map<String, T> createLookupTable() {
+            final Map<String, T> table = new HashMap<>(this.enumValues.length * 6);
+            for (T enumValue : this.enumValues) {
+                table.put(enumValue.name(), enumValue);
+            }
+            final Method jsonValueMethod = EnumUtils.getJsonValueMethod((Class<T>) this.enumType);
+            if (jsonValueMethod != null) {
+                for (T enumValue : this.enumValues) {
+                    final String jsonValue = invokeJsonValue(jsonValueMethod, enumValue);
+                    if (jsonValue != null) {
+                        table.putIfAbsent(jsonValue, enumValue);
                     }
-                    // source 值与 name不匹配时尝试 从 int类型中取
-                    return ((T[]) enumValues)[Integer.parseInt(source)];
                 }
-                // 有加注解直接走注解方法
-                return (T) method.invoke(null, source);
-            } catch (Exception e) {
-                throw new IllegalArgumentException(e);
             }
+            for (T enumValue : this.enumValues) {
+                table.putIfAbsent(String.valueOf(enumValue.ordinal()), enumValue);
+            }
+            return Collections.unmodifiableMap(table);
+        }
+
+        /**
+         * 用每个枚举对象的 name、ordinal、toString 和 @JsonValue 的值调用一次工厂方法，缓存返回的枚举对象；
+         * 工厂方法抛出异常或返回 null 的入参不缓存，转换时仍然调用工厂方法
+         */
+        private Map<String, T> precomputeCreatorTable() {
+            final Map<String, T> table = new HashMap<>(this.enumValues.length * 8);
+            final Method jsonValueMethod = EnumUtils.getJsonValueMethod((Class<T>) this.enumType);
+            for (T enumValue : this.enumValues) {
+                precompute(table, enumValue.name());
+                precompute(table, String.valueOf(enumValue.ordinal()));
+                precompute(table, enumValue.toString());
+                if (jsonValueMethod != null) {
+                    precompute(table, invokeJsonValue(jsonValueMethod, enumValue));
+                }
+            }
+            return Collections.unmodifiableMap(table);
+        }
+
+        private void precompute(Map<String, T> table, @Nullable String source) {
+            if (source == null || source.isEmpty() || table.containsKey(source)) {
+                return;
+            }
+            try {
+                final Object value = this.creator.invokeExact(source);
+                if (this.enumType.isInstance(value)) {
+                    table.put(source, (T) value);
+                }
+            } catch (Throwable ignored) {
+                // 该入参不缓存
+            }
+        }
+
+        @Nullable
+        private static String invokeJsonValue(Method jsonValueMethod, Enum<?> enumValue) {
+            try {
+                final Object jsonValue = jsonValueMethod.invoke(enumValue);
+                return jsonValue == null ? null : jsonValue.toString();
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("调用 @JsonValue 方法 " + jsonValueMethod + " 失败", e);
+            }
+        }
+
+        /**
+         * 解析非负整数，不是整数时返回 -1 (不抛出异常)
+         */
+        private static int parseOrdinal(String source) {
+            final int length = source.length();
+            if (length > 10) {
+                return -1;
+            }
+            long value = 0;
+            for (int i = 0; i < length; i++) {
+                final char c = source.charAt(i);
+                if (c < '0' || c > '9') {
+                    return -1;
+                }
+                value = value * 10 + (c - '0');
+            }
+            return value > Integer.MAX_VALUE ? -1 : (int) value;
         }
 
     }
 
 
-}
\ No newline at end of file
+}
@@ -1,11 +1,16 @@
 package com.jlee.exception;
 
+import com.jlee.config.ResponseResultProperties;
 import com.jlee.result.ResultStatus;
+import com.jlee.utils.ResponseResultPropertiesUtils;
 import com.jlee.utils.ResponseResultUtils;
 import org.springframework.http.HttpStatus;
 
 /**
  * Api接口异常
+ * <p>
+ * 由 {@link ResultStatus} 创建、且该状态是业务预期内的错误时 (见 {@link ResultStatus#isLightweight()})，使用轻量模式：
+ * 不收集调用栈，异常信息直接使用状态的提示信息，GlobalExceptionHandler 按采样率记录日志
  *
  * @author jlee
  */
@@ -15,17 +20,21 @@ public class ApiException extends RuntimeException {
      */
     private final int code;
     private final Object status;
+    /**
+     * 是否是轻量模式 (没有调用栈)
+     */
+    private final boolean lightweight;
 
     public ApiException(String message, HttpStatus status) {
         this(message, status.value());
     }
 
     public ApiException(String message, ResultStatus status) {
-        this(message, status.getCode());
+        this(message, null, status.getCode(), status.getCode(), isLightweight(status));
     }
 
     public ApiException(ResultStatus status) {
-        this(status.getMessage(), status.getCode());
+        this(status.getMessage(), null, status.getCode(), status.getCode(), isLightweight(status));
     }
 
     public ApiException(HttpStatus status) {
@@ -41,11 +50,11 @@ public class ApiException extends RuntimeException {
     }
 
     public ApiException(String message, Throwable cause, ResultStatus status) {
-        this(message, cause, status.getCode(), status);
+        this(message, cause, status.getCode(), status, isLightweight(status));
     }
 
     public ApiException(Throwable cause, ResultStatus status) {
-        this(status.getMessage(), cause, status.getCode(), status);
+        this(status.getMessage(), cause, status.getCode(), status, isLightweight(status));
     }
 
     public ApiException(Throwable cause, HttpStatus status) {
@@ -53,15 +62,41 @@ public class ApiException extends RuntimeException {
     }
 
     public ApiException(String message, Throwable cause, int code, Object status) {
-        super(message, cause);
+        this(message, cause, code, status, false);
+    }
+
+    private ApiException(String message, Throwable cause, int code, Object status, boolean lightweight) {
+        // 轻量模式不调用 fillInStackTrace，cause 自身的调用栈不受影响
+        super(message, cause, true, !lightweight);
         this.code = code;
         this.status = status;
+        this.lightweight = lightweight;
+    }
+
+    /**
+     * 先看状态本身，再看全局配置；在 Spring 容器外 (单元测试、批处理、Feign 解码器等) 创建、配置还没有初始化时按 false 处理
+     */
+    private static boolean isLightweight(ResultStatus status) {
+        if (status.isLightweight()) {
+            return true;
+        }
+        final ResponseResultProperties properties = ResponseResultPropertiesUtils.findResponseResultProperties();
+        return properties != null && properties.isLightweightApiException();
     }
 
     public int getCode() {
         return this.code;
     }
 
+    /**
+     * 是否是轻量模式，轻量模式的异常没有调用栈
+     *
+     * @return 是否是轻量模式
+     */
+    public boolean isLightweight() {
+        return this.lightweight;
+    }
+
     /**
      * 获取 HttpStatus 状态
      *
@@ -0,0 +1,63 @@
+package com.jlee.exception;
+
+import java.util.Objects;
+
+/**
+ * 错误日志的聚合键：异常类型 + 状态码 + 请求方法 + URI 模板 (如 /courses/{id})
+ *
+ * @author jlee
+ */
+public final class ErrorKey {
+    private final Class<?> exceptionType;
+    private final int code;
+    private final String method;
+    private final String uriTemplate;
+    private final int hash;
+
+    public ErrorKey(Class<?> exceptionType, int code, String method, String uriTemplate) {
+        this.exceptionType = exceptionType;
+        this.code = code;
+        this.method = method;
+        this.uriTemplate = uriTemplate;
+        this.hash = Objects.hash(exceptionType, code, method, uriTemplate);
+    }
+
+    public Class<?> getExceptionType() {
+        return exceptionType;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getUriTemplate() {
+        return uriTemplate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ErrorKey that = (ErrorKey) o;
+        return code == that.code && exceptionType == that.exceptionType && Objects.equals(method, that.method)
+                && Objects.equals(uriTemplate, that.uriTemplate);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return method + " " + uriTemplate + " " + exceptionType.getSimpleName() + "(" + code + ")";
+    }
+}
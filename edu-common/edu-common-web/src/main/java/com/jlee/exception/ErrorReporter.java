@@ -0,0 +1,291 @@
+package com.jlee.exception;
+
+import org.slf4j.Logger;
+import org.springframework.util.Assert;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * 异步的错误日志输出
+ * <p>
+ * 请求线程只把错误放入有界的无锁环形队列 ({@link ErrorRingBuffer})，由后台线程取出后写日志，日志 IO 不再占用请求线程；
+ * 队列满时直接丢弃并计数。后台线程按 {@link ErrorKey} 聚合：每个键在一个时间窗口内最多输出 limitPerWindow 条明细，
+ * 其余的在窗口结束时汇总为一条 "最近 N 秒内出现 M 次"。每个键的累计次数在请求线程中计数，不受丢弃和限流影响
+ * <p>
+ * 键的数量最多 {@value #MAX_KEYS} 个，超过后新的键都计入 {@link #OVERFLOW_KEY}，避免随机地址、请求方法的扫描使计数无限增长
+ *
+ * @author jlee
+ */
+public class ErrorReporter implements Closeable {
+
+    /**
+     * 后台线程没有数据时的等待时间
+     */
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    /**
+     * 键的数量上限
+     */
+    public static final int MAX_KEYS = 1024;
+
+    /**
+     * 键的数量超过上限后使用的键
+     */
+    public static final ErrorKey OVERFLOW_KEY = new ErrorKey(Throwable.class, 0, "*", "OTHER");
+
+    private final Logger log;
+    private final ErrorRingBuffer<Event> buffer;
+    private final long windowNanos;
+    private final int limitPerWindow;
+    private final ConcurrentMap<ErrorKey, LongAdder> counters = new ConcurrentHashMap<>();
+    private final LongAdder dropped = new LongAdder();
+    private final List<Consumer<ErrorKey>> listeners = new CopyOnWriteArrayList<>();
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    /**
+     * 以下字段只有后台线程访问
+     */
+    private final Map<ErrorKey, Window> windows = new HashMap<>();
+    private long reportedDropped;
+
+    /**
+     * @param log            输出日志的 Logger
+     * @param bufferSize     队列容量，向上取整为 2 的幂
+     * @param window         聚合的时间窗口
+     * @param limitPerWindow 每个键在一个时间窗口内最多输出的明细条数
+     */
+    public ErrorReporter(Logger log, int bufferSize, Duration window, int limitPerWindow) {
+        Assert.isTrue(bufferSize > 0, "bufferSize 必须大于 0");
+        Assert.isTrue(!window.isNegative() && !window.isZero(), "window 必须大于 0");
+        this.log = log;
+        this.buffer = new ErrorRingBuffer<>(bufferSize);
+        this.windowNanos = window.toNanos();
+        this.limitPerWindow = limitPerWindow;
+        this.worker = new Thread(this::run, "error-reporter");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * 提交一条错误，不会阻塞
+     *
+     * @param key     聚合键
+     * @param uri     请求的地址
+     * @param message 错误信息
+     * @param errors  错误明细 (如字段校验错误)，提交后不能再修改
+     * @return 队列已满被丢弃时返回 false
+     */
+    public boolean report(ErrorKey key, String uri, String message, List<?> errors) {
+        final Class<?> exceptionType = key.getExceptionType();
+        final ErrorKey counterKey = this.count(key);
+        if (!this.buffer.offer(new Event(counterKey, exceptionType, uri, message, errors, System.nanoTime()))) {
+            this.dropped.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 只累计次数，不输出日志 (如按采样率不记录日志的错误)
+     *
+     * @param key 聚合键
+     * @return 累计次数使用的键，键的数量达到 {@link #MAX_KEYS} 后新的键为 {@link #OVERFLOW_KEY}
+     */
+    public ErrorKey count(ErrorKey key) {
+        ErrorKey counterKey = key;
+        LongAdder counter = this.counters.get(key);
+        if (counter == null) {
+            counterKey = this.counters.size() < MAX_KEYS ? key : OVERFLOW_KEY;
+            counter = this.create(counterKey);
+        }
+        counter.increment();
+        return counterKey;
+    }
+
+    /**
+     * 添加新键的监听器，已经存在的键会立即通知一次
+     *
+     * @param listener 监听器
+     */
+    public synchronized void addListener(Consumer<ErrorKey> listener) {
+        this.listeners.add(listener);
+        this.counters.keySet().forEach(listener);
+    }
+
+    /**
+     * 获取键的累计次数
+     *
+     * @param key 聚合键
+     * @return 次数，键不存在时返回 0
+     */
+    public long getCount(ErrorKey key) {
+        final LongAdder counter = this.counters.get(key);
+        return counter != null ? counter.sum() : 0L;
+    }
+
+    /**
+     * 获取每个键的累计次数
+     *
+     * @return 键 → 次数 的快照
+     */
+    public Map<ErrorKey, Long> getCounters() {
+        final Map<ErrorKey, Long> snapshot = new LinkedHashMap<>(this.counters.size() * 2);
+        this.counters.forEach((key, counter) -> snapshot.put(key, counter.sum()));
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    /**
+     * 获取队列满被丢弃的累计条数
+     *
+     * @return 丢弃的条数
+     */
+    public long getDroppedCount() {
+        return this.dropped.sum();
+    }
+
+    private synchronized LongAdder create(ErrorKey key) {
+        LongAdder counter = this.counters.get(key);
+        if (counter == null) {
+            counter = new LongAdder();
+            this.counters.put(key, counter);
+            for (Consumer<ErrorKey> listener : this.listeners) {
+                listener.accept(key);
+            }
+        }
+        return counter;
+    }
+
+    /**
+     * 停止后台线程，输出队列中剩余的错误和所有窗口的汇总
+     */
+    @Override
+    public void close() {
+        this.running = false;
+        LockSupport.unpark(this.worker);
+        try {
+            this.worker.join(TimeUnit.SECONDS.toMillis(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        while (this.running) {
+            try {
+                if (!drain()) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                flushWindows(System.nanoTime(), false);
+            } catch (RuntimeException e) {
+                // 日志输出失败不能结束后台线程
+                this.log.warn("错误日志输出失败", e);
+            }
+        }
+        drain();
+        flushWindows(System.nanoTime(), true);
+    }
+
+    /**
+     * 取出队列中的所有错误
+     *
+     * @return 是否取出了错误
+     */
+    private boolean drain() {
+        boolean drained = false;
+        Event event;
+        while ((event = this.buffer.poll()) != null) {
+            drained = true;
+            Window window = this.windows.get(event.key);
+            if (window != null && event.nanos - window.start >= this.windowNanos) {
+                flush(event.key, window);
+                window = null;
+            }
+            if (window == null) {
+                window = new Window(event.nanos);
+                this.windows.put(event.key, window);
+            }
+            window.count++;
+            if (window.logged < this.limitPerWindow) {
+                window.logged++;
+                logEvent(event);
+            }
+        }
+        return drained;
+    }
+
+    private void flushWindows(long now, boolean all) {
+        final Iterator<Map.Entry<ErrorKey, Window>> iterator = this.windows.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<ErrorKey, Window> entry = iterator.next();
+            if (all || now - entry.getValue().start >= this.windowNanos) {
+                flush(entry.getKey(), entry.getValue());
+                iterator.remove();
+            }
+        }
+        final long droppedTotal = this.dropped.sum();
+        if (droppedTotal != this.reportedDropped) {
+            this.log.error("错误日志队列已满 (容量 {})，丢弃了 {} 条", this.buffer.capacity(), droppedTotal - this.reportedDropped);
+            this.reportedDropped = droppedTotal;
+        }
+    }
+
+    private void flush(ErrorKey key, Window window) {
+        final int suppressed = window.count - window.logged;
+        if (suppressed > 0) {
+            this.log.error("{} 在最近 {} 秒内出现 {} 次，省略了 {} 条明细", key, TimeUnit.NANOSECONDS.toSeconds(this.windowNanos),
+                    window.count, suppressed);
+        }
+    }
+
+    private void logEvent(Event event) {
+        this.log.error("请求的地址是：{},{}出现异常：{}", event.uri, event.exceptionType.getSimpleName(), event.message);
+        if (event.errors != null) {
+            for (Object error : event.errors) {
+                this.log.error(String.valueOf(error));
+            }
+        }
+    }
+
+    private static final class Event {
+        private final ErrorKey key;
+        private final Class<?> exceptionType;
+        private final String uri;
+        private final String message;
+        private final List<?> errors;
+        private final long nanos;
+
+        private Event(ErrorKey key, Class<?> exceptionType, String uri, String message, List<?> errors, long nanos) {
+            this.key = key;
+            this.exceptionType = exceptionType;
+            this.uri = uri;
+            this.message = message;
+            this.errors = errors;
+            this.nanos = nanos;
+        }
+    }
+
+    private static final class Window {
+        private final long start;
+        private int count;
+        private int logged;
+
+        private Window(long start) {
+            this.start = start;
+        }
+    }
+}
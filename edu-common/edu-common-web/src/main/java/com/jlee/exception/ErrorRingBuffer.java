@@ -0,0 +1,75 @@
+package com.jlee.exception;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 有界的无锁环形队列，多个生产者、一个消费者
+ * <p>
+ * 生产者 CAS 抢占 tail 序号后写入槽位；消费者读到槽位非空才取出，取出后先清空槽位再推进 head，
+ * 所以生产者看到 head 推进时，对应的槽位一定已经清空。队列满时 offer 直接返回 false，不等待
+ *
+ * @param <E> 元素类型
+ * @author jlee
+ */
+final class ErrorRingBuffer<E> {
+
+    private final AtomicReferenceArray<E> slots;
+    private final int capacity;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    /**
+     * 只有消费者线程写入
+     */
+    private final AtomicLong head = new AtomicLong();
+
+    ErrorRingBuffer(int capacity) {
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new AtomicReferenceArray<>(size);
+        this.capacity = size;
+        this.mask = size - 1;
+    }
+
+    /**
+     * 放入元素，可以由多个线程同时调用
+     *
+     * @param element 元素
+     * @return 队列已满时返回 false
+     */
+    boolean offer(E element) {
+        for (; ; ) {
+            final long t = this.tail.get();
+            if (t - this.head.get() >= this.capacity) {
+                return false;
+            }
+            if (this.tail.compareAndSet(t, t + 1)) {
+                this.slots.lazySet((int) t & this.mask, element);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 取出元素，只能由消费者线程调用
+     *
+     * @return 元素，队列为空 (或者生产者还没有写入槽位) 时返回 null
+     */
+    E poll() {
+        final long h = this.head.get();
+        final int index = (int) h & this.mask;
+        final E element = this.slots.get(index);
+        if (element == null) {
+            return null;
+        }
+        this.slots.lazySet(index, null);
+        this.head.lazySet(h + 1);
+        return element;
+    }
+
+    int capacity() {
+        return this.capacity;
+    }
+}
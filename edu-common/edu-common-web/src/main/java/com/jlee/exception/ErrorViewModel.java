@@ -1,5 +1,6 @@
 package com.jlee.exception;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import org.springframework.http.HttpStatus;
 
 import java.util.List;
@@ -7,9 +8,13 @@ import java.util.Objects;
 
 /**
  * 前端异常信息显示模型
+ * <p>
+ * 字段校验错误时 errors 中是 {@link FieldViolation}；包装为 ResponseResult 时 errors 作为 result 返回，
+ * 直接序列化时由 {@link ErrorViewModelSerializer} 写出
  *
  * @author jlee
  */
+@JsonSerialize(using = ErrorViewModelSerializer.class)
 public class ErrorViewModel {
     private HttpStatus status;
     private String message;
@@ -0,0 +1,90 @@
+package com.jlee.exception;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * ErrorViewModel 的 jackson 序列化器，输出结构与原来按 bean 序列化时相同 (status、message、code、errors)
+ * <p>
+ * 默认由 ReturnValueHandler 把 ErrorViewModel 转为 ResponseResult，errors 作为 result 写出；
+ * 只有直接序列化 ErrorViewModel 时 (未启用统一返回值包装) 才使用这个序列化器。
+ * errors 中的 {@link FieldViolation} 直接写入 JsonGenerator，不再为每个元素查找序列化器、反射读取属性；
+ * 其余类型的元素仍交给 jackson 序列化。null 和空值的忽略规则取 ErrorViewModel 的默认 inclusion 配置
+ *
+ * @author jlee
+ */
+public class ErrorViewModelSerializer extends StdSerializer<ErrorViewModel> {
+
+    private static final SerializedString STATUS_FIELD_NAME = new SerializedString("status");
+    private static final SerializedString MESSAGE_FIELD_NAME = new SerializedString("message");
+    private static final SerializedString CODE_FIELD_NAME = new SerializedString("code");
+    private static final SerializedString ERRORS_FIELD_NAME = new SerializedString("errors");
+
+    public ErrorViewModelSerializer() {
+        super(ErrorViewModel.class);
+    }
+
+    @Override
+    public void serialize(ErrorViewModel value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        final JsonInclude.Include inclusion = provider.getConfig().getDefaultPropertyInclusion(ErrorViewModel.class).getValueInclusion();
+        final boolean suppressNulls = inclusion != null && inclusion != JsonInclude.Include.ALWAYS && inclusion != JsonInclude.Include.USE_DEFAULTS;
+        final boolean suppressEmpty = inclusion == JsonInclude.Include.NON_EMPTY;
+
+        gen.writeStartObject(value);
+
+        final HttpStatus status = value.getStatus();
+        if (status != null) {
+            gen.writeFieldName(STATUS_FIELD_NAME);
+            provider.findValueSerializer(HttpStatus.class).serialize(status, gen, provider);
+        } else if (!suppressNulls) {
+            gen.writeFieldName(STATUS_FIELD_NAME);
+            gen.writeNull();
+        }
+
+        final String message = value.getMessage();
+        if (message == null) {
+            if (!suppressNulls) {
+                gen.writeFieldName(MESSAGE_FIELD_NAME);
+                gen.writeNull();
+            }
+        } else if (!(suppressEmpty && message.isEmpty())) {
+            gen.writeFieldName(MESSAGE_FIELD_NAME);
+            gen.writeString(message);
+        }
+
+        gen.writeFieldName(CODE_FIELD_NAME);
+        gen.writeNumber(value.getCode());
+
+        final List<?> errors = value.getErrors();
+        if (errors == null) {
+            if (!suppressNulls) {
+                gen.writeFieldName(ERRORS_FIELD_NAME);
+                gen.writeNull();
+            }
+        } else if (!(suppressEmpty && errors.isEmpty())) {
+            gen.writeFieldName(ERRORS_FIELD_NAME);
+            writeErrors(errors, gen, provider);
+        }
+
+        gen.writeEndObject();
+    }
+
+    private static void writeErrors(List<?> errors, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartArray(errors, errors.size());
+        for (Object error : errors) {
+            if (error instanceof FieldViolation) {
+                FieldViolationSerializer.write((FieldViolation) error, gen);
+            } else {
+                provider.defaultSerializeValue(error, gen);
+            }
+        }
+        gen.writeEndArray();
+    }
+}
@@ -0,0 +1,100 @@
+package com.jlee.exception;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.springframework.lang.Nullable;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 字段校验错误，由 {@link FieldViolationSerializer} 序列化为 {"field": 字段名, "msg": 提示信息}
+ * <p>
+ * 同一个字段、同一个约束 (如 NotNull) 的提示信息通常是固定的，{@link #of(String, String, String)} 按 约束 → 字段 缓存，
+ * 提示信息相同时直接复用缓存的对象；提示信息中带有校验值等变化的内容时不会命中缓存，每次创建新的对象
+ *
+ * @author jlee
+ */
+@JsonSerialize(using = FieldViolationSerializer.class)
+public final class FieldViolation {
+
+    /**
+     * 缓存的约束数量上限，超过后不再缓存新的约束
+     */
+    private static final int MAX_CACHED_CONSTRAINTS = 256;
+    /**
+     * 每个约束缓存的字段数量上限
+     */
+    private static final int MAX_CACHED_FIELDS = 1024;
+
+    private static final ConcurrentMap<String, ConcurrentMap<String, FieldViolation>> CACHE = new ConcurrentHashMap<>();
+
+    private final String field;
+    private final String msg;
+
+    public FieldViolation(String field, String msg) {
+        this.field = field;
+        this.msg = msg;
+    }
+
+    /**
+     * 获取字段校验错误，优先使用缓存
+     *
+     * @param field      字段名
+     * @param constraint 约束名 (FieldError#getCode)，为 null 时不缓存
+     * @param msg        提示信息
+     * @return FieldViolation
+     */
+    public static FieldViolation of(String field, @Nullable String constraint, String msg) {
+        if (constraint == null || field == null || msg == null) {
+            return new FieldViolation(field, msg);
+        }
+        ConcurrentMap<String, FieldViolation> fields = CACHE.get(constraint);
+        if (fields == null) {
+            if (CACHE.size() >= MAX_CACHED_CONSTRAINTS) {
+                return new FieldViolation(field, msg);
+            }
+            fields = CACHE.computeIfAbsent(constraint, k -> new ConcurrentHashMap<>());
+        }
+        final FieldViolation cached = fields.get(field);
+        if (cached != null && (cached.msg == msg || cached.msg.equals(msg))) {
+            return cached;
+        }
+        final FieldViolation violation = new FieldViolation(field, msg);
+        // 提示信息变化时用新的替换，只保留最近一次的
+        if (cached != null || fields.size() < MAX_CACHED_FIELDS) {
+            fields.put(field, violation);
+        }
+        return violation;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public String getMsg() {
+        return msg;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        FieldViolation that = (FieldViolation) o;
+        return Objects.equals(field, that.field) && Objects.equals(msg, that.msg);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(field, msg);
+    }
+
+    @Override
+    public String toString() {
+        return "{field=" + field + ", msg=" + msg + "}";
+    }
+}
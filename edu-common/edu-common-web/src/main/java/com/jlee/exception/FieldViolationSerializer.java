@@ -0,0 +1,40 @@
+package com.jlee.exception;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * FieldViolation 的 jackson 序列化器，直接写出 {"field": 字段名, "msg": 提示信息}，不需要反射读取属性
+ * <p>
+ * 校验错误作为 ResponseResult 的 result 写出时由 jackson 按类型找到这个序列化器；
+ * {@link ErrorViewModelSerializer} 写出 errors 时直接调用 {@link #write(FieldViolation, JsonGenerator)}
+ *
+ * @author jlee
+ */
+public class FieldViolationSerializer extends StdSerializer<FieldViolation> {
+
+    private static final SerializedString FIELD_FIELD_NAME = new SerializedString("field");
+    private static final SerializedString MSG_FIELD_NAME = new SerializedString("msg");
+
+    public FieldViolationSerializer() {
+        super(FieldViolation.class);
+    }
+
+    @Override
+    public void serialize(FieldViolation value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        write(value, gen);
+    }
+
+    static void write(FieldViolation violation, JsonGenerator gen) throws IOException {
+        gen.writeStartObject(violation);
+        gen.writeFieldName(FIELD_FIELD_NAME);
+        gen.writeString(violation.getField());
+        gen.writeFieldName(MSG_FIELD_NAME);
+        gen.writeString(violation.getMsg());
+        gen.writeEndObject();
+    }
+}
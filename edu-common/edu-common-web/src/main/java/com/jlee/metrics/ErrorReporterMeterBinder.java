@@ -0,0 +1,53 @@
+package com.jlee.metrics;
+
+import com.jlee.configurer.GlobalExceptionHandler;
+import com.jlee.exception.ErrorKey;
+import com.jlee.exception.ErrorReporter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.List;
+
+/**
+ * 将 {@link ErrorReporter} 的计数注册为 Micrometer 指标：
+ * <ul>
+ *     <li>http.server.errors：每个聚合键的累计错误次数，标签 exception、code、method、uri (URI 模板)</li>
+ *     <li>http.server.errors.log.dropped：队列满被丢弃的错误日志条数</li>
+ * </ul>
+ * 指标的值在采集时从 LongAdder 汇总；ErrorReporter 在第一次输出错误日志时才创建，创建后再注册
+ *
+ * @author jlee
+ */
+public class ErrorReporterMeterBinder implements MeterBinder {
+
+    private final List<GlobalExceptionHandler> exceptionHandlers;
+
+    public ErrorReporterMeterBinder(List<GlobalExceptionHandler> exceptionHandlers) {
+        this.exceptionHandlers = exceptionHandlers;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (GlobalExceptionHandler exceptionHandler : this.exceptionHandlers) {
+            exceptionHandler.addErrorReporterListener(reporter -> bindTo(registry, reporter));
+        }
+    }
+
+    private static void bindTo(MeterRegistry registry, ErrorReporter reporter) {
+        FunctionCounter.builder("http.server.errors.log.dropped", reporter, ErrorReporter::getDroppedCount)
+                .description("队列满被丢弃的错误日志条数")
+                .register(registry);
+        reporter.addListener(key -> register(registry, reporter, key));
+    }
+
+    private static void register(MeterRegistry registry, ErrorReporter reporter, ErrorKey key) {
+        FunctionCounter.builder("http.server.errors", reporter, r -> r.getCount(key))
+                .tag("exception", key.getExceptionType().getSimpleName())
+                .tag("code", String.valueOf(key.getCode()))
+                .tag("method", String.valueOf(key.getMethod()))
+                .tag("uri", String.valueOf(key.getUriTemplate()))
+                .description("GlobalExceptionHandler 处理的错误次数")
+                .register(registry);
+    }
+}
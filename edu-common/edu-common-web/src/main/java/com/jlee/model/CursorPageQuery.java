@@ -0,0 +1,28 @@
+package com.jlee.model;
+
+/**
+ * 游标 (keyset) 分页参数接收model
+ * <p>
+ * cursor 为上一页返回的 {@link CursorPageResult#getNextCursor()}，第一页不传；游标分页不使用 pageIndex
+ *
+ * @author jlee
+ */
+public class CursorPageQuery extends PageQuery {
+    private String cursor;
+
+    public CursorPageQuery() {
+    }
+
+    public String getCursor() {
+        return this.cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    @Override
+    public String toString() {
+        return "CursorPageQuery(cursor=" + this.getCursor() + ", pageSize=" + this.getPageSize() + ")";
+    }
+}
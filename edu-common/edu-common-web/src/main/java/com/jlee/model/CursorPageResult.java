@@ -0,0 +1,63 @@
+package com.jlee.model;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 游标 (keyset) 分页数据返回值model
+ * <p>
+ * nextCursor 为下一页的游标，为 null 时表示已经是最后一页；游标分页不查询总数
+ *
+ * @author jlee
+ */
+public class CursorPageResult<T> implements Serializable {
+    private List<T> result;
+    private String nextCursor;
+
+    private CursorPageResult(List<T> result, String nextCursor) {
+        this.result = result;
+        this.nextCursor = nextCursor;
+    }
+
+    public CursorPageResult() {
+    }
+
+    public static <T> CursorPageResult<T> of(List<T> result, String nextCursor) {
+        return new CursorPageResult<>(result, nextCursor);
+    }
+
+    public List<T> getResult() {
+        return this.result;
+    }
+
+    public void setResult(List<T> result) {
+        this.result = result;
+    }
+
+    public String getNextCursor() {
+        return this.nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CursorPageResult<?> that = (CursorPageResult<?>) o;
+        return Objects.equals(result, that.result) && Objects.equals(nextCursor, that.nextCursor);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(result, nextCursor);
+    }
+
+    @Override
+    public String toString() {
+        return "CursorPageResult(result=" + this.getResult() + ", nextCursor=" + this.getNextCursor() + ")";
+    }
+}
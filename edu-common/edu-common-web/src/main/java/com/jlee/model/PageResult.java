@@ -1,23 +1,44 @@
 package com.jlee.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.io.Serializable;
 import java.util.List;
 import java.util.Objects;
 
 /**
  * 带分页数据返回值model
+ * <p>
+ * total 是估算的近似值或者来自缓存时，totalApproximate、totalStale 为 true；为 false 时不输出，不影响原来的 JSON 结构
  *
  * @author jlee
  */
 public class PageResult<T> implements Serializable {
     private List<T> result;
     private Long total;
+    /**
+     * total 是否是估算的近似值
+     */
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    private boolean totalApproximate;
+    /**
+     * total 是否来自缓存，可能不是最新的
+     */
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    private boolean totalStale;
 
     private PageResult(List<T> result, Long total) {
         this.result = result;
         this.total = total;
     }
 
+    private PageResult(List<T> result, Long total, boolean totalApproximate, boolean totalStale) {
+        this.result = result;
+        this.total = total;
+        this.totalApproximate = totalApproximate;
+        this.totalStale = totalStale;
+    }
+
     public PageResult() {
     }
 
@@ -25,6 +46,20 @@ public class PageResult<T> implements Serializable {
         return new PageResult<>(result, total);
     }
 
+    /**
+     * 创建分页返回值，并说明 total 是怎样得到的
+     *
+     * @param result           本页数据
+     * @param total            总数，没有查询总数时为 null
+     * @param totalApproximate total 是否是估算的近似值
+     * @param totalStale       total 是否来自缓存
+     * @param <T>              行的类型
+     * @return PageResult
+     */
+    public static <T> PageResult<T> of(List<T> result, Long total, boolean totalApproximate, boolean totalStale) {
+        return new PageResult<>(result, total, totalApproximate, totalStale);
+    }
+
     public List<T> getResult() {
         return this.result;
     }
@@ -41,6 +76,22 @@ public class PageResult<T> implements Serializable {
         this.total = total;
     }
 
+    public boolean isTotalApproximate() {
+        return this.totalApproximate;
+    }
+
+    public void setTotalApproximate(boolean totalApproximate) {
+        this.totalApproximate = totalApproximate;
+    }
+
+    public boolean isTotalStale() {
+        return this.totalStale;
+    }
+
+    public void setTotalStale(boolean totalStale) {
+        this.totalStale = totalStale;
+    }
+
     protected boolean canEqual(Object other) {
         return other instanceof PageResult;
     }
@@ -50,16 +101,18 @@ public class PageResult<T> implements Serializable {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         PageResult<?> that = (PageResult<?>) o;
-        return Objects.equals(result, that.result) && Objects.equals(total, that.total);
+        return totalApproximate == that.totalApproximate && totalStale == that.totalStale
+                && Objects.equals(result, that.result) && Objects.equals(total, that.total);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(result, total);
+        return Objects.hash(result, total, totalApproximate, totalStale);
     }
 
     @Override
     public String toString() {
-        return "PageResult(result=" + this.getResult() + ", total=" + this.getTotal() + ")";
+        return "PageResult(result=" + this.getResult() + ", total=" + this.getTotal()
+                + ", totalApproximate=" + this.isTotalApproximate() + ", totalStale=" + this.isTotalStale() + ")";
     }
 }
\ No newline at end of file
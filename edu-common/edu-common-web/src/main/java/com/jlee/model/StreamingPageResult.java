@@ -0,0 +1,202 @@
+package com.jlee.model;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+/**
+ * 流式的分页数据返回值model，与 {@link PageResult} 输出相同的 JSON 结构 (result、total)
+ * <p>
+ * 数据不会先放入 List，序列化时 ({@link StreamingPageResultSerializer}) 逐行从数据源读取并写入响应，写完所有行后再写出 total，
+ * 所以无论返回多少行，每个请求占用的堆内存都是固定的。数据源在写出结束后 (包括写出失败、或者没有写出) 由 ReturnValueHandler 关闭
+ * <p>
+ * 数据源必须在写出响应时仍然可读：MyBatis 的 Cursor 需要 SqlSession 在写出期间保持打开，
+ * 使用 Spring 管理的 Mapper 时 (事务在处理器方法返回时已经结束) 请使用 {@link #of(RowSource)}，在 RowSource 中开启事务并打开 Cursor
+ *
+ * @param <T> 行的类型
+ * @author jlee
+ */
+@JsonSerialize(using = StreamingPageResultSerializer.class)
+public final class StreamingPageResult<T> implements Closeable {
+
+    private final RowSource<T> rowSource;
+    @Nullable
+    private final Closeable closeable;
+    @Nullable
+    private final LongSupplier totalSupplier;
+    private final AtomicBoolean consumed = new AtomicBoolean();
+
+    private StreamingPageResult(RowSource<T> rowSource, @Nullable Closeable closeable, @Nullable LongSupplier totalSupplier) {
+        this.rowSource = rowSource;
+        this.closeable = closeable;
+        this.totalSupplier = totalSupplier;
+    }
+
+    /**
+     * 由 Stream 提供数据，total 为写出的行数
+     *
+     * @param stream 数据流，写出结束后关闭
+     * @param <T>    行的类型
+     * @return StreamingPageResult
+     */
+    public static <T> StreamingPageResult<T> of(Stream<T> stream) {
+        return of(stream, null);
+    }
+
+    /**
+     * 由 Stream 提供数据
+     *
+     * @param stream        数据流，写出结束后关闭
+     * @param totalSupplier 写完所有行之后调用，获取 total；为 null 时 total 为写出的行数
+     * @param <T>           行的类型
+     * @return StreamingPageResult
+     */
+    public static <T> StreamingPageResult<T> of(Stream<T> stream, @Nullable LongSupplier totalSupplier) {
+        Assert.notNull(stream, "stream must not be null");
+        return new StreamingPageResult<>(handler -> forEach(stream.iterator(), handler), stream::close, totalSupplier);
+    }
+
+    /**
+     * 由已经打开的游标提供数据，如 MyBatis 的 {@code Cursor<T>}，total 为写出的行数
+     *
+     * @param cursor 游标，写出结束后关闭
+     * @param <T>    行的类型
+     * @param <C>    游标类型
+     * @return StreamingPageResult
+     */
+    public static <T, C extends Iterable<T> & Closeable> StreamingPageResult<T> ofCursor(C cursor) {
+        return ofCursor(cursor, null);
+    }
+
+    /**
+     * 由已经打开的游标提供数据，如 MyBatis 的 {@code Cursor<T>}
+     *
+     * @param cursor        游标，写出结束后关闭
+     * @param totalSupplier 写完所有行之后调用，获取 total；为 null 时 total 为写出的行数
+     * @param <T>           行的类型
+     * @param <C>           游标类型
+     * @return StreamingPageResult
+     */
+    public static <T, C extends Iterable<T> & Closeable> StreamingPageResult<T> ofCursor(C cursor, @Nullable LongSupplier totalSupplier) {
+        Assert.notNull(cursor, "cursor must not be null");
+        return new StreamingPageResult<>(handler -> forEach(cursor.iterator(), handler), cursor, totalSupplier);
+    }
+
+    /**
+     * 由 RowSource 在写出时打开数据源并逐行回调，total 为写出的行数
+     *
+     * @param rowSource 数据源
+     * @param <T>       行的类型
+     * @return StreamingPageResult
+     */
+    public static <T> StreamingPageResult<T> of(RowSource<T> rowSource) {
+        return of(rowSource, null);
+    }
+
+    /**
+     * 由 RowSource 在写出时打开数据源并逐行回调
+     *
+     * @param rowSource     数据源
+     * @param totalSupplier 写完所有行之后调用，获取 total；为 null 时 total 为写出的行数
+     * @param <T>           行的类型
+     * @return StreamingPageResult
+     */
+    public static <T> StreamingPageResult<T> of(RowSource<T> rowSource, @Nullable LongSupplier totalSupplier) {
+        Assert.notNull(rowSource, "rowSource must not be null");
+        return new StreamingPageResult<>(rowSource, null, totalSupplier);
+    }
+
+    /**
+     * 逐行读取数据，只能调用一次
+     *
+     * @param handler 每一行的回调
+     * @return 读取的行数
+     * @throws IOException 回调写出失败或读取数据源失败
+     */
+    public long forEachRow(RowHandler<? super T> handler) throws IOException {
+        Assert.state(this.consumed.compareAndSet(false, true), "StreamingPageResult 只能写出一次");
+        final long[] count = new long[1];
+        try {
+            this.rowSource.forEach(row -> {
+                handler.handle(row);
+                count[0]++;
+            });
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        } finally {
+            close();
+        }
+        return count[0];
+    }
+
+    /**
+     * 获取 total，在所有行读取之后调用
+     *
+     * @param rowCount 读取的行数
+     * @return total
+     */
+    public long getTotal(long rowCount) {
+        return this.totalSupplier != null ? this.totalSupplier.getAsLong() : rowCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.closeable != null) {
+            this.closeable.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "StreamingPageResult(consumed=" + this.consumed.get() + ")";
+    }
+
+    private static <T> void forEach(Iterator<T> iterator, RowHandler<? super T> handler) throws IOException {
+        while (iterator.hasNext()) {
+            handler.handle(iterator.next());
+        }
+    }
+
+    /**
+     * 数据源，写出时调用
+     *
+     * @param <T> 行的类型
+     */
+    @FunctionalInterface
+    public interface RowSource<T> {
+
+        /**
+         * 打开数据源，逐行回调，返回前关闭数据源
+         *
+         * @param handler 每一行的回调
+         * @throws Exception 读取数据源或回调失败
+         */
+        void forEach(RowHandler<? super T> handler) throws Exception;
+    }
+
+    /**
+     * 每一行的回调
+     *
+     * @param <T> 行的类型
+     */
+    @FunctionalInterface
+    public interface RowHandler<T> {
+
+        /**
+         * 处理一行数据
+         *
+         * @param row 行
+         * @throws IOException 写出失败
+         */
+        void handle(T row) throws IOException;
+    }
+}
@@ -0,0 +1,64 @@
+package com.jlee.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.impl.PropertySerializerMap;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * StreamingPageResult 的 jackson 序列化器，逐行写出 result 数组，最后写出 total，输出结构与 PageResult 相同
+ *
+ * @author jlee
+ */
+public class StreamingPageResultSerializer extends StdSerializer<StreamingPageResult<?>> {
+
+    private static final SerializedString RESULT_FIELD_NAME = new SerializedString("result");
+    private static final SerializedString TOTAL_FIELD_NAME = new SerializedString("total");
+
+    /**
+     * 行的序列化器缓存
+     */
+    private transient PropertySerializerMap dynamicRowSerializers;
+
+    @SuppressWarnings("unchecked")
+    public StreamingPageResultSerializer() {
+        super((Class<StreamingPageResult<?>>) (Class<?>) StreamingPageResult.class);
+        this.dynamicRowSerializers = PropertySerializerMap.emptyForProperties();
+    }
+
+    @Override
+    public void serialize(StreamingPageResult<?> value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(value);
+        gen.writeFieldName(RESULT_FIELD_NAME);
+        gen.writeStartArray();
+        final long rowCount = value.forEachRow(row -> {
+            if (row == null) {
+                provider.defaultSerializeNull(gen);
+            } else {
+                findRowSerializer(row.getClass(), provider).serialize(row, gen, provider);
+            }
+        });
+        gen.writeEndArray();
+        gen.writeFieldName(TOTAL_FIELD_NAME);
+        gen.writeNumber(value.getTotal(rowCount));
+        gen.writeEndObject();
+    }
+
+    private JsonSerializer<Object> findRowSerializer(Class<?> type, SerializerProvider provider) throws JsonMappingException {
+        final PropertySerializerMap serializers = this.dynamicRowSerializers;
+        final JsonSerializer<Object> serializer = serializers.serializerFor(type);
+        if (serializer != null) {
+            return serializer;
+        }
+        final PropertySerializerMap.SerializerAndMapResult result = serializers.findAndAddSecondarySerializer(type, provider, null);
+        if (serializers != result.map) {
+            this.dynamicRowSerializers = result.map;
+        }
+        return result.serializer;
+    }
+}
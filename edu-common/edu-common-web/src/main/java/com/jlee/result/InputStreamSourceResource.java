@@ -0,0 +1,72 @@
+package com.jlee.result;
+
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.lang.NonNull;
+import org.springframework.util.Assert;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 由 {@link InputStreamSource} 提供内容的文件下载资源，每次读取时才打开输入流，内容边读边写出，不会整个放入内存
+ * <p>
+ * 长度未知时 contentLength 返回 -1 (不会像 AbstractResource 那样为了计算长度读一遍输入流)，此时响应使用分块传输，也不支持 Range 请求
+ *
+ * @author jlee
+ */
+public class InputStreamSourceResource extends AbstractResource {
+
+    private final InputStreamSource inputStreamSource;
+    private final long contentLength;
+    private final String filename;
+
+    public InputStreamSourceResource(InputStreamSource inputStreamSource, long contentLength, String filename) {
+        Assert.notNull(inputStreamSource, "InputStreamSource must not be null");
+        this.inputStreamSource = inputStreamSource;
+        this.contentLength = contentLength;
+        this.filename = filename;
+    }
+
+    @Override
+    @NonNull
+    public InputStream getInputStream() throws IOException {
+        return this.inputStreamSource.getInputStream();
+    }
+
+    /**
+     * 获取内容长度
+     *
+     * @return 内容长度，未知时返回 -1
+     */
+    @Override
+    public long contentLength() {
+        return this.contentLength;
+    }
+
+    @Override
+    public boolean exists() {
+        return true;
+    }
+
+    @Override
+    public String getFilename() {
+        return this.filename;
+    }
+
+    @Override
+    @NonNull
+    public String getDescription() {
+        return "InputStreamSource resource [" + this.filename + "]";
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other;
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(this);
+    }
+}
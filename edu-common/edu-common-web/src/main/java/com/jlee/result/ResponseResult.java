@@ -2,9 +2,15 @@ package com.jlee.result;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.jlee.config.ResponseResultProperties;
 import com.jlee.utils.ResponseResultPropertiesUtils;
 import com.jlee.utils.ResponseResultUtils;
+import com.jlee.utils.StatusRegistry;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -17,6 +23,7 @@ import java.io.Serializable;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.*;
 
 
@@ -25,9 +32,14 @@ import java.util.*;
  * <p>
  * 想要返回的结果集中为null的数据不显示:请在配置文件中配置:
  * spring.jackson.default-property-inclusion = non_null
+ * <p>
+ * jackson 序列化时使用 {@link ResponseResultSerializer} 直接写出字段，
+ * 反序列化时使用 {@link ResponseResultDeserializer} 按泛型类型直接读取 result
  *
  * @author jlee
  */
+@JsonSerialize(using = ResponseResultSerializer.class)
+@JsonDeserialize(using = ResponseResultDeserializer.class)
 public class ResponseResult<T> implements Serializable {
 
     private final String message;
@@ -192,16 +204,59 @@ public class ResponseResult<T> implements Serializable {
      * @return 响应实体
      */
     public static ResponseResult<byte[]> file(String filename, byte[] data) {
+        final HttpHeaders headers = fileHeaders(filename);
+        headers.setContentLength(data.length);
+        return new ResponseResult<>(data, HttpStatus.OK, headers);
+    }
+
+    /**
+     * 返回一个文件下载响应，文件不会读入内存
+     * <p>
+     * 写出时长度取自文件属性，支持 Range 请求；容器支持 sendfile (如 Tomcat NIO) 时由容器直接发送文件，否则通过 FileChannel.transferTo 写出
+     *
+     * @param filename 文件名称
+     * @param path     文件路径
+     * @return 响应实体
+     */
+    public static ResponseResult<Resource> file(String filename, Path path) {
+        return file(filename, new FileSystemResource(path));
+    }
+
+    /**
+     * 返回一个文件下载响应，资源不会读入内存
+     * <p>
+     * 文件系统中的资源与 {@link #file(String, Path)} 相同；其他资源交给 Spring MVC 的 ResourceHttpMessageConverter 写出，同样支持 Range 请求
+     *
+     * @param filename 文件名称
+     * @param resource 文件资源
+     * @return 响应实体
+     */
+    public static ResponseResult<Resource> file(String filename, Resource resource) {
+        return new ResponseResult<>(resource, HttpStatus.OK, fileHeaders(filename));
+    }
+
+    /**
+     * 返回一个文件下载响应，写出时才打开输入流，边读边写
+     *
+     * @param filename      文件名称
+     * @param source        输入流的提供者
+     * @param contentLength 内容长度，未知时传 -1 (使用分块传输)
+     * @return 响应实体
+     */
+    public static ResponseResult<Resource> file(String filename, InputStreamSource source, long contentLength) {
+        return file(filename, new InputStreamSourceResource(source, contentLength, filename));
+    }
+
+    private static HttpHeaders fileHeaders(String filename) {
         final HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
-        headers.setContentLength(data.length);
         try {
             headers.setContentDispositionFormData("attachment", URLEncoder.encode(filename, "UTF-8"));
         } catch (UnsupportedEncodingException ignored) {
             // "UTF-8" 在URLEncoder.encode内部是支持的，不会抛异常
             // 如果是JDK10以上，可以用另一个encode重载方法直接传入StandardCharsets.UTF_8常量
         }
-        return new ResponseResult<>(data, HttpStatus.OK, headers);
+        return headers;
     }
 
     /**
@@ -214,11 +269,15 @@ public class ResponseResult<T> implements Serializable {
     }
 
     /**
-     * jackson 反序列化时使用的，使字段名可以使用配置文件
+     * 反序列化时使用的，使字段名可以使用配置文件
+     * <p>
+     * jackson 会优先使用类上标记的 {@link ResponseResultDeserializer}，该方法保留给需要 Map 形式的地方直接调用
      *
      * @param map 要进行反序列化时的参数
      * @return ResponseResult
+     * @deprecated jackson 已经不再调用，下一个版本删除；请直接使用 ObjectMapper 反序列化 (见 {@link ResponseResultDeserializer})
      */
+    @Deprecated
     @JsonCreator
     public static ResponseResult<?> setJson(HashMap<String, Object> map) {
         if (!CollectionUtils.isEmpty(map)) {
@@ -238,10 +297,14 @@ public class ResponseResult<T> implements Serializable {
 
 
     /**
-     * jackson 序列化时使用，让序列化时的字段名可使用配置文件
+     * 让序列化时的字段名可使用配置文件
+     * <p>
+     * jackson 会优先使用类上标记的 {@link ResponseResultSerializer}，不再经过这个 Map，该方法保留给需要 Map 形式的地方直接调用
      *
      * @return map对象，后续转字符串交给 jackson
+     * @deprecated jackson 已经不再调用，下一个版本删除；请直接使用 ObjectMapper 序列化 (见 {@link ResponseResultSerializer})
      */
+    @Deprecated
     @JsonValue
     public Map<String, Object> getJsonString() {
         ResponseResultProperties responseResultProperties = ResponseResultPropertiesUtils.getResponseResultProperties();
@@ -289,32 +352,24 @@ public class ResponseResult<T> implements Serializable {
             return Enum.valueOf(enumType, ((HttpStatus) this.status).name());
         } else {
             // status 保存的时int值
-            Optional<?> resultStatus = Optional.empty();
-            if (enumType.isAssignableFrom(ResultStatus.class)) {
-                resultStatus =
-                        EnumSet.allOf(enumType)
-                                .stream()
-                                .map((enumValue) -> (ResultStatus) enumValue)
-                                .filter((enumValue) -> enumValue.getCode() == (Integer) this.status)
-                                .findAny();
-
-
-            } else if (enumType == HttpStatus.class) {
-                resultStatus =
-                        EnumSet.allOf(enumType)
-                                .stream()
-                                .map((enumValue) -> (HttpStatus) enumValue)
-                                .filter((enumValue) -> enumValue.value() == (Integer) this.status)
-                                .findAny();
-            }
-            if (resultStatus.isPresent()) {
-                return enumType.cast(resultStatus.get());
+            E resultStatus = StatusRegistry.resolve(enumType, (Integer) this.status);
+            if (resultStatus != null) {
+                return resultStatus;
             }
             throw new IllegalArgumentException(
                     String.format("在 %s 中没有枚举常量可以匹配 %s", enumType.getTypeName(), this.status));
         }
     }
 
+    /**
+     * 获取创建结果集时传入的状态
+     *
+     * @return ResultStatus、HttpStatus 或 int 状态码
+     */
+    public Object getStatus() {
+        return status;
+    }
+
     /**
      * 获取 HttpStatus 状态
      *
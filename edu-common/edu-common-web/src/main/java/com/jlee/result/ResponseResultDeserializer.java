@@ -0,0 +1,147 @@
+package com.jlee.result;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.jsontype.TypeDeserializer;
+import com.jlee.config.ResponseResultProperties;
+import com.jlee.utils.ResponseResultPropertiesUtils;
+
+import java.io.IOException;
+
+/**
+ * ResponseResult 的 jackson 反序列化器，逐个 token 读取 code、message、result
+ * <p>
+ * result 直接按照 ResponseResult 的泛型类型 (例如 Feign 接口返回值中声明的类型) 反序列化，
+ * 不需要先把整个结果集读成 Map 再转换
+ *
+ * @author jlee
+ */
+public class ResponseResultDeserializer extends StdDeserializer<ResponseResult<?>> implements ContextualDeserializer {
+
+    private final String codeFieldName;
+    private final String messageFieldName;
+    private final String resultFieldName;
+
+    /**
+     * result 字段的类型，为 null 时表示还未确定泛型类型
+     */
+    private final JavaType resultType;
+    private final JsonDeserializer<Object> resultDeserializer;
+    private final TypeDeserializer resultTypeDeserializer;
+
+    public ResponseResultDeserializer() {
+        this(ResponseResultPropertiesUtils.getResponseResultProperties());
+    }
+
+    public ResponseResultDeserializer(ResponseResultProperties responseResultProperties) {
+        super(ResponseResult.class);
+        this.codeFieldName = responseResultProperties.getCodeFieldName();
+        this.messageFieldName = responseResultProperties.getMessageFieldName();
+        this.resultFieldName = responseResultProperties.getResultFieldName();
+        this.resultType = null;
+        this.resultDeserializer = null;
+        this.resultTypeDeserializer = null;
+    }
+
+    protected ResponseResultDeserializer(ResponseResultDeserializer src, JavaType resultType,
+                                         JsonDeserializer<Object> resultDeserializer, TypeDeserializer resultTypeDeserializer) {
+        super(src);
+        this.codeFieldName = src.codeFieldName;
+        this.messageFieldName = src.messageFieldName;
+        this.resultFieldName = src.resultFieldName;
+        this.resultType = resultType;
+        this.resultDeserializer = resultDeserializer;
+        this.resultTypeDeserializer = resultTypeDeserializer;
+    }
+
+    @Override
+    public JsonDeserializer<?> createContextual(DeserializationContext ctxt, BeanProperty property) throws JsonMappingException {
+        // 优先取当前要反序列化的类型：在 List<ResponseResult<Foo>>、Map<K, ResponseResult<Foo>> 中时属性类型是容器类型
+        JavaType type = ctxt.getContextualType();
+        if (type == null && property != null) {
+            type = property.getType();
+        }
+        final JavaType resultType = type != null && type.isTypeOrSubTypeOf(ResponseResult.class)
+                ? type.containedTypeOrUnknown(0) : ctxt.getTypeFactory().constructType(Object.class);
+        if (resultType.equals(this.resultType)) {
+            return this;
+        }
+        final JsonDeserializer<Object> resultDeserializer = ctxt.findContextualValueDeserializer(resultType, property);
+        final TypeDeserializer resultTypeDeserializer = ctxt.getConfig().findTypeDeserializer(resultType);
+        return new ResponseResultDeserializer(this, resultType, resultDeserializer, resultTypeDeserializer);
+    }
+
+    @Override
+    public ResponseResult<?> deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = p.nextToken();
+        } else if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+            return (ResponseResult<?>) ctxt.handleUnexpectedToken(ResponseResult.class, p);
+        }
+
+        Integer code = null;
+        String message = "";
+        Object result = null;
+
+        for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+            final String fieldName = p.currentName();
+            final JsonToken valueToken = p.nextToken();
+            if (this.codeFieldName.equals(fieldName)) {
+                code = parseCode(p, ctxt, valueToken);
+            } else if (this.messageFieldName.equals(fieldName)) {
+                if (valueToken.isScalarValue()) {
+                    message = valueToken == JsonToken.VALUE_NULL ? "" : p.getText();
+                } else {
+                    p.skipChildren();
+                }
+            } else if (this.resultFieldName.equals(fieldName)) {
+                result = parseResult(p, ctxt, valueToken);
+            } else {
+                // 忽略其他字段
+                p.skipChildren();
+            }
+        }
+
+        if (code == null) {
+            throw JsonMappingException.from(p, this.codeFieldName + "不存在，ResponseResult序列化失败 ");
+        }
+        return ResponseResult.of(code, message, result);
+    }
+
+    private Integer parseCode(JsonParser p, DeserializationContext ctxt, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return p.getIntValue();
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            try {
+                return Integer.parseInt(p.getText().trim());
+            } catch (NumberFormatException e) {
+                return (Integer) ctxt.handleWeirdStringValue(Integer.class, p.getText(), "%s 不是合法的状态值", this.codeFieldName);
+            }
+        }
+        return (Integer) ctxt.handleUnexpectedToken(Integer.class, p);
+    }
+
+    private Object parseResult(JsonParser p, DeserializationContext ctxt, JsonToken token) throws IOException {
+        JsonDeserializer<Object> deserializer = this.resultDeserializer;
+        if (deserializer == null) {
+            // 没有经过 createContextual 时按 Object 处理
+            deserializer = ctxt.findRootValueDeserializer(ctxt.getTypeFactory().constructType(Object.class));
+        }
+        if (token == JsonToken.VALUE_NULL) {
+            return deserializer.getNullValue(ctxt);
+        }
+        if (this.resultTypeDeserializer != null) {
+            return deserializer.deserializeWithType(p, ctxt, this.resultTypeDeserializer);
+        }
+        return deserializer.deserialize(p, ctxt);
+    }
+}
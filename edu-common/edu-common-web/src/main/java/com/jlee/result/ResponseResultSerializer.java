@@ -0,0 +1,183 @@
+package com.jlee.result;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.WritableTypeId;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.impl.PropertySerializerMap;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.jlee.config.ResponseResultProperties;
+import com.jlee.utils.ResponseResultPropertiesUtils;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * ResponseResult 的 jackson 序列化器，直接将 code、message、result 写入 JsonGenerator
+ * <p>
+ * 字段名在创建时从 ResponseResultProperties 中读取并预先编码，不需要每次序列化都创建一个 Map，
+ * 字段值的忽略规则与序列化 Map 时一致，即 spring.jackson.default-property-inclusion 同样有效；
+ * 启用多态类型 (default typing) 时，ResponseResult 本身和 result 的类型信息也与序列化 Map 时一致
+ *
+ * @author jlee
+ */
+public class ResponseResultSerializer extends StdSerializer<ResponseResult<?>> implements ContextualSerializer {
+
+    private final SerializedString codeFieldName;
+    private final SerializedString messageFieldName;
+    private final SerializedString resultFieldName;
+
+    /**
+     * 是否忽略为 null 的字段
+     */
+    private final boolean suppressNulls;
+    /**
+     * 是否忽略为空的字段 (空字符串、空集合等)
+     */
+    private final boolean suppressEmpty;
+    /**
+     * result 字段的类型信息序列化器，未启用多态类型时为 null
+     */
+    private final TypeSerializer resultTypeSerializer;
+
+    /**
+     * result 字段的序列化器缓存
+     */
+    private transient PropertySerializerMap dynamicResultSerializers;
+
+    public ResponseResultSerializer() {
+        this(ResponseResultPropertiesUtils.getResponseResultProperties());
+    }
+
+    @SuppressWarnings("unchecked")
+    public ResponseResultSerializer(ResponseResultProperties responseResultProperties) {
+        super((Class<ResponseResult<?>>) (Class<?>) ResponseResult.class);
+        this.codeFieldName = new SerializedString(responseResultProperties.getCodeFieldName());
+        this.messageFieldName = new SerializedString(responseResultProperties.getMessageFieldName());
+        this.resultFieldName = new SerializedString(responseResultProperties.getResultFieldName());
+        this.suppressNulls = false;
+        this.suppressEmpty = false;
+        this.resultTypeSerializer = null;
+        this.dynamicResultSerializers = PropertySerializerMap.emptyForProperties();
+    }
+
+    protected ResponseResultSerializer(ResponseResultSerializer src, boolean suppressNulls, boolean suppressEmpty,
+                                       TypeSerializer resultTypeSerializer) {
+        super(src);
+        this.codeFieldName = src.codeFieldName;
+        this.messageFieldName = src.messageFieldName;
+        this.resultFieldName = src.resultFieldName;
+        this.suppressNulls = suppressNulls;
+        this.suppressEmpty = suppressEmpty;
+        this.resultTypeSerializer = resultTypeSerializer;
+        this.dynamicResultSerializers = PropertySerializerMap.emptyForProperties();
+    }
+
+    @Override
+    public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property) throws JsonMappingException {
+        // 与 MapSerializer 使用相同的规则，保证和原来序列化 Map 时的输出一致
+        final JsonInclude.Value inclusion = findIncludeOverrides(provider, property, Map.class);
+        final JsonInclude.Include contentInclusion = inclusion == null ? JsonInclude.Include.USE_DEFAULTS : inclusion.getContentInclusion();
+        boolean suppressNulls;
+        boolean suppressEmpty = false;
+        switch (contentInclusion) {
+            case USE_DEFAULTS:
+                suppressNulls = !provider.isEnabled(SerializationFeature.WRITE_NULL_MAP_VALUES);
+                break;
+            case ALWAYS:
+                suppressNulls = false;
+                break;
+            case NON_EMPTY:
+                suppressNulls = true;
+                suppressEmpty = true;
+                break;
+            default:
+                // NON_NULL、NON_ABSENT、NON_DEFAULT 等对 Object 类型的字段都只忽略 null
+                suppressNulls = true;
+                break;
+        }
+        // 与 Map<String, Object> 的值相同，result 按 Object 类型决定是否写出类型信息
+        final TypeSerializer resultTypeSerializer = provider.findTypeSerializer(provider.constructType(Object.class));
+        if (suppressNulls == this.suppressNulls && suppressEmpty == this.suppressEmpty
+                && resultTypeSerializer == this.resultTypeSerializer) {
+            return this;
+        }
+        return new ResponseResultSerializer(this, suppressNulls, suppressEmpty, resultTypeSerializer);
+    }
+
+    @Override
+    public void serialize(ResponseResult<?> value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(value);
+        this.writeFields(value, gen, provider);
+        gen.writeEndObject();
+    }
+
+    @Override
+    public void serializeWithType(ResponseResult<?> value, JsonGenerator gen, SerializerProvider provider,
+                                  TypeSerializer typeSer) throws IOException {
+        gen.setCurrentValue(value);
+        final WritableTypeId typeId = typeSer.writeTypePrefix(gen, typeSer.typeId(value, JsonToken.START_OBJECT));
+        this.writeFields(value, gen, provider);
+        typeSer.writeTypeSuffix(gen, typeId);
+    }
+
+    @Override
+    public boolean isEmpty(SerializerProvider provider, ResponseResult<?> value) {
+        return value == null;
+    }
+
+    private void writeFields(ResponseResult<?> value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeFieldName(this.codeFieldName);
+        gen.writeNumber(value.getCode());
+
+        final String message = value.getMessage();
+        if (message == null) {
+            if (!this.suppressNulls) {
+                gen.writeFieldName(this.messageFieldName);
+                gen.writeNull();
+            }
+        } else if (!(this.suppressEmpty && message.isEmpty())) {
+            gen.writeFieldName(this.messageFieldName);
+            gen.writeString(message);
+        }
+
+        final Object result = value.getResult();
+        if (result == null) {
+            if (!this.suppressNulls) {
+                gen.writeFieldName(this.resultFieldName);
+                provider.defaultSerializeNull(gen);
+            }
+        } else {
+            final JsonSerializer<Object> serializer = findResultSerializer(result.getClass(), provider);
+            if (!(this.suppressEmpty && serializer.isEmpty(provider, result))) {
+                gen.writeFieldName(this.resultFieldName);
+                if (this.resultTypeSerializer != null) {
+                    serializer.serializeWithType(result, gen, provider, this.resultTypeSerializer);
+                } else {
+                    serializer.serialize(result, gen, provider);
+                }
+            }
+        }
+    }
+
+    private JsonSerializer<Object> findResultSerializer(Class<?> type, SerializerProvider provider) throws JsonMappingException {
+        final PropertySerializerMap serializers = this.dynamicResultSerializers;
+        final JsonSerializer<Object> serializer = serializers.serializerFor(type);
+        if (serializer != null) {
+            return serializer;
+        }
+        final PropertySerializerMap.SerializerAndMapResult result = serializers.findAndAddSecondarySerializer(type, provider, null);
+        if (serializers != result.map) {
+            this.dynamicResultSerializers = result.map;
+        }
+        return result.serializer;
+    }
+}
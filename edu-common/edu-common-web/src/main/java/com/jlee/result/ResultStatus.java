@@ -37,4 +37,16 @@ public interface ResultStatus {
      * @return 变量名
      */
     String name();
+
+    /**
+     * 是否是业务预期内的错误 (如校验不通过、资源不存在)，这类错误只需要返回给调用方，调用栈没有人看
+     * <p>
+     * 返回 true 时，由该状态创建的 ApiException 不收集调用栈，GlobalExceptionHandler 按 result.lightweight-log-sample-rate 采样记录日志；
+     * 也可以配置 result.lightweight-api-exception=true 对所有状态开启
+     *
+     * @return 是否是轻量的 ApiException
+     */
+    default boolean isLightweight() {
+        return false;
+    }
 }
@@ -1,12 +1,23 @@
 package com.jlee.utils;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.jlee.annotation.EnumCode;
+import com.jlee.result.ResultStatus;
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.ReflectionUtils;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
+import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.List;
+import java.util.function.ToIntFunction;
 
 /**
  * @author jlee
@@ -35,4 +46,75 @@ public class EnumUtils {
         }
         return method;
     }
+
+    /**
+     * 获取枚举类中 标记了 JsonValue 注解的一个实例方法 (无参数)
+     *
+     * @param targetType 枚举类 class
+     * @param <T>        枚举类型
+     * @return 方法，如果没有 JsonValue 注解返回 null
+     */
+    @Nullable
+    public static <T extends Enum<?>> Method getJsonValueMethod(Class<T> targetType) {
+        for (Method method : BeanUtils.getMethodsListWithAnnotation(targetType, JsonValue.class, true)) {
+            if (!Modifier.isStatic(method.getModifiers()) && method.getParameterCount() == 0
+                    && method.getAnnotation(JsonValue.class).value()) {
+                ReflectionUtils.makeAccessible(method);
+                return method;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 将 JsonCreator 工厂方法绑定为 (String)Object 类型的 MethodHandle，调用时使用 invokeExact，不再经过反射
+     *
+     * @param method JsonCreator 工厂方法，参数类型需要能接收 String
+     * @return MethodHandle
+     */
+    public static MethodHandle getJsonCreatorHandle(Method method) {
+        ReflectionUtils.makeAccessible(method);
+        try {
+            return MethodHandles.lookup().unreflect(method).asType(MethodType.methodType(Object.class, String.class));
+        } catch (IllegalAccessException | WrongMethodTypeException e) {
+            throw new IllegalArgumentException("@JsonCreator 方法 " + method + " 需要一个可以接收 String 的参数", e);
+        }
+    }
+
+    /**
+     * 获取枚举对象状态码的函数：优先取标记了 {@link EnumCode} 的字段或无参方法，其次是 {@link ResultStatus#getCode()}
+     * <p>
+     * 只在创建查找表时调用，反射读取字段或调用方法不在转换路径上
+     *
+     * @param targetType 枚举类 class
+     * @param <T>        枚举类型
+     * @return 获取状态码的函数，没有声明状态码时返回 null
+     */
+    @Nullable
+    public static <T extends Enum<?>> ToIntFunction<Object> getEnumCodeFunction(Class<T> targetType) {
+        for (Field field : targetType.getDeclaredFields()) {
+            if (!field.isEnumConstant() && !Modifier.isStatic(field.getModifiers()) && field.isAnnotationPresent(EnumCode.class)) {
+                ReflectionUtils.makeAccessible(field);
+                return constant -> toCode(ReflectionUtils.getField(field, constant), field);
+            }
+        }
+        List<Method> methodList = BeanUtils.getMethodsListWithAnnotation(targetType, EnumCode.class, true);
+        if (!CollectionUtils.isEmpty(methodList)) {
+            Assert.isTrue(methodList.size() == 1, "@EnumCode 只能标记在一个方法上");
+            Method method = methodList.get(0);
+            Assert.isTrue(!Modifier.isStatic(method.getModifiers()) && method.getParameterCount() == 0,
+                    "@EnumCode 只能标记在无参的实例方法上");
+            ReflectionUtils.makeAccessible(method);
+            return constant -> toCode(ReflectionUtils.invokeMethod(method, constant), method);
+        }
+        if (ResultStatus.class.isAssignableFrom(targetType)) {
+            return constant -> ((ResultStatus) constant).getCode();
+        }
+        return null;
+    }
+
+    private static int toCode(@Nullable Object code, Object member) {
+        Assert.isInstanceOf(Number.class, code, "@EnumCode 标记的 " + member + " 需要返回 int 类型的状态码");
+        return ((Number) code).intValue();
+    }
 }
@@ -0,0 +1,185 @@
+package com.jlee.utils;
+
+import org.springframework.lang.Nullable;
+
+import java.util.Arrays;
+import java.util.function.ToIntFunction;
+
+/**
+ * int → 枚举对象 的只读查找表，创建后不再修改，查找时不装箱、不分配对象
+ * <p>
+ * 状态码比较紧凑 (最大值与最小值之差不超过枚举数量的 4 倍或 64) 时使用按偏移量下标的数组，否则使用开放寻址 (线性探测) 的 int 散列表
+ *
+ * @param <E> 枚举类型
+ * @author jlee
+ */
+public final class IntEnumTable<E extends Enum<E>> {
+
+    private static final int DENSE_MIN_SPAN = 64;
+    private static final int DENSE_FACTOR = 4;
+
+    private final Class<E> enumType;
+
+    /**
+     * 数组模式下第 0 个元素对应的状态码
+     */
+    private final int offset;
+    /**
+     * 数组模式下 下标为 code - offset；散列表模式下与 keys 一一对应，null 为空槽
+     */
+    private final E[] values;
+    /**
+     * 散列表模式下的状态码，数组模式为 null
+     */
+    @Nullable
+    private final int[] keys;
+    private final int mask;
+
+    private IntEnumTable(Class<E> enumType, int offset, E[] values, @Nullable int[] keys) {
+        this.enumType = enumType;
+        this.offset = offset;
+        this.values = values;
+        this.keys = keys;
+        this.mask = values.length - 1;
+    }
+
+    /**
+     * 以每个枚举对象的状态码创建查找表
+     *
+     * @param enumType 枚举类 class
+     * @param codeFunc 获取枚举对象的状态码
+     * @param <E>      枚举类型
+     * @return 查找表
+     * @throws IllegalStateException 两个枚举对象的状态码相同时抛出
+     */
+    public static <E extends Enum<E>> IntEnumTable<E> of(Class<E> enumType, ToIntFunction<? super E> codeFunc) {
+        return of(enumType, codeFunc, false);
+    }
+
+    /**
+     * 以每个枚举对象的状态码创建查找表
+     *
+     * @param enumType       枚举类 class
+     * @param codeFunc       获取枚举对象的状态码
+     * @param allowDuplicate 是否允许状态码重复，允许时重复的状态码对应声明在前面的枚举对象
+     * @param <E>            枚举类型
+     * @return 查找表
+     * @throws IllegalStateException 不允许重复且两个枚举对象的状态码相同时抛出
+     */
+    public static <E extends Enum<E>> IntEnumTable<E> of(Class<E> enumType, ToIntFunction<? super E> codeFunc,
+                                                         boolean allowDuplicate) {
+        final E[] constants = enumType.getEnumConstants();
+        final int[] codes = new int[constants.length];
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int i = 0; i < constants.length; i++) {
+            codes[i] = codeFunc.applyAsInt(constants[i]);
+            min = Math.min(min, codes[i]);
+            max = Math.max(max, codes[i]);
+        }
+        if (constants.length == 0) {
+            return new IntEnumTable<>(enumType, 0, constants, null);
+        }
+
+        final long span = (long) max - min + 1;
+        if (span <= Math.max(DENSE_MIN_SPAN, (long) constants.length * DENSE_FACTOR)) {
+            final E[] values = newArray(constants, (int) span);
+            for (int i = 0; i < constants.length; i++) {
+                final int index = codes[i] - min;
+                if (values[index] == null) {
+                    values[index] = constants[i];
+                } else if (!allowDuplicate) {
+                    throw duplicate(enumType, values[index], constants[i], codes[i]);
+                }
+            }
+            return new IntEnumTable<>(enumType, min, values, null);
+        }
+
+        // 装载因子不超过 0.5
+        final int capacity = Integer.highestOneBit(constants.length * 2 - 1) << 1;
+        final E[] values = newArray(constants, capacity);
+        final int[] keys = new int[capacity];
+        for (int i = 0; i < constants.length; i++) {
+            int slot = mix(codes[i]) & (capacity - 1);
+            while (values[slot] != null && keys[slot] != codes[i]) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            if (values[slot] == null) {
+                keys[slot] = codes[i];
+                values[slot] = constants[i];
+            } else if (!allowDuplicate) {
+                throw duplicate(enumType, values[slot], constants[i], codes[i]);
+            }
+        }
+        return new IntEnumTable<>(enumType, 0, values, keys);
+    }
+
+    /**
+     * 以 ordinal 为状态码创建查找表
+     *
+     * @param enumType 枚举类 class
+     * @param <E>      枚举类型
+     * @return 查找表
+     */
+    public static <E extends Enum<E>> IntEnumTable<E> ofOrdinal(Class<E> enumType) {
+        return new IntEnumTable<>(enumType, 0, enumType.getEnumConstants(), null);
+    }
+
+    /**
+     * 按状态码查找枚举对象
+     *
+     * @param code 状态码
+     * @return 枚举对象，没有时返回 null
+     */
+    @Nullable
+    public E get(int code) {
+        final int[] keys = this.keys;
+        if (keys == null) {
+            if (code < this.offset) {
+                return null;
+            }
+            // code >= offset 时减法溢出只会得到负数
+            final int index = code - this.offset;
+            return index >= 0 && index < this.values.length ? this.values[index] : null;
+        }
+        int slot = mix(code) & this.mask;
+        E value;
+        while ((value = this.values[slot]) != null) {
+            if (keys[slot] == code) {
+                return value;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        return null;
+    }
+
+    /**
+     * 按状态码查找枚举对象
+     *
+     * @param code 状态码
+     * @return 枚举对象
+     * @throws IllegalArgumentException 没有该状态码的枚举对象时抛出
+     */
+    public E getRequired(int code) {
+        final E value = get(code);
+        if (value == null) {
+            throw new IllegalArgumentException("No enum constant " + this.enumType.getName() + " for code " + code);
+        }
+        return value;
+    }
+
+    private static int mix(int code) {
+        final int h = code * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static <E> E[] newArray(E[] constants, int length) {
+        final E[] values = Arrays.copyOf(constants, length);
+        Arrays.fill(values, null);
+        return values;
+    }
+
+    private static IllegalStateException duplicate(Class<?> enumType, Object existing, Object value, int code) {
+        return new IllegalStateException(enumType.getName() + " 中 " + existing + " 和 " + value + " 的状态码都是 " + code);
+    }
+}
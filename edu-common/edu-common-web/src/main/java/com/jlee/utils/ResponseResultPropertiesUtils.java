@@ -2,6 +2,8 @@ package com.jlee.utils;
 
 import com.jlee.config.ResponseResultProperties;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
 
 /**
  * 提供一个获取配置的工具类，减少 responseResultProperties 的注入
@@ -19,7 +21,37 @@ public class ResponseResultPropertiesUtils {
         ResponseResultPropertiesUtils.responseResultProperties = responseResultProperties;
     }
 
+    /**
+     * 获取配置
+     *
+     * @return ResponseResultProperties
+     * @throws IllegalStateException 还没有初始化配置时抛出，避免序列化器在此之前创建而使用了错误的字段名
+     */
     public static ResponseResultProperties getResponseResultProperties() {
+        final ResponseResultProperties properties = responseResultProperties;
+        if (properties == null) {
+            throw new IllegalStateException("ResponseResultProperties 还没有初始化，在 Spring 容器外使用时请先调用 setResponseResultProperties");
+        }
+        return properties;
+    }
+
+    /**
+     * 获取配置，还没有初始化时返回 null，用于可以在 Spring 容器外创建的对象 (如异常) 按默认值处理
+     *
+     * @return ResponseResultProperties，还没有初始化时返回 null
+     */
+    @Nullable
+    public static ResponseResultProperties findResponseResultProperties() {
         return responseResultProperties;
     }
+
+    /**
+     * 在 Spring 容器外使用时(例如基准测试)设置配置
+     *
+     * @param responseResultProperties 配置
+     */
+    public static void setResponseResultProperties(ResponseResultProperties responseResultProperties) {
+        Assert.notNull(responseResultProperties, "responseResultProperties must not be null");
+        ResponseResultPropertiesUtils.responseResultProperties = responseResultProperties;
+    }
 }
@@ -3,8 +3,6 @@ package com.jlee.utils;
 import com.jlee.result.ResultStatus;
 import org.springframework.http.HttpStatus;
 
-import java.util.Arrays;
-
 /**
  * 封装统一的返回结果集
  * <p>
@@ -26,7 +24,7 @@ public class ResponseResultUtils {
         } else if (status instanceof HttpStatus) {
             return (HttpStatus) status;
         } else if (status instanceof Integer) {
-            return Arrays.stream(HttpStatus.values()).filter((httpStatus) -> httpStatus.value() == (int) status).findAny().orElse(null);
+            return StatusRegistry.httpStatus((Integer) status);
         }
         // 其余类型返回 null
         return null;
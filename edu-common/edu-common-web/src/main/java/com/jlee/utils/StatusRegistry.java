@@ -0,0 +1,83 @@
+package com.jlee.utils;
+
+import com.jlee.annotation.EnumCode;
+import com.jlee.result.ResultStatus;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.ToIntFunction;
+
+/**
+ * 状态码 → 状态 的查找表
+ * <p>
+ * HttpStatus 在类加载时填充到 600 个元素的数组中；实现了 {@link ResultStatus} (或用 {@link EnumCode} 声明状态码) 的枚举类
+ * 在第一次查找时为该枚举类创建一张 {@link IntEnumTable}，之后的查找不再调用 values() 复制数组，也不再创建 Stream
+ *
+ * @author jlee
+ */
+public final class StatusRegistry {
+
+    /**
+     * HttpStatus 的状态码都小于 600
+     */
+    private static final int HTTP_STATUS_TABLE_SIZE = 600;
+
+    /**
+     * 状态码 → HttpStatus，同一个状态码有多个枚举对象时 (如 302 的 FOUND 和已过时的 MOVED_TEMPORARILY) 与 HttpStatus.resolve 一致取声明在前面的
+     */
+    private static final HttpStatus[] HTTP_STATUS_TABLE = new HttpStatus[HTTP_STATUS_TABLE_SIZE];
+
+    private static final ConcurrentMap<Class<?>, IntEnumTable<?>> ENUM_TABLES = new ConcurrentHashMap<>();
+
+    static {
+        for (HttpStatus httpStatus : HttpStatus.values()) {
+            if (HTTP_STATUS_TABLE[httpStatus.value()] == null) {
+                HTTP_STATUS_TABLE[httpStatus.value()] = httpStatus;
+            }
+        }
+    }
+
+    private StatusRegistry() {
+    }
+
+    /**
+     * 按状态码获取 HttpStatus
+     *
+     * @param code Http 状态码
+     * @return HttpStatus，没有对应的 HttpStatus 时返回 null
+     */
+    @Nullable
+    public static HttpStatus httpStatus(int code) {
+        return code >= 0 && code < HTTP_STATUS_TABLE_SIZE ? HTTP_STATUS_TABLE[code] : null;
+    }
+
+    /**
+     * 按状态码获取枚举对象
+     * <p>
+     * 支持 HttpStatus、实现了 {@link ResultStatus} 的枚举 和 用 {@link EnumCode} 声明了状态码的枚举；
+     * 同一个状态码有多个枚举对象时取声明在前面的
+     *
+     * @param enumType 枚举类 class
+     * @param code     状态码
+     * @param <E>      枚举类型
+     * @return 枚举对象，没有对应的枚举对象或者该枚举类没有状态码时返回 null
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public static <E extends Enum<E>> E resolve(Class<E> enumType, int code) {
+        if (enumType == HttpStatus.class) {
+            return (E) httpStatus(code);
+        }
+        final IntEnumTable<E> table = (IntEnumTable<E>) ENUM_TABLES.computeIfAbsent(enumType, StatusRegistry::createTable);
+        return table == null ? null : table.get(code);
+    }
+
+    @Nullable
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static IntEnumTable<?> createTable(Class<?> enumType) {
+        final ToIntFunction<Object> codeFunc = EnumUtils.getEnumCodeFunction((Class) enumType);
+        return codeFunc == null ? null : IntEnumTable.of((Class) enumType, codeFunc, true);
+    }
+}